@@ -1,8 +1,9 @@
 package com.sinaev.aspects;
 
+import com.sinaev.handlers.AuditLogWriter;
 import com.sinaev.models.dto.UserDTO;
 import com.sinaev.models.entities.AuditLog;
-import com.sinaev.repositories.AuditLogRepository;
+import com.sinaev.security.SessionTokens;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.After;
@@ -17,14 +18,16 @@ import java.time.LocalDateTime;
  * Aspect for auditing actions performed in the application.
  * <p>
  * This aspect intercepts methods annotated for auditing and logs the actions
- * performed by users along with a timestamp.
+ * performed by users along with a timestamp. Entries are handed to the {@link AuditLogWriter},
+ * which writes them in the background, so auditing adds no database round trip to the request.
  * </p>
  */
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class AuditAspect {
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final SessionTokens sessionTokens;
 
     /**
      * Logs the action performed by a user after the execution of audited methods.
@@ -51,20 +54,20 @@ public class AuditAspect {
             LocalDateTime timestamp = LocalDateTime.now();
 
             AuditLog auditLog = new AuditLog(username, action, timestamp);
-            if (auditLogRepository != null) {
-                auditLogRepository.save(auditLog);
+            if (auditLogWriter != null) {
+                auditLogWriter.submit(auditLog);
             }
         }
     }
 
     /**
-     * Retrieves the current username from the HTTP request session.
+     * Retrieves the current username from the HTTP request session or session token.
      *
-     * @param req the HTTP request containing the session
+     * @param req the HTTP request
      * @return the username of the logged-in user, or "unknown_user" if not found
      */
     private String getCurrentUsername(HttpServletRequest req) {
-        UserDTO userDTO = (UserDTO) req.getSession().getAttribute("loggedIn");
+        UserDTO userDTO = sessionTokens.currentUser(req);
         if (userDTO == null) {
             return "unknown_user";
         } else {
@@ -1,27 +1,33 @@
 package com.sinaev.aspects;
 
+import com.sinaev.metrics.LatencyHistogram;
+import com.sinaev.metrics.MethodMetrics;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
 /**
- * Aspect for logging the execution time of methods annotated with @Loggable.
+ * Aspect for measuring the execution time of methods annotated with @Loggable.
  * <p>
- * This aspect intercepts the execution of methods annotated with @Loggable
- * and logs the method name and execution time.
+ * This aspect intercepts the execution of methods annotated with @Loggable and records
+ * their duration into the per-method histograms of {@link MethodMetrics}. Nothing is
+ * logged per call; the aggregates are read through the admin API.
  * </p>
  */
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class LoggableAspect {
+    private final MethodMetrics methodMetrics;
 
     /**
-     * Logs the execution time of methods annotated with @Loggable.
+     * Records the execution time of methods annotated with @Loggable.
      * <p>
      * This advice runs around the execution of methods annotated with @Loggable,
-     * logging the method signature and the time taken to execute the method.
+     * measuring the call with {@link System#nanoTime()} and counting calls that throw.
      * </p>
      *
      * @param proceedingJoinPoint the join point representing the method execution
@@ -30,12 +36,15 @@ public class LoggableAspect {
      */
     @Around("Pointcuts.annotatedByLoggable()")
     public Object logging(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        System.out.println("Calling method " + proceedingJoinPoint.getSignature());
-        long start = System.currentTimeMillis();
-        Object result = proceedingJoinPoint.proceed();
-        long end = System.currentTimeMillis();
-        long exTime = end - start;
-        System.out.println("Executed of method " + proceedingJoinPoint.getSignature() + " finished. Executed time is: " + exTime + " ms");
-        return result;
+        LatencyHistogram histogram = methodMetrics.histogram(((MethodSignature) proceedingJoinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = proceedingJoinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            histogram.record(System.nanoTime() - start, failed);
+        }
     }
 }
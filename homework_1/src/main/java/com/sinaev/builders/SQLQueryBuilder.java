@@ -0,0 +1,137 @@
+package com.sinaev.builders;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builder for parameterized SQL queries with optional predicates.
+ * <p>
+ * Conditions are appended to a base query as a {@code WHERE ... AND ...} chain, and their values are
+ * collected in order so they can be bound to a {@link PreparedStatement}. Values are never concatenated
+ * into the SQL text.
+ * </p>
+ */
+public class SQLQueryBuilder {
+    private final StringBuilder sql;
+    private final List<Object> parameters = new ArrayList<>();
+    private boolean hasWhere;
+
+    /**
+     * Constructs a builder starting from the given base query.
+     *
+     * @param baseQuery the query to extend, without a WHERE clause
+     */
+    public SQLQueryBuilder(String baseQuery) {
+        this.sql = new StringBuilder(baseQuery.strip());
+    }
+
+    /**
+     * Appends a condition joined with AND to the previous ones.
+     *
+     * @param condition  the SQL condition with {@code ?} placeholders
+     * @param parameters the values for the placeholders, in order
+     * @return this builder
+     */
+    public SQLQueryBuilder where(String condition, Object... parameters) {
+        sql.append(hasWhere ? " AND " : " WHERE ").append('(').append(condition).append(')');
+        hasWhere = true;
+        Collections.addAll(this.parameters, parameters);
+        return this;
+    }
+
+    /**
+     * Appends a single-parameter condition only if its value is present.
+     *
+     * @param condition the SQL condition with one {@code ?} placeholder
+     * @param parameter the value, or null to skip the condition
+     * @return this builder
+     */
+    public SQLQueryBuilder whereIfPresent(String condition, Object parameter) {
+        if (parameter != null) {
+            where(condition, parameter);
+        }
+        return this;
+    }
+
+    /**
+     * Appends an ORDER BY clause.
+     *
+     * @param ordering the ordering expression, e.g. {@code b.start_time, b.id}
+     * @return this builder
+     */
+    public SQLQueryBuilder orderBy(String ordering) {
+        sql.append(" ORDER BY ").append(ordering);
+        return this;
+    }
+
+    /**
+     * Appends a parameterized LIMIT clause.
+     *
+     * @param limit the maximum number of rows
+     * @return this builder
+     */
+    public SQLQueryBuilder limit(int limit) {
+        sql.append(" LIMIT ?");
+        parameters.add(limit);
+        return this;
+    }
+
+    /**
+     * Returns the SQL text built so far.
+     *
+     * @return the SQL query
+     */
+    public String toSql() {
+        return sql.toString();
+    }
+
+    /**
+     * Returns the collected parameter values in binding order.
+     *
+     * @return an unmodifiable list of parameters
+     */
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Prepares the built query on the given connection and binds all parameters.
+     *
+     * @param connection the connection to prepare the statement on
+     * @return the prepared statement, ready to execute
+     * @throws SQLException if the statement cannot be prepared or bound
+     */
+    public PreparedStatement prepare(Connection connection) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(toSql());
+        try {
+            bind(preparedStatement);
+        } catch (SQLException e) {
+            preparedStatement.close();
+            throw e;
+        }
+        return preparedStatement;
+    }
+
+    /**
+     * Binds the collected parameters to the given statement.
+     *
+     * @param preparedStatement the statement prepared from {@link #toSql()}
+     * @throws SQLException if a parameter cannot be bound
+     */
+    public void bind(PreparedStatement preparedStatement) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            Object parameter = parameters.get(i);
+            if (parameter instanceof LocalDateTime dateTime) {
+                preparedStatement.setTimestamp(i + 1, Timestamp.valueOf(dateTime));
+            } else {
+                preparedStatement.setObject(i + 1, parameter);
+            }
+        }
+    }
+}
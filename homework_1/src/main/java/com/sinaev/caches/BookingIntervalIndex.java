@@ -0,0 +1,440 @@
+package com.sinaev.caches;
+
+import com.sinaev.models.dto.FreeIntervalDTO;
+import com.sinaev.models.entities.Booking;
+import com.sinaev.models.entities.BookingSeries;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of booked intervals per room.
+ * <p>
+ * For every room the index keeps a sorted map from booking start time to booking end time.
+ * Intervals are half-open, {@code [start, end)}, so a booking ending at 11:00 does not overlap one
+ * starting at 11:00. Because bookings of one room never overlap, the only interval that can overlap
+ * a candidate is the one with the greatest start before the candidate's end, which makes an
+ * availability check a single O(log n) lookup.
+ * </p>
+ * <p>
+ * Recurring bookings are kept as {@link BookingSeries} rules next to the single intervals and are
+ * never expanded up front: an availability check only expands the occurrences of the room's series
+ * that fall into the checked interval.
+ * </p>
+ * <p>
+ * The index is warmed from the database at startup and updated by the repositories after each
+ * successful write. It can be rebuilt or compared with the database at any time. Every change moves
+ * the room to a new {@link #version(String) version}, so values derived from a room can be cached.
+ * </p>
+ * <p>
+ * Writes are applied one at a time. While a rebuild reads the database they are also recorded, and
+ * replayed on the rebuilt content before it is swapped in, so a booking committed after the read
+ * is not lost. Replaying a write that the read already saw leaves the content unchanged.
+ * </p>
+ */
+@Component
+public class BookingIntervalIndex {
+    private volatile Map<String, NavigableMap<LocalDateTime, LocalDateTime>> rooms = new ConcurrentHashMap<>();
+    private volatile Map<String, List<BookingSeries>> series = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long rebuiltAt;
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private List<Change> journal;
+
+    /**
+     * Checks whether the room has no booking overlapping the given interval.
+     *
+     * @param roomName  the name of the room
+     * @param startTime the inclusive start of the interval
+     * @param endTime   the exclusive end of the interval
+     * @return true if no indexed booking or series occurrence of the room overlaps the interval, false otherwise
+     */
+    public boolean isFree(String roomName, LocalDateTime startTime, LocalDateTime endTime) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = rooms.get(roomName);
+        if (intervals != null) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.lowerEntry(endTime);
+            if (candidate != null && candidate.getValue().isAfter(startTime)) {
+                return false;
+            }
+        }
+        for (BookingSeries roomSeries : seriesOf(roomName)) {
+            if (roomSeries.overlaps(startTime, endTime)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the earliest free interval of a room inside a window that is long enough for a meeting.
+     * <p>
+     * Only the intervals returned by {@link #intervalsIn(String, LocalDateTime, LocalDateTime)} are
+     * visited, so the cost depends on the bookings inside the window, not on the room's history.
+     * </p>
+     *
+     * @param roomName the name of the room
+     * @param from     the inclusive start of the window
+     * @param to       the exclusive end of the window
+     * @param duration the length of the meeting
+     * @return the first free interval, capped at the window, that is at least {@code duration} long, or null if there is none
+     */
+    public FreeIntervalDTO firstFreeInterval(String roomName, LocalDateTime from, LocalDateTime to, Duration duration) {
+        LocalDateTime cursor = from;
+        for (Map.Entry<LocalDateTime, LocalDateTime> interval : intervalsIn(roomName, from, to)) {
+            if (!cursor.plus(duration).isAfter(interval.getKey())) {
+                return new FreeIntervalDTO(cursor, interval.getKey());
+            }
+            if (interval.getValue().isAfter(cursor)) {
+                cursor = interval.getValue();
+            }
+            if (!cursor.isBefore(to)) {
+                return null;
+            }
+        }
+        return cursor.plus(duration).isAfter(to) ? null : new FreeIntervalDTO(cursor, to);
+    }
+
+    /**
+     * Returns the booked intervals of a room that may overlap a window, in start time order.
+     * <p>
+     * The intervals are read straight from the room's map, without copying, starting with the one
+     * that starts before the window; it may end before the window starts. Rooms with series get a
+     * sorted copy with the occurrences inside the window merged in.
+     * </p>
+     *
+     * @param roomName the name of the room
+     * @param from     the inclusive start of the window
+     * @param to       the exclusive end of the window
+     * @return the intervals as start and end times
+     */
+    public Collection<Map.Entry<LocalDateTime, LocalDateTime>> intervalsIn(String roomName, LocalDateTime from, LocalDateTime to) {
+        Collection<Map.Entry<LocalDateTime, LocalDateTime>> busy = List.of();
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = rooms.get(roomName);
+        if (intervals != null) {
+            LocalDateTime before = intervals.lowerKey(from);
+            busy = intervals.subMap(before == null ? from : before, true, to, false).entrySet();
+        }
+        List<BookingSeries> roomSeries = seriesOf(roomName);
+        if (!roomSeries.isEmpty()) {
+            List<Map.Entry<LocalDateTime, LocalDateTime>> merged = new ArrayList<>(busy);
+            for (BookingSeries bookingSeries : roomSeries) {
+                Duration length = bookingSeries.getDuration();
+                for (LocalDateTime start : bookingSeries.occurrences(from, to)) {
+                    merged.add(Map.entry(start, start.plus(length)));
+                }
+            }
+            merged.sort(Map.Entry.comparingByKey());
+            busy = merged;
+        }
+        return busy;
+    }
+
+    /**
+     * Returns the version of the content of a room.
+     * <p>
+     * The version changes after every change of the room's intervals or series, and after every
+     * rebuild, so a value derived from the room can be reused while the version stays the same.
+     * </p>
+     *
+     * @param roomName the name of the room
+     * @return the current version of the room
+     */
+    public long version(String roomName) {
+        return Math.max(rebuiltAt, versions.getOrDefault(roomName, 0L));
+    }
+
+    /**
+     * Returns the booking series of a room.
+     *
+     * @param roomName the name of the room
+     * @return the series of the room, possibly empty
+     */
+    public List<BookingSeries> seriesOf(String roomName) {
+        return series.getOrDefault(roomName, List.of());
+    }
+
+    /**
+     * Returns the booking series of all rooms.
+     *
+     * @return the series of every room that has any
+     */
+    public Map<String, List<BookingSeries>> allSeries() {
+        return Map.copyOf(series);
+    }
+
+    /**
+     * Adds a booking series to its room, replacing the series with the same ID if the room already has it.
+     *
+     * @param bookingSeries the series
+     */
+    public void addSeries(BookingSeries bookingSeries) {
+        String roomName = bookingSeries.getRoom().getName();
+        Long id = bookingSeries.getId();
+        write((roomMap, seriesMap) -> seriesMap.compute(roomName, (name, current) -> {
+            List<BookingSeries> updated = current == null ? new ArrayList<>() : new ArrayList<>(current);
+            updated.removeIf(existing -> existing == bookingSeries || id != null && id.equals(existing.getId()));
+            updated.add(bookingSeries);
+            return List.copyOf(updated);
+        }), roomName);
+    }
+
+    /**
+     * Replaces the booking series of one room.
+     *
+     * @param roomName   the name of the room
+     * @param roomSeries all series of the room
+     */
+    public void replaceSeries(String roomName, List<BookingSeries> roomSeries) {
+        List<BookingSeries> replaced = List.copyOf(roomSeries);
+        write((roomMap, seriesMap) -> {
+            if (replaced.isEmpty()) {
+                seriesMap.remove(roomName);
+            } else {
+                seriesMap.put(roomName, replaced);
+            }
+        }, roomName);
+    }
+
+    /**
+     * Adds a booked interval to the room.
+     *
+     * @param roomName  the name of the room
+     * @param startTime the start of the booking
+     * @param endTime   the end of the booking
+     */
+    public void add(String roomName, LocalDateTime startTime, LocalDateTime endTime) {
+        write((roomMap, seriesMap) -> roomMap.computeIfAbsent(roomName, name -> new ConcurrentSkipListMap<>())
+                .put(startTime, endTime), roomName);
+    }
+
+    /**
+     * Removes the booked interval starting at the given time from the room.
+     *
+     * @param roomName  the name of the room
+     * @param startTime the start of the booking
+     */
+    public void remove(String roomName, LocalDateTime startTime) {
+        write((roomMap, seriesMap) -> {
+            NavigableMap<LocalDateTime, LocalDateTime> intervals = roomMap.get(roomName);
+            if (intervals != null) {
+                intervals.remove(startTime);
+            }
+        }, roomName);
+    }
+
+    /**
+     * Moves all intervals and series of a room to its new name.
+     *
+     * @param oldName the current name of the room
+     * @param newName the new name of the room
+     */
+    public void renameRoom(String oldName, String newName) {
+        write((roomMap, seriesMap) -> {
+            NavigableMap<LocalDateTime, LocalDateTime> intervals = roomMap.remove(oldName);
+            if (intervals != null) {
+                roomMap.put(newName, intervals);
+            }
+            List<BookingSeries> roomSeries = seriesMap.remove(oldName);
+            if (roomSeries != null) {
+                seriesMap.put(newName, roomSeries);
+            }
+        }, oldName, newName);
+    }
+
+    /**
+     * Removes all intervals and series of a room.
+     *
+     * @param roomName the name of the room
+     */
+    public void removeRoom(String roomName) {
+        write((roomMap, seriesMap) -> {
+            roomMap.remove(roomName);
+            seriesMap.remove(roomName);
+        }, roomName);
+    }
+
+    /**
+     * Replaces the intervals of one room with the given bookings.
+     *
+     * @param roomName the name of the room
+     * @param bookings all bookings of the room
+     */
+    public void replaceRoom(String roomName, List<Booking> bookings) {
+        write((roomMap, seriesMap) -> {
+            NavigableMap<LocalDateTime, LocalDateTime> intervals = new ConcurrentSkipListMap<>();
+            for (Booking booking : bookings) {
+                intervals.put(booking.getStartTime(), booking.getEndTime());
+            }
+            if (intervals.isEmpty()) {
+                roomMap.remove(roomName);
+            } else {
+                roomMap.put(roomName, intervals);
+            }
+        }, roomName);
+    }
+
+    /**
+     * Replaces the content of the index with the bookings and series read from the database.
+     * <p>
+     * The new content is built aside and swapped in at once, so concurrent lookups see either
+     * the old or the new index. Writes made while the database is read are replayed on the new
+     * content before the swap, so they survive the rebuild. Rebuilds run one at a time.
+     * </p>
+     *
+     * @param bookings  reads all bookings to index
+     * @param allSeries reads all series to index
+     */
+    public void rebuild(Supplier<List<Booking>> bookings, Supplier<List<BookingSeries>> allSeries) {
+        synchronized (rebuildLock) {
+            synchronized (writeLock) {
+                journal = new ArrayList<>();
+            }
+            try {
+                Map<String, NavigableMap<LocalDateTime, LocalDateTime>> builtRooms = build(bookings.get());
+                Map<String, List<BookingSeries>> builtSeries = buildSeries(allSeries.get());
+                synchronized (writeLock) {
+                    for (Change change : journal) {
+                        change.apply(builtRooms, builtSeries);
+                    }
+                    rooms = builtRooms;
+                    series = builtSeries;
+                    rebuiltAt = changes.incrementAndGet();
+                }
+            } finally {
+                synchronized (writeLock) {
+                    journal = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed intervals.
+     *
+     * @return the number of intervals over all rooms
+     */
+    public int size() {
+        return rooms.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Compares the index with the given bookings.
+     *
+     * @param bookings all bookings as stored in the database
+     * @return the sorted names of rooms whose indexed intervals differ from the bookings
+     */
+    public List<String> diff(List<Booking> bookings) {
+        Map<String, NavigableMap<LocalDateTime, LocalDateTime>> expected = build(bookings);
+        Map<String, NavigableMap<LocalDateTime, LocalDateTime>> actual = rooms;
+
+        TreeSet<String> roomNames = new TreeSet<>(expected.keySet());
+        roomNames.addAll(actual.keySet());
+
+        List<String> mismatched = new ArrayList<>();
+        for (String roomName : roomNames) {
+            if (!Objects.equals(intervalsOf(expected, roomName), intervalsOf(actual, roomName))) {
+                mismatched.add(roomName);
+            }
+        }
+        return mismatched;
+    }
+
+    /**
+     * Applies a write to the index, records it if a rebuild is running, and moves the rooms it
+     * touches to a new version.
+     *
+     * @param change    the write
+     * @param roomNames the names of the rooms the write changes
+     */
+    private void write(Change change, String... roomNames) {
+        synchronized (writeLock) {
+            change.apply(rooms, series);
+            if (journal != null) {
+                journal.add(change);
+            }
+        }
+        for (String roomName : roomNames) {
+            changed(roomName);
+        }
+    }
+
+    /**
+     * Moves a room to a new version after its content has changed.
+     *
+     * @param roomName the name of the room
+     */
+    private void changed(String roomName) {
+        versions.merge(roomName, changes.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * Builds a fresh room map from the given bookings.
+     *
+     * @param bookings the bookings to index
+     * @return the intervals of each room
+     */
+    private static Map<String, NavigableMap<LocalDateTime, LocalDateTime>> build(List<Booking> bookings) {
+        Map<String, NavigableMap<LocalDateTime, LocalDateTime>> built = new ConcurrentHashMap<>();
+        for (Booking booking : bookings) {
+            built.computeIfAbsent(booking.getRoom().getName(), name -> new ConcurrentSkipListMap<>())
+                    .put(booking.getStartTime(), booking.getEndTime());
+        }
+        return built;
+    }
+
+    /**
+     * Builds a fresh series map from the given series.
+     *
+     * @param allSeries the series to index
+     * @return the series of each room
+     */
+    private static Map<String, List<BookingSeries>> buildSeries(List<BookingSeries> allSeries) {
+        Map<String, List<BookingSeries>> built = new ConcurrentHashMap<>();
+        for (BookingSeries bookingSeries : allSeries) {
+            built.computeIfAbsent(bookingSeries.getRoom().getName(), name -> new ArrayList<>()).add(bookingSeries);
+        }
+        built.replaceAll((name, roomSeries) -> List.copyOf(roomSeries));
+        return built;
+    }
+
+    /**
+     * Returns the intervals of a room, treating a missing room as having no intervals.
+     *
+     * @param index    the room map to read
+     * @param roomName the name of the room
+     * @return the intervals of the room, possibly empty
+     */
+    private static NavigableMap<LocalDateTime, LocalDateTime> intervalsOf(
+            Map<String, NavigableMap<LocalDateTime, LocalDateTime>> index, String roomName) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = index.get(roomName);
+        return intervals == null ? new ConcurrentSkipListMap<>() : intervals;
+    }
+
+    /**
+     * A write to the room and series maps of the index.
+     */
+    @FunctionalInterface
+    private interface Change {
+        /**
+         * Applies the write.
+         *
+         * @param roomMap   the intervals of each room
+         * @param seriesMap the series of each room
+         */
+        void apply(Map<String, NavigableMap<LocalDateTime, LocalDateTime>> roomMap, Map<String, List<BookingSeries>> seriesMap);
+    }
+}
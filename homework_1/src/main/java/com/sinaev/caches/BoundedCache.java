@@ -0,0 +1,150 @@
+package com.sinaev.caches;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, concurrent key-value cache with hit and miss counters.
+ * <p>
+ * Values are loaded on a miss and kept until invalidated or, if a time to live is set, until
+ * they expire. Missing values are not cached, so a key that did not exist is looked up again
+ * next time. When the cache is full, an arbitrary entry is evicted before a new one is added;
+ * entries are cheap to reload, so no recency bookkeeping is done on reads.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache holding at most {@code maxSize} entries.
+     *
+     * @param maxSize the maximum number of entries
+     */
+    public BoundedCache(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    /**
+     * Constructs a cache holding at most {@code maxSize} entries for at most {@code ttlMs} each.
+     *
+     * @param maxSize the maximum number of entries
+     * @param ttlMs   the time to live of an entry in milliseconds, or 0 to keep entries until invalidated
+     */
+    public BoundedCache(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    /**
+     * Returns the cached value of a key, loading it on a miss.
+     *
+     * @param key    the key
+     * @param loader loads the value of a key, returning null if there is none
+     * @return the value, or null if the loader found none
+     */
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && !entry.isExpired(ttlNanos)) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            evictIfFull();
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+        } else if (entry != null) {
+            entries.remove(key, entry);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value of a key.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes the values of all keys matching a condition.
+     *
+     * @param condition the condition on the key
+     */
+    public void invalidateIf(Predicate<? super K> condition) {
+        entries.keySet().removeIf(condition);
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached values.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to load the value.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Evicts entries until there is room for one more.
+     */
+    private void evictIfFull() {
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * A cached value with the time it was loaded.
+     *
+     * @param value    the cached value
+     * @param loadedAt the {@link System#nanoTime()} at which the value was loaded
+     * @param <V>      the type of the value
+     */
+    private record Entry<V>(V value, long loadedAt) {
+
+        boolean isExpired(long ttlNanos) {
+            return ttlNanos > 0 && System.nanoTime() - loadedAt >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.sinaev.caches;
+
+import com.sinaev.models.dto.FreeIntervalDTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Occupancy of one room on one day as a bitset of 96 slots of 15 minutes.
+ * <p>
+ * Slot {@code i} covers {@code [i * 15, (i + 1) * 15)} minutes after midnight; slots 0 to 63 are
+ * the bits of {@code low} and slots 64 to 95 the low bits of {@code high}. A slot is set when any
+ * booking of the day touches it. When every booking of the day starts and ends on a slot boundary,
+ * the occupancy is {@code exact}: a set slot is booked from start to end, so checking an interval
+ * against the slots it touches gives the same answer as checking it against the bookings.
+ * Otherwise a set slot may be only partly booked and the bits can only prove that an interval is free.
+ * </p>
+ *
+ * @param date  the day
+ * @param low   the slots 0 to 63
+ * @param high  the slots 64 to 95
+ * @param exact whether every booking of the day is aligned to slot boundaries
+ */
+public record DayOccupancy(LocalDate date, long low, long high, boolean exact) {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS = 24 * 60 / SLOT_MINUTES;
+    private static final int SLOT_SECONDS = SLOT_MINUTES * 60;
+
+    /**
+     * Builds the occupancy of a day from booked intervals.
+     *
+     * @param date      the day
+     * @param intervals booked intervals as start and end times; parts outside the day are ignored
+     * @return the occupancy of the day
+     */
+    public static DayOccupancy of(LocalDate date, Iterable<Map.Entry<LocalDateTime, LocalDateTime>> intervals) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        long low = 0;
+        long high = 0;
+        boolean exact = true;
+        for (Map.Entry<LocalDateTime, LocalDateTime> interval : intervals) {
+            LocalDateTime start = interval.getKey().isBefore(dayStart) ? dayStart : interval.getKey();
+            LocalDateTime end = interval.getValue().isAfter(dayEnd) ? dayEnd : interval.getValue();
+            if (!end.isAfter(start)) {
+                continue;
+            }
+            exact &= isAligned(dayStart, start) && isAligned(dayStart, end);
+            int from = firstSlot(dayStart, start);
+            int to = endSlot(dayStart, end);
+            low |= mask(from, to, 0);
+            high |= mask(from, to, 64);
+        }
+        return new DayOccupancy(date, low, high, exact);
+    }
+
+    /**
+     * Checks whether none of the slots touched by an interval of the day is set.
+     *
+     * @param startTime the inclusive start of the interval, not before the start of the day
+     * @param endTime   the exclusive end of the interval, not after the end of the day
+     * @return true if every touched slot is clear
+     */
+    public boolean isClear(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        return isClear(firstSlot(dayStart, startTime), endSlot(dayStart, endTime));
+    }
+
+    /**
+     * Checks whether the slots {@code [from, to)} are all clear.
+     *
+     * @param from the first slot
+     * @param to   the slot after the last one
+     * @return true if every slot of the range is clear
+     */
+    public boolean isClear(int from, int to) {
+        return (low & mask(from, to, 0)) == 0 && (high & mask(from, to, 64)) == 0;
+    }
+
+    /**
+     * Lists the maximal runs of clear slots as free intervals.
+     *
+     * @return the free intervals of the day in start time order
+     */
+    public List<FreeIntervalDTO> freeIntervals() {
+        LocalDateTime dayStart = date.atStartOfDay();
+        List<FreeIntervalDTO> freeIntervals = new ArrayList<>();
+        int slot = 0;
+        while (slot < SLOTS) {
+            int free = nextClear(slot);
+            if (free >= SLOTS) {
+                break;
+            }
+            int booked = Math.min(nextSet(free), SLOTS);
+            freeIntervals.add(new FreeIntervalDTO(dayStart.plusMinutes((long) free * SLOT_MINUTES),
+                    dayStart.plusMinutes((long) booked * SLOT_MINUTES)));
+            slot = booked;
+        }
+        return freeIntervals;
+    }
+
+    /**
+     * Returns the first clear slot at or after a slot.
+     *
+     * @param slot the slot to start from
+     * @return the clear slot, or a value of at least {@link #SLOTS} if there is none
+     */
+    private int nextClear(int slot) {
+        if (slot < 64) {
+            int found = Long.numberOfTrailingZeros(~low & (-1L << slot));
+            return found < 64 ? found : 64 + Long.numberOfTrailingZeros(~high);
+        }
+        return 64 + Long.numberOfTrailingZeros(~high & (-1L << (slot - 64)));
+    }
+
+    /**
+     * Returns the first set slot at or after a slot.
+     *
+     * @param slot the slot to start from
+     * @return the set slot, or a value of at least {@link #SLOTS} if there is none
+     */
+    private int nextSet(int slot) {
+        if (slot < 64) {
+            int found = Long.numberOfTrailingZeros(low & (-1L << slot));
+            return found < 64 ? found : 64 + Long.numberOfTrailingZeros(high);
+        }
+        return 64 + Long.numberOfTrailingZeros(high & (-1L << (slot - 64)));
+    }
+
+    /**
+     * Returns the bits of the slots {@code [from, to)} that fall into one word.
+     *
+     * @param from   the first slot
+     * @param to     the slot after the last one
+     * @param offset the slot of the lowest bit of the word, 0 or 64
+     * @return the bits of the word
+     */
+    private static long mask(int from, int to, int offset) {
+        int lo = Math.max(from - offset, 0);
+        int hi = Math.min(to - offset, 64);
+        if (lo >= hi) {
+            return 0;
+        }
+        long upTo = hi == 64 ? -1L : (1L << hi) - 1;
+        return upTo & (-1L << lo);
+    }
+
+    /**
+     * Returns the slot containing a time of the day.
+     *
+     * @param dayStart the start of the day
+     * @param time     the time, from the start to the end of the day
+     * @return the slot
+     */
+    private static int firstSlot(LocalDateTime dayStart, LocalDateTime time) {
+        return (int) (secondsOfDay(dayStart, time) / SLOT_SECONDS);
+    }
+
+    /**
+     * Returns the slot after the last slot touched by an interval ending at a time of the day.
+     *
+     * @param dayStart the start of the day
+     * @param time     the exclusive end of the interval
+     * @return the slot after the last touched one
+     */
+    private static int endSlot(LocalDateTime dayStart, LocalDateTime time) {
+        long seconds = secondsOfDay(dayStart, time) + (time.getNano() > 0 ? 1 : 0);
+        return (int) ((seconds + SLOT_SECONDS - 1) / SLOT_SECONDS);
+    }
+
+    /**
+     * Checks whether a time of the day falls on a slot boundary.
+     *
+     * @param dayStart the start of the day
+     * @param time     the time
+     * @return true if the time starts a slot or ends the day
+     */
+    private static boolean isAligned(LocalDateTime dayStart, LocalDateTime time) {
+        return time.getNano() == 0 && secondsOfDay(dayStart, time) % SLOT_SECONDS == 0;
+    }
+
+    /**
+     * Returns the whole seconds from the start of the day to a time, counting the next midnight as the end of the day.
+     *
+     * @param dayStart the start of the day
+     * @param time     the time, from the start to the end of the day
+     * @return the seconds since the start of the day
+     */
+    private static long secondsOfDay(LocalDateTime dayStart, LocalDateTime time) {
+        return time.isAfter(dayStart) && !time.toLocalDate().equals(dayStart.toLocalDate())
+                ? 24 * 60 * 60
+                : time.toLocalTime().toSecondOfDay();
+    }
+}
@@ -0,0 +1,95 @@
+package com.sinaev.caches;
+
+import com.sinaev.models.entities.Room;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Shared cache of rooms by name and user IDs by username.
+ * <p>
+ * Rooms and users change rarely, while their IDs are needed by almost every booking query. The
+ * repositories load entries through this cache and invalidate them on every write: renaming or
+ * deleting a room and saving a user. Rooms are handed out as copies, so callers cannot change
+ * the cached entity.
+ * </p>
+ */
+@Component
+public class NameIdCache {
+    static final int MAX_ENTRIES = 10_000;
+
+    private final BoundedCache<String, Room> rooms = new BoundedCache<>(MAX_ENTRIES);
+    private final BoundedCache<String, Long> userIds = new BoundedCache<>(MAX_ENTRIES);
+
+    /**
+     * Returns a room by its name, loading it on a miss.
+     *
+     * @param roomName the name of the room
+     * @param loader   loads a room with its ID by name, returning null if there is none
+     * @return a copy of the room, or null if there is no such room
+     */
+    public Room room(String roomName, Function<String, Room> loader) {
+        Room room = rooms.get(roomName, loader);
+        if (room == null) {
+            return null;
+        }
+        Room copy = new Room(room.getName(), room.getType());
+        copy.setId(room.getId());
+        return copy;
+    }
+
+    /**
+     * Returns the ID of a user, loading it on a miss.
+     *
+     * @param username the username
+     * @param loader   loads the ID by username, returning null if there is no such user
+     * @return the ID of the user, or null if there is no such user
+     */
+    public Long userId(String username, Function<String, Long> loader) {
+        return userIds.get(username, loader);
+    }
+
+    /**
+     * Removes a room from the cache.
+     *
+     * @param roomName the name of the room
+     */
+    public void invalidateRoom(String roomName) {
+        rooms.invalidate(roomName);
+    }
+
+    /**
+     * Removes a user from the cache.
+     *
+     * @param username the username
+     */
+    public void invalidateUser(String username) {
+        userIds.invalidate(username);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        rooms.clear();
+        userIds.clear();
+    }
+
+    /**
+     * Returns the room cache, for reading its counters.
+     *
+     * @return the room cache
+     */
+    public BoundedCache<String, Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Returns the user ID cache, for reading its counters.
+     *
+     * @return the user ID cache
+     */
+    public BoundedCache<String, Long> getUserIds() {
+        return userIds;
+    }
+}
@@ -0,0 +1,135 @@
+package com.sinaev.caches;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Cache of the {@link DayOccupancy} bitsets of room-days, derived from the {@link BookingIntervalIndex}.
+ * <p>
+ * The bitset of a room-day is built on first use from the intervals of that day and kept together
+ * with the {@link BookingIntervalIndex#version(String) version} of the room it was built from. A
+ * booking write moves the room to a new version, so the next lookup of any day of that room
+ * rebuilds the day from the index; days of other rooms are untouched. At most {@link #MAX_DAYS}
+ * room-days are kept, and days in the past can be dropped with {@link #evictBefore(LocalDate)}.
+ * </p>
+ * <p>
+ * Availability checks are answered with a bitwise test per day when the day is exact, and fall
+ * back to the index when a booking of the day does not start or end on a slot boundary.
+ * </p>
+ */
+@Component
+public class OccupancyCalendar {
+    static final int MAX_DAYS = 100_000;
+    static final int MAX_CHECKED_DAYS = 31;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BoundedCache<RoomDay, VersionedDay> days = new BoundedCache<>(MAX_DAYS);
+
+    /**
+     * Constructs the calendar over the interval index.
+     *
+     * @param bookingIntervalIndex the index the days are built from
+     */
+    public OccupancyCalendar(BookingIntervalIndex bookingIntervalIndex) {
+        this.bookingIntervalIndex = bookingIntervalIndex;
+    }
+
+    /**
+     * Returns the occupancy of a room on a day.
+     *
+     * @param roomName the name of the room
+     * @param date     the day
+     * @return the occupancy of the day, including the occurrences of the room's series
+     */
+    public DayOccupancy day(String roomName, LocalDate date) {
+        RoomDay key = new RoomDay(roomName, date);
+        long version = bookingIntervalIndex.version(roomName);
+        VersionedDay day = days.get(key, roomDay -> build(roomDay, version));
+        if (day.version() != version) {
+            days.invalidate(key);
+            day = days.get(key, roomDay -> build(roomDay, version));
+        }
+        return day.occupancy();
+    }
+
+    /**
+     * Checks whether the room has no booking overlapping the given interval.
+     * <p>
+     * Intervals spanning more than {@link #MAX_CHECKED_DAYS} days are checked against the index directly.
+     * </p>
+     *
+     * @param roomName  the name of the room
+     * @param startTime the inclusive start of the interval
+     * @param endTime   the exclusive end of the interval
+     * @return true if no booking or series occurrence of the room overlaps the interval, false otherwise
+     */
+    public boolean isFree(String roomName, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDate first = startTime.toLocalDate();
+        if (ChronoUnit.DAYS.between(first, endTime.toLocalDate()) > MAX_CHECKED_DAYS) {
+            return bookingIntervalIndex.isFree(roomName, startTime, endTime);
+        }
+        for (LocalDate date = first; date.atStartOfDay().isBefore(endTime); date = date.plusDays(1)) {
+            DayOccupancy day = day(roomName, date);
+            LocalDateTime dayStart = date.atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+            boolean clear = day.isClear(startTime.isAfter(dayStart) ? startTime : dayStart,
+                    endTime.isBefore(dayEnd) ? endTime : dayEnd);
+            if (!clear) {
+                return day.exact() ? false : bookingIntervalIndex.isFree(roomName, startTime, endTime);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the cached days before a date.
+     *
+     * @param date the first day to keep
+     */
+    public void evictBefore(LocalDate date) {
+        days.invalidateIf(roomDay -> roomDay.date().isBefore(date));
+    }
+
+    /**
+     * Returns the cached days.
+     *
+     * @return the cache of room-days
+     */
+    public BoundedCache<RoomDay, VersionedDay> getDays() {
+        return days;
+    }
+
+    /**
+     * Builds the occupancy of a room-day from the index.
+     *
+     * @param roomDay the room and day
+     * @param version the version of the room read before building
+     * @return the occupancy tagged with the version
+     */
+    private VersionedDay build(RoomDay roomDay, long version) {
+        LocalDateTime dayStart = roomDay.date().atStartOfDay();
+        return new VersionedDay(version, DayOccupancy.of(roomDay.date(),
+                bookingIntervalIndex.intervalsIn(roomDay.roomName(), dayStart, dayStart.plusDays(1))));
+    }
+
+    /**
+     * Key of a cached day.
+     *
+     * @param roomName the name of the room
+     * @param date     the day
+     */
+    public record RoomDay(String roomName, LocalDate date) {
+    }
+
+    /**
+     * A cached day with the version of the room it was built from.
+     *
+     * @param version   the version of the room
+     * @param occupancy the occupancy of the day
+     */
+    public record VersionedDay(long version, DayOccupancy occupancy) {
+    }
+}
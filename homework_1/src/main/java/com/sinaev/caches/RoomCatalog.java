@@ -0,0 +1,92 @@
+package com.sinaev.caches;
+
+import com.sinaev.models.dto.RoomCatalogDTO;
+import com.sinaev.models.dto.RoomDTO;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory, immutable snapshot of all rooms.
+ * <p>
+ * Readers get the current snapshot with a single volatile read and never lock. Writers build a
+ * complete new snapshot and swap it in atomically, so a reader sees either the old or the new
+ * room list, never a mix. Each snapshot carries an entity tag derived from its content, so two
+ * snapshots with the same rooms have the same tag and clients can revalidate cheaply.
+ * </p>
+ */
+@Component
+public class RoomCatalog {
+    private static final int ETAG_BYTES = 8;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.of(List.of()));
+
+    /**
+     * Returns the current snapshot of the catalog.
+     *
+     * @return the rooms and their entity tag
+     */
+    public RoomCatalogDTO get() {
+        return snapshot.get().catalog();
+    }
+
+    /**
+     * Checks whether the current snapshot contains a room.
+     *
+     * @param roomName the name of the room
+     * @return true if the room is in the catalog, false otherwise
+     */
+    public boolean contains(String roomName) {
+        return snapshot.get().names().contains(roomName);
+    }
+
+    /**
+     * Replaces the catalog with a new snapshot of the given rooms.
+     *
+     * @param rooms all rooms
+     * @return true if the content of the catalog changed, false otherwise
+     */
+    public boolean replace(List<RoomDTO> rooms) {
+        Snapshot next = Snapshot.of(rooms);
+        Snapshot previous = snapshot.getAndSet(next);
+        return !previous.catalog().etag().equals(next.catalog().etag());
+    }
+
+    /**
+     * Immutable catalog content with a name set for membership checks.
+     *
+     * @param catalog the rooms and their entity tag
+     * @param names   the names of the rooms
+     */
+    private record Snapshot(RoomCatalogDTO catalog, Set<String> names) {
+
+        static Snapshot of(List<RoomDTO> rooms) {
+            List<RoomDTO> sorted = rooms.stream()
+                    .sorted(Comparator.comparing(RoomDTO::name))
+                    .toList();
+            Set<String> names = sorted.stream().map(RoomDTO::name).collect(Collectors.toUnmodifiableSet());
+            return new Snapshot(new RoomCatalogDTO(etagOf(sorted), sorted), names);
+        }
+
+        static String etagOf(List<RoomDTO> rooms) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (RoomDTO room : rooms) {
+                    digest.update((room.name() + '\t' + room.type() + '\n').getBytes(StandardCharsets.UTF_8));
+                }
+                byte[] hash = digest.digest();
+                return "\"" + HexFormat.of().formatHex(hash, 0, ETAG_BYTES) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
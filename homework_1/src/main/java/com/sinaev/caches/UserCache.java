@@ -0,0 +1,75 @@
+package com.sinaev.caches;
+
+import com.sinaev.configs.properties.UserProperties;
+import com.sinaev.models.entities.User;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of users by username.
+ * <p>
+ * Serves repeated lookups of the same user, such as bursts of logins, from memory for the
+ * configured time to live. Entries are evicted when the user is saved on this node or another
+ * one. Users are handed out as copies, so callers cannot change the cached entity.
+ * </p>
+ */
+@Component
+public class UserCache {
+    static final int MAX_ENTRIES = 10_000;
+
+    private final BoundedCache<String, User> users;
+    private final boolean enabled;
+
+    /**
+     * Constructs the cache with the configured time to live.
+     *
+     * @param userProperties the user properties
+     */
+    public UserCache(UserProperties userProperties) {
+        this.users = new BoundedCache<>(MAX_ENTRIES, userProperties.getCacheTtlMs());
+        this.enabled = userProperties.getCacheTtlMs() > 0;
+    }
+
+    /**
+     * Returns a user by username, loading it on a miss or when the cache is off.
+     *
+     * @param username the username
+     * @param loader   loads the user by username, returning null if there is none
+     * @return a copy of the user, or null if there is no such user
+     */
+    public User get(String username, Function<String, User> loader) {
+        User user = enabled ? users.get(username, loader) : loader.apply(username);
+        if (user == null) {
+            return null;
+        }
+        User copy = new User(user.getUsername(), user.getPassword(), user.isAdmin());
+        copy.setId(user.getId());
+        return copy;
+    }
+
+    /**
+     * Removes a user from the cache.
+     *
+     * @param username the username
+     */
+    public void invalidate(String username) {
+        users.invalidate(username);
+    }
+
+    /**
+     * Removes all users.
+     */
+    public void clear() {
+        users.clear();
+    }
+
+    /**
+     * Returns the underlying cache, for reading its counters.
+     *
+     * @return the user cache
+     */
+    public BoundedCache<String, User> getUsers() {
+        return users;
+    }
+}
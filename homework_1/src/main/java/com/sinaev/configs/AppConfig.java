@@ -2,8 +2,16 @@ package com.sinaev.configs;
 
 import com.sinaev.factories.YamlPropertySourceFactory;
 import com.sinaev.initializers.LiquibaseInitializer;
+import com.sinaev.configs.properties.AuditProperties;
+import com.sinaev.configs.properties.BookingProperties;
 import com.sinaev.configs.properties.DatasourceProperties;
+import com.sinaev.configs.properties.InvalidationProperties;
+import com.sinaev.configs.properties.JdbcProperties;
 import com.sinaev.configs.properties.LiquibaseProperties;
+import com.sinaev.configs.properties.TokenProperties;
+import com.sinaev.configs.properties.UserProperties;
+import com.sinaev.models.enums.AuditOverflowPolicy;
+import com.sinaev.models.enums.RoomLockMode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -12,6 +20,7 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 /**
@@ -20,6 +29,7 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
  */
 @Configuration
 @EnableAspectJAutoProxy
+@EnableScheduling
 @ComponentScan(basePackages = "com.sinaev")
 @PropertySource(value = "classpath:application.yml", factory = YamlPropertySourceFactory.class)
 @RequiredArgsConstructor
@@ -52,6 +62,109 @@ public class AppConfig {
         props.setUrl(env.getProperty("spring.datasource.url"));
         props.setUsername(env.getProperty("spring.datasource.username"));
         props.setPassword(env.getProperty("spring.datasource.password"));
+        props.setSchema(env.getProperty("spring.datasource.schema", "entity_schema"));
+        props.setMinimumIdle(env.getProperty("spring.datasource.pool.minimum-idle", Integer.class, 2));
+        props.setMaximumPoolSize(env.getProperty("spring.datasource.pool.maximum-size", Integer.class, 10));
+        props.setAcquireTimeoutMs(env.getProperty("spring.datasource.pool.acquire-timeout-ms", Long.class, 3000L));
+        props.setMaxLifetimeMs(env.getProperty("spring.datasource.pool.max-lifetime-ms", Long.class, 1800000L));
+        props.setValidationTimeoutMs(env.getProperty("spring.datasource.pool.validation-timeout-ms", Long.class, 1000L));
+        return props;
+    }
+
+    /**
+     * Configures JDBC instrumentation properties.
+     *
+     * @return configured JdbcProperties object
+     */
+    @Bean
+    public JdbcProperties jdbcProperties() {
+        JdbcProperties props = new JdbcProperties();
+        props.setSlowQueryThresholdMs(env.getProperty("spring.datasource.instrumentation.slow-query-threshold-ms", Long.class, 200L));
+        props.setDebugHeaders(env.getProperty("spring.datasource.instrumentation.debug-headers", Boolean.class, false));
+        return props;
+    }
+
+    /**
+     * Configures booking query properties.
+     *
+     * @return configured BookingProperties object
+     */
+    @Bean
+    public BookingProperties bookingProperties() {
+        BookingProperties props = new BookingProperties();
+        props.setDefaultPageSize(env.getProperty("booking.filter.default-page-size", Integer.class, 50));
+        props.setMaxPageSize(env.getProperty("booking.filter.max-page-size", Integer.class, 500));
+        props.setStreamFetchSize(env.getProperty("booking.filter.stream-fetch-size", Integer.class, 500));
+        props.setDefaultSlotMinutes(env.getProperty("booking.availability.slot-minutes", Integer.class, 60));
+        props.setDefaultSearchLimit(env.getProperty("booking.search.default-limit", Integer.class, 10));
+        props.setMaxSearchLimit(env.getProperty("booking.search.max-limit", Integer.class, 100));
+        props.setLockMode(env.getProperty("booking.locking.mode", RoomLockMode.class, RoomLockMode.LOCAL));
+        props.setLockStripes(env.getProperty("booking.locking.stripes", Integer.class, 64));
+        props.setMaxBatchSize(env.getProperty("booking.batch.max-size", Integer.class, 500));
+        props.setMaxSeriesOccurrences(env.getProperty("booking.series.max-occurrences", Integer.class, 1000));
+        props.setCalendarRetentionDays(env.getProperty("booking.calendar.retention-days", Integer.class, 1));
+        props.setConflictSuggestions(env.getProperty("booking.conflict.suggestions", Integer.class, 3));
+        props.setConflictHorizonHours(env.getProperty("booking.conflict.horizon-hours", Integer.class, 24));
+        return props;
+    }
+
+    /**
+     * Configures audit writer properties.
+     *
+     * @return configured AuditProperties object
+     */
+    @Bean
+    public AuditProperties auditProperties() {
+        AuditProperties props = new AuditProperties();
+        props.setQueueCapacity(env.getProperty("audit.queue-capacity", Integer.class, 10000));
+        props.setBatchSize(env.getProperty("audit.batch-size", Integer.class, 100));
+        props.setFlushIntervalMs(env.getProperty("audit.flush-interval-ms", Long.class, 1000L));
+        props.setShutdownTimeoutMs(env.getProperty("audit.shutdown-timeout-ms", Long.class, 5000L));
+        props.setOverflowPolicy(env.getProperty("audit.overflow-policy", AuditOverflowPolicy.class, AuditOverflowPolicy.DROP_OLDEST));
+        props.setSpillFile(env.getProperty("audit.spill-file", "audit-spill.log"));
+        return props;
+    }
+
+    /**
+     * Configures cross-node cache invalidation properties.
+     *
+     * @return configured InvalidationProperties object
+     */
+    @Bean
+    public InvalidationProperties invalidationProperties() {
+        InvalidationProperties props = new InvalidationProperties();
+        props.setEnabled(env.getProperty("cache.invalidation.enabled", Boolean.class, true));
+        props.setNodeId(env.getProperty("cache.invalidation.node-id"));
+        props.setChannel(env.getProperty("cache.invalidation.channel", "cache_invalidation"));
+        props.setPollTimeoutMs(env.getProperty("cache.invalidation.poll-timeout-ms", Long.class, 500L));
+        props.setReconnectMinDelayMs(env.getProperty("cache.invalidation.reconnect-min-delay-ms", Long.class, 1000L));
+        props.setReconnectMaxDelayMs(env.getProperty("cache.invalidation.reconnect-max-delay-ms", Long.class, 30000L));
+        return props;
+    }
+
+    /**
+     * Configures user lookup properties.
+     *
+     * @return configured UserProperties object
+     */
+    @Bean
+    public UserProperties userProperties() {
+        UserProperties props = new UserProperties();
+        props.setCacheTtlMs(env.getProperty("user.cache.ttl-ms", Long.class, 30000L));
+        return props;
+    }
+
+    /**
+     * Configures signed session token properties.
+     *
+     * @return configured TokenProperties object
+     */
+    @Bean
+    public TokenProperties tokenProperties() {
+        TokenProperties props = new TokenProperties();
+        props.setEnabled(env.getProperty("auth.token.enabled", Boolean.class, false));
+        props.setSecret(env.getProperty("auth.token.secret"));
+        props.setTtlMs(env.getProperty("auth.token.ttl-ms", Long.class, 3600000L));
         return props;
     }
 
@@ -1,35 +1,55 @@
 package com.sinaev.configs;
 
 import com.sinaev.configs.properties.DatasourceProperties;
+import com.sinaev.configs.properties.JdbcProperties;
+import com.sinaev.metrics.InstrumentedDataSource;
+import com.sinaev.metrics.JdbcMetrics;
+import com.sinaev.transactions.UnitOfWork;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
-import javax.sql.DataSource;
 /**
  * Configuration class for setting up the data source.
  * <p>
- * This class configures the data source bean using properties defined in {@link DatasourceProperties}.
+ * This class configures a bounded connection pool using properties defined in {@link DatasourceProperties}.
+ * The entity schema is passed to the driver as {@code currentSchema}, so the search path is set once
+ * when a physical connection is opened instead of on every borrow. The pool is wrapped in an
+ * {@link InstrumentedDataSource}, so every statement is timed into {@link JdbcMetrics} and
+ * statements slower than the threshold in {@link JdbcProperties} are logged. The outermost layer is
+ * the {@link UnitOfWork}, which hands the connection bound to a running unit of work to every
+ * repository on the same thread.
  * </p>
  */
 @Configuration
 @RequiredArgsConstructor
 public class DataSourceConfig {
     private final DatasourceProperties datasourceProperties;
+    private final JdbcProperties jdbcProperties;
+    private final JdbcMetrics jdbcMetrics;
 
     /**
-     * Configures and returns a data source bean.
+     * Configures and returns a pooled, instrumented, transaction-aware data source bean.
      *
-     * @return configured DataSource object
+     * @return configured data source, usable both as a DataSource and as the UnitOfWork
      */
-    @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        dataSource.setUrl(datasourceProperties.getUrl());
-        dataSource.setUsername(datasourceProperties.getUsername());
-        dataSource.setPassword(datasourceProperties.getPassword());
-        return dataSource;
+    @Bean(destroyMethod = "close")
+    public UnitOfWork dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("booking-pool");
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setJdbcUrl(datasourceProperties.getUrl());
+        config.setUsername(datasourceProperties.getUsername());
+        config.setPassword(datasourceProperties.getPassword());
+        config.addDataSourceProperty("currentSchema", datasourceProperties.getSchema());
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        config.setMinimumIdle(datasourceProperties.getMinimumIdle());
+        config.setMaximumPoolSize(datasourceProperties.getMaximumPoolSize());
+        config.setConnectionTimeout(datasourceProperties.getAcquireTimeoutMs());
+        config.setMaxLifetime(datasourceProperties.getMaxLifetimeMs());
+        config.setValidationTimeout(datasourceProperties.getValidationTimeoutMs());
+        return new UnitOfWork(new InstrumentedDataSource(new HikariDataSource(config), jdbcMetrics, jdbcProperties));
     }
 }
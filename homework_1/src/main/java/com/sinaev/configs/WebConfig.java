@@ -1,11 +1,16 @@
 package com.sinaev.configs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sinaev.metrics.RequestMetricsInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -14,14 +19,26 @@ import java.util.List;
 /**
  * Configuration class for setting up web MVC.
  * <p>
- * This class configures the web MVC settings, including resource handlers for serving static resources
- * and message converters for JSON processing.
+ * This class configures the web MVC settings, including resource handlers for serving static resources,
+ * message converters for JSON processing and the interceptor timing every controller call.
  * </p>
  */
 @Configuration
 @EnableWebMvc
 @ComponentScan(basePackages = "com.sinaev.controllers")
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
+    private final RequestMetricsInterceptor requestMetricsInterceptor;
+
+    /**
+     * Configures the object mapper used to write JSON outside of message converters, such as streamed responses.
+     *
+     * @return the configured ObjectMapper
+     */
+    @Bean
+    public ObjectMapper objectMapper() {
+        return new Jackson2ObjectMapperBuilder().build();
+    }
 
     /**
      * Configures resource handlers for serving static resources like Swagger UI.
@@ -36,6 +53,16 @@ public class WebConfig implements WebMvcConfigurer {
                 .addResourceLocations("classpath:/META-INF/resources/webjars/");
     }
 
+    /**
+     * Registers the interceptor recording the latency of every controller call.
+     *
+     * @param registry the InterceptorRegistry to configure
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestMetricsInterceptor);
+    }
+
     /**
      * Configures message converters for JSON processing.
      *
@@ -0,0 +1,24 @@
+package com.sinaev.configs.properties;
+
+import com.sinaev.models.enums.AuditOverflowPolicy;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the asynchronous audit writer.
+ * <p>
+ * This class holds the capacity of the in-memory audit queue, the size and age at which
+ * queued events are flushed to the database, what happens when the queue is full, and
+ * the file used by the spill policy.
+ * </p>
+ */
+@Getter
+@Setter
+public class AuditProperties {
+    private int queueCapacity;
+    private int batchSize;
+    private long flushIntervalMs;
+    private long shutdownTimeoutMs;
+    private AuditOverflowPolicy overflowPolicy;
+    private String spillFile;
+}
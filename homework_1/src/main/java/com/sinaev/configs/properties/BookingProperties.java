@@ -0,0 +1,36 @@
+package com.sinaev.configs.properties;
+
+import com.sinaev.models.enums.RoomLockMode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for booking queries.
+ * <p>
+ * This class holds the limits applied when listing bookings, such as the default and maximum
+ * page size of the paginated filter and the JDBC fetch size used by the streaming filter,
+ * the default slot length used when listing available hours, the default and maximum number of
+ * candidates returned by a free room search, and how concurrent writes to the
+ * same room are serialized: the lock mode and the number of local lock stripes, and the maximum
+ * number of bookings accepted by one batch request and of occurrences of one booking series.
+ * It also sets for how many past days the occupancy calendar keeps its bitsets, and how many
+ * alternatives a rejected booking proposes and how far ahead they are looked for.
+ * </p>
+ */
+@Getter
+@Setter
+public class BookingProperties {
+    private int defaultPageSize;
+    private int maxPageSize;
+    private int streamFetchSize;
+    private int defaultSlotMinutes;
+    private int defaultSearchLimit;
+    private int maxSearchLimit;
+    private RoomLockMode lockMode;
+    private int lockStripes;
+    private int maxBatchSize;
+    private int maxSeriesOccurrences;
+    private int calendarRetentionDays;
+    private int conflictSuggestions;
+    private int conflictHorizonHours;
+}
@@ -7,7 +7,8 @@ import lombok.Setter;
  * Configuration properties for the data source.
  * <p>
  * This class holds the properties required to configure a data source, including
- * the URL, username, and password.
+ * the URL, username, password, the schema used by the entity tables and the
+ * sizing of the connection pool.
  * </p>
  */
 @Getter
@@ -16,5 +17,11 @@ public class DatasourceProperties {
     private String url;
     private String username;
     private String password;
+    private String schema;
+    private int minimumIdle;
+    private int maximumPoolSize;
+    private long acquireTimeoutMs;
+    private long maxLifetimeMs;
+    private long validationTimeoutMs;
 
 }
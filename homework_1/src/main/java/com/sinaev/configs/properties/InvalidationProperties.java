@@ -0,0 +1,23 @@
+package com.sinaev.configs.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for cross-node cache invalidation.
+ * <p>
+ * This class holds whether invalidation is enabled, the identifier of this node, the Postgres
+ * notification channel, how long the listener waits for notifications per poll, and the bounds
+ * of the exponential backoff used when the listener connection has to be re-established.
+ * </p>
+ */
+@Getter
+@Setter
+public class InvalidationProperties {
+    private boolean enabled;
+    private String nodeId;
+    private String channel;
+    private long pollTimeoutMs;
+    private long reconnectMinDelayMs;
+    private long reconnectMaxDelayMs;
+}
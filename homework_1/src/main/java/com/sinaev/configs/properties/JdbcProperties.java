@@ -0,0 +1,19 @@
+package com.sinaev.configs.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the JDBC instrumentation.
+ * <p>
+ * This class holds the duration above which a statement is logged as slow and whether the
+ * number of statements and connection borrows of a request is returned in response headers.
+ * A negative threshold turns the slow-query log off.
+ * </p>
+ */
+@Getter
+@Setter
+public class JdbcProperties {
+    private long slowQueryThresholdMs;
+    private boolean debugHeaders;
+}
@@ -0,0 +1,20 @@
+package com.sinaev.configs.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for signed session tokens.
+ * <p>
+ * This class holds whether logged-in users are identified by a signed token instead of the HTTP
+ * session, the secret the tokens are signed with, and how long an issued token stays valid.
+ * Every node must be configured with the same secret.
+ * </p>
+ */
+@Getter
+@Setter
+public class TokenProperties {
+    private boolean enabled;
+    private String secret;
+    private long ttlMs;
+}
@@ -0,0 +1,17 @@
+package com.sinaev.configs.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for user lookups.
+ * <p>
+ * This class holds how long a user loaded by username may be served from memory before it is
+ * read from the database again. A time to live of 0 turns the user cache off.
+ * </p>
+ */
+@Getter
+@Setter
+public class UserProperties {
+    private long cacheTtlMs;
+}
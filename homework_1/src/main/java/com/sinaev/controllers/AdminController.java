@@ -0,0 +1,142 @@
+package com.sinaev.controllers;
+
+import com.sinaev.exceptions.BookingIsNotAvailableException;
+import com.sinaev.models.dto.AuditStatsDTO;
+import com.sinaev.models.dto.BookingImportReportDTO;
+import com.sinaev.models.dto.BookingIndexReportDTO;
+import com.sinaev.models.dto.LatencyStatsDTO;
+import com.sinaev.services.AdminService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * AdminController handles administrative maintenance requests.
+ * It provides endpoints for checking and rebuilding the booking interval index
+ * for reading the audit writer counters and the method latency statistics,
+ * and for bulk import and export of bookings as CSV.
+ */
+@RestController
+@RequestMapping("api/v1/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private final AdminService adminService;
+
+    /**
+     * This method compares the booking interval index with the database.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @return a response entity containing the comparison report
+     */
+    @GetMapping("/booking-index")
+    ResponseEntity<?> verifyBookingIndex(HttpServletRequest httpRequest) {
+        try {
+            BookingIndexReportDTO report = adminService.verifyBookingIndex(httpRequest);
+            return ResponseEntity.ok(report);
+        } catch (SecurityException | NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method rebuilds the booking interval index from the database.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @return a response entity containing the comparison report taken before the rebuild
+     */
+    @PostMapping("/booking-index/rebuild")
+    ResponseEntity<?> rebuildBookingIndex(HttpServletRequest httpRequest) {
+        try {
+            BookingIndexReportDTO report = adminService.rebuildBookingIndex(httpRequest);
+            return ResponseEntity.ok(report);
+        } catch (SecurityException | NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method returns the counters of the asynchronous audit writer.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @return a response entity containing the audit writer counters
+     */
+    @GetMapping("/audit-writer")
+    ResponseEntity<?> getAuditStats(HttpServletRequest httpRequest) {
+        try {
+            AuditStatsDTO stats = adminService.getAuditStats(httpRequest);
+            return ResponseEntity.ok(stats);
+        } catch (SecurityException | NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method imports bookings from the CSV body of the request.
+     * The body is streamed to the database as it is received.
+     *
+     * @param httpRequest the HTTP request containing session details and the CSV body
+     * @return a response entity containing the numbers of rows read, imported and skipped
+     */
+    @PostMapping("/bookings/import")
+    ResponseEntity<?> importBookings(HttpServletRequest httpRequest) {
+        try {
+            BookingImportReportDTO report = adminService.importBookings(httpRequest, httpRequest.getInputStream());
+            return ResponseEntity.ok(report);
+        } catch (SecurityException | NoSuchElementException | BookingIsNotAvailableException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            return ResponseEntity.badRequest().body("Failed to read the CSV: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method streams all bookings as CSV.
+     * Bookings are written to the response as they are read from the database.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @return a response entity whose body writes the bookings
+     */
+    @GetMapping("/bookings/export")
+    ResponseEntity<?> exportBookings(HttpServletRequest httpRequest) {
+        try {
+            Consumer<OutputStream> export = adminService.exportBookings(httpRequest);
+            StreamingResponseBody body = export::accept;
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.csv\"")
+                    .body(body);
+        } catch (SecurityException | NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method returns the latency statistics of the {@code @Loggable} methods.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @return a response entity containing the latency statistics of each method
+     */
+    @GetMapping("/latency")
+    ResponseEntity<?> getLatencyStats(HttpServletRequest httpRequest) {
+        try {
+            List<LatencyStatsDTO> stats = adminService.getLatencyStats(httpRequest);
+            return ResponseEntity.ok(stats);
+        } catch (SecurityException | NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
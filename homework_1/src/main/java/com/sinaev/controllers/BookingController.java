@@ -1,13 +1,23 @@
 package com.sinaev.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sinaev.exceptions.BookingIsNotAvailableException;
+import com.sinaev.models.dto.AvailableHoursDTO;
 import com.sinaev.models.dto.BookingDTO;
+import com.sinaev.models.dto.BookingSeriesDTO;
+import com.sinaev.models.dto.RoomCandidateDTO;
+import com.sinaev.models.requests.booking.CancelOccurrenceRequest;
+import com.sinaev.models.requests.booking.FilterBookingsPageRequest;
 import com.sinaev.models.requests.booking.FilterBookingsRequest;
 import com.sinaev.models.requests.booking.GetAvailableHoursRequest;
 import com.sinaev.models.requests.booking.RemoveBookingRequest;
+import com.sinaev.models.requests.booking.RemoveBookingSeriesRequest;
+import com.sinaev.models.requests.booking.SearchRoomsRequest;
 import com.sinaev.models.requests.booking.UpdateBookingRequest;
 import com.sinaev.services.BookingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,9 +26,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
-import java.time.LocalTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -31,10 +43,12 @@ import java.util.NoSuchElementException;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     /**
      * This method processes the creation request. If successful, it returns
-     * a message indicating the booking was created.
+     * a message indicating the booking was created. A rejected booking returns
+     * the reason together with the proposed free times and rooms.
      *
      * @param httpRequest the HTTP request containing session details
      * @param bookingDTO  the booking data transfer object containing booking information
@@ -47,6 +61,85 @@ public class BookingController {
             bookingService.createBooking(httpRequest, bookingDTO);
             return ResponseEntity.ok().body("Booking created");
         } catch (BookingIsNotAvailableException e) {
+            return e.getConflict() == null
+                    ? ResponseEntity.badRequest().body(e.getMessage())
+                    : ResponseEntity.badRequest().body(e.getConflict());
+        } catch (NoSuchElementException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method processes a batch creation request. Each booking is accepted or rejected on its own,
+     * and the accepted ones are created together.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @param bookingDTOs the bookings to create
+     * @return a response entity containing the result of each booking
+     */
+    @PostMapping("/batch")
+    ResponseEntity<?> createBatch(HttpServletRequest httpRequest,
+                                  @RequestBody List<BookingDTO> bookingDTOs) {
+        try {
+            return ResponseEntity.ok(bookingService.createBookings(httpRequest, bookingDTOs));
+        } catch (BookingIsNotAvailableException | NoSuchElementException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method processes the creation request of a recurring booking. If successful, it returns
+     * a message with the ID of the created series.
+     *
+     * @param httpRequest      the HTTP request containing session details
+     * @param bookingSeriesDTO the rule of the series
+     * @return a response entity indicating the result of the creation operation
+     */
+    @PostMapping("/series")
+    ResponseEntity<?> createSeries(HttpServletRequest httpRequest,
+                                   @RequestBody BookingSeriesDTO bookingSeriesDTO) {
+        try {
+            long id = bookingService.createBookingSeries(httpRequest, bookingSeriesDTO);
+            return ResponseEntity.ok().body("Booking series " + id + " created");
+        } catch (BookingIsNotAvailableException | NoSuchElementException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method cancels one occurrence of a recurring booking. If successful, it returns
+     * a message indicating the occurrence was cancelled.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @param request     the request object containing the series ID and the start of the occurrence
+     * @return a response entity indicating the result of the cancellation
+     */
+    @DeleteMapping("/series/occurrence")
+    ResponseEntity<?> cancelOccurrence(HttpServletRequest httpRequest,
+                                       @RequestBody CancelOccurrenceRequest request) {
+        try {
+            bookingService.cancelOccurrence(httpRequest, request);
+            return ResponseEntity.ok().body("Occurrence cancelled");
+        } catch (NoSuchElementException | SecurityException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method deletes a recurring booking with all its occurrences. If successful, it returns
+     * a message indicating the series was deleted.
+     *
+     * @param httpRequest the HTTP request containing session details
+     * @param request     the request object containing the series ID
+     * @return a response entity indicating the result of the deletion
+     */
+    @DeleteMapping("/series")
+    ResponseEntity<?> deleteSeries(HttpServletRequest httpRequest,
+                                   @RequestBody RemoveBookingSeriesRequest request) {
+        try {
+            bookingService.deleteBookingSeries(httpRequest, request);
+            return ResponseEntity.ok().body("Booking series deleted");
+        } catch (NoSuchElementException | SecurityException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -55,14 +148,30 @@ public class BookingController {
      * This method returns a list of available booking hours based on the request.
      *
      * @param request the request object containing criteria for available hours
-     * @return a response entity containing the list of available hours
+     * @return a response entity containing the available slots and free intervals
      */
     @GetMapping("/available-hours")
     ResponseEntity<?> getAvailableHours(@RequestBody GetAvailableHoursRequest request) {
         try {
-            List<LocalTime> hours = bookingService.getAvailableHours(request);
+            AvailableHoursDTO hours = bookingService.getAvailableHours(request);
             return ResponseEntity.ok(hours);
-        } catch (NoSuchElementException e) {
+        } catch (NoSuchElementException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method searches all rooms for the earliest free time for a meeting inside a time window.
+     *
+     * @param request the request object containing the window, the meeting length, an optional room type and a limit
+     * @return a response entity containing the candidate rooms, best first
+     */
+    @GetMapping("/search")
+    ResponseEntity<?> search(@RequestBody SearchRoomsRequest request) {
+        try {
+            List<RoomCandidateDTO> candidates = bookingService.searchRooms(request);
+            return ResponseEntity.ok(candidates);
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -81,7 +190,7 @@ public class BookingController {
         try {
             bookingService.updateBooking(httpRequest, request);
             return ResponseEntity.ok().body("Booking updated");
-        } catch (NoSuchElementException | SecurityException | BookingIsNotAvailableException e) {
+        } catch (NoSuchElementException | SecurityException | BookingIsNotAvailableException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -117,5 +226,54 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
-}
+    /**
+     * This method returns one page of bookings that match the given filter criteria.
+     * The response carries the cursor to pass in the request for the next page.
+     *
+     * @param request the request object containing filter criteria, cursor and page size
+     * @return a response entity containing the page of filtered bookings
+     */
+    @GetMapping("/filter/page")
+    ResponseEntity<?> filterPage(@RequestBody FilterBookingsPageRequest request) {
+        try {
+            return ResponseEntity.ok(bookingService.filterBookingsPage(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * This method streams all bookings that match the given filter criteria as a JSON array.
+     * Bookings are written to the response as they are read from the database.
+     *
+     * @param request the request object containing filter criteria
+     * @return a response entity whose body writes the filtered bookings
+     */
+    @GetMapping("/filter/stream")
+    ResponseEntity<StreamingResponseBody> filterStream(@RequestBody FilterBookingsRequest request) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                bookingService.streamBookings(request, bookingDTO -> writeBooking(generator, bookingDTO));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
 
+    /**
+     * Writes a single booking to a streamed JSON array.
+     *
+     * @param generator  the generator of the response body
+     * @param bookingDTO the booking to write
+     */
+    private void writeBooking(JsonGenerator generator, BookingDTO bookingDTO) {
+        try {
+            generator.writeObject(bookingDTO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sinaev.controllers;
+
+import com.sinaev.metrics.PrometheusExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MetricsController exposes the collected metrics for scraping by Prometheus.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+    static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final PrometheusExporter prometheusExporter;
+
+    /**
+     * This method writes all metrics in the Prometheus text exposition format.
+     *
+     * @return a response entity streaming the metrics
+     */
+    @GetMapping("/metrics")
+    ResponseEntity<StreamingResponseBody> metrics() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            prometheusExporter.write(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(body);
+    }
+}
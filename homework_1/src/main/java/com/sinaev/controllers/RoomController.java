@@ -1,15 +1,19 @@
 package com.sinaev.controllers;
 
 import com.sinaev.exceptions.ObjectAlreadyExistsException;
+import com.sinaev.models.dto.RoomCatalogDTO;
 import com.sinaev.models.dto.RoomDTO;
 import com.sinaev.models.requests.room.UpdateRoomRequest;
 import com.sinaev.services.RoomService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -56,14 +60,20 @@ public class RoomController {
     }
 
     /**
-     * This method returns a list of all rooms.
+     * This method returns a list of all rooms from the in-memory room catalog.
+     * The response carries the ETag of the catalog; if the client already has it,
+     * an empty 304 response is returned instead.
      *
-     * @return a response entity containing the list of all rooms
+     * @param ifNoneMatch the ETag the client holds, if any
+     * @return a response entity containing the list of all rooms, or 304 if unchanged
      */
     @GetMapping
-    ResponseEntity<List<RoomDTO>> getAll() {
-        List<RoomDTO> rooms = roomService.getRooms();
-        return ResponseEntity.ok(rooms);
+    ResponseEntity<List<RoomDTO>> getAll(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RoomCatalogDTO catalog = roomService.getRoomCatalog();
+        if (catalog.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(catalog.etag()).body(catalog.rooms());
     }
 
     /**
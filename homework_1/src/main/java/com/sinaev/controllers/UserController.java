@@ -1,6 +1,7 @@
 package com.sinaev.controllers;
 
 import com.sinaev.exceptions.UsernameAlreadyTakenException;
+import com.sinaev.models.dto.AuthTokenDTO;
 import com.sinaev.models.dto.UserDTO;
 import com.sinaev.services.UserService;
 import lombok.RequiredArgsConstructor;
@@ -23,17 +24,21 @@ public class UserController {
     private final UserService userService;
 
     /**
-     * Authenticates a user and sets their details in the session.
+     * Authenticates a user and sets their details in the session, or returns a signed session
+     * token in token mode.
      *
      * @param httpRequest the HTTP request containing session details
      * @param userDTO     the user data transfer object containing login information
-     * @return a response entity indicating the result of the login operation
+     * @return a response entity indicating the result of the login operation or carrying the token
      */
     @PostMapping("/auth")
     ResponseEntity<?> login(HttpServletRequest httpRequest,
                             @RequestBody UserDTO userDTO) {
         try {
-            userService.login(httpRequest, userDTO);
+            AuthTokenDTO token = userService.login(httpRequest, userDTO);
+            if (token != null) {
+                return ResponseEntity.ok().body(token);
+            }
             return ResponseEntity.ok().body("User logged successfully");
         } catch (NoSuchElementException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -1,13 +1,17 @@
 package com.sinaev.exceptions;
 
+import com.sinaev.models.dto.BookingConflictDTO;
+
 /**
  * Exception thrown when a booking is not available.
  * <p>
  * This runtime exception is thrown to indicate that a booking attempt has failed
- * because the requested booking is not available.
+ * because the requested booking is not available. It may carry the alternatives
+ * proposed to the client instead.
  * </p>
  */
 public class BookingIsNotAvailableException extends RuntimeException{
+    private final transient BookingConflictDTO conflict;
 
     /**
      * Constructs a new BookingIsNotAvailableException with the specified detail message.
@@ -15,6 +19,26 @@ public class BookingIsNotAvailableException extends RuntimeException{
      * @param message the detail message
      */
     public BookingIsNotAvailableException(String message) {
+        this(message, null);
+    }
+
+    /**
+     * Constructs a new BookingIsNotAvailableException with the specified detail message and alternatives.
+     *
+     * @param message  the detail message
+     * @param conflict the rejected booking with the proposed alternatives, or null if there are none
+     */
+    public BookingIsNotAvailableException(String message, BookingConflictDTO conflict) {
         super(message);
+        this.conflict = conflict;
+    }
+
+    /**
+     * Returns the rejected booking with the proposed alternatives.
+     *
+     * @return the conflict, or null if no alternatives were computed
+     */
+    public BookingConflictDTO getConflict() {
+        return conflict;
     }
 }
@@ -0,0 +1,247 @@
+package com.sinaev.handlers;
+
+import com.sinaev.configs.properties.AuditProperties;
+import com.sinaev.models.entities.AuditLog;
+import com.sinaev.repositories.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous, batching writer for audit log entries.
+ * <p>
+ * Entries are put into a bounded in-memory queue by the request threads and written to the
+ * database by a single background thread with JDBC batch inserts. A batch is flushed when it
+ * reaches the configured size or when its oldest entry has waited for the flush interval.
+ * When the queue is full, the configured {@link com.sinaev.models.enums.AuditOverflowPolicy}
+ * decides whether the caller blocks, the oldest entry is dropped, or the entry is appended to
+ * a local spill file. Remaining entries are flushed on shutdown.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditProperties auditProperties;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    private BlockingQueue<AuditLog> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    /**
+     * Creates the queue and starts the background writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(auditProperties.getQueueCapacity());
+        running = true;
+        worker = new Thread(this::run, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the background writer and flushes all queued entries.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            worker.join(auditProperties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+        }
+        List<AuditLog> remaining = new ArrayList<>(auditProperties.getBatchSize());
+        while (queue.drainTo(remaining, auditProperties.getBatchSize()) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+        logger.info("Audit writer stopped: queued={}, written={}, dropped={}, spilled={}",
+                getQueued(), getWritten(), getDropped(), getSpilled());
+    }
+
+    /**
+     * Submits an audit log entry for writing.
+     *
+     * @param auditLog the audit log entry
+     */
+    public void submit(AuditLog auditLog) {
+        switch (auditProperties.getOverflowPolicy()) {
+            case BLOCK -> {
+                try {
+                    queue.put(auditLog);
+                    queued.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(auditLog)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                queued.incrementAndGet();
+            }
+            case SPILL -> {
+                if (queue.offer(auditLog)) {
+                    queued.incrementAndGet();
+                } else {
+                    spill(auditLog);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries accepted into the queue.
+     *
+     * @return the number of queued entries
+     */
+    public long getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Returns the number of entries written to the database.
+     *
+     * @return the number of written entries
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Returns the number of entries lost to queue overflow or failed writes.
+     *
+     * @return the number of dropped entries
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of entries appended to the spill file.
+     *
+     * @return the number of spilled entries
+     */
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    /**
+     * Returns the number of entries waiting in the queue.
+     *
+     * @return the current queue size
+     */
+    public int getPending() {
+        return queue.size();
+    }
+
+    /**
+     * Drains the queue in batches until the writer is stopped.
+     */
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(auditProperties.getBatchSize());
+        while (running) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Collects entries until the batch is full or the first entry has waited for the flush interval.
+     *
+     * @param batch the list to collect entries into
+     * @throws InterruptedException if the writer thread is interrupted while waiting
+     */
+    private void fillBatch(List<AuditLog> batch) throws InterruptedException {
+        long flushIntervalMs = auditProperties.getFlushIntervalMs();
+        AuditLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.currentTimeMillis() + flushIntervalMs;
+        int batchSize = auditProperties.getBatchSize();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.currentTimeMillis();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            AuditLog next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes a batch of entries and updates the counters.
+     *
+     * @param batch the entries to write
+     */
+    private void write(List<AuditLog> batch) {
+        int saved = auditLogRepository.saveAll(batch);
+        written.addAndGet(saved);
+        dropped.addAndGet(batch.size() - saved);
+    }
+
+    /**
+     * Appends an entry to the spill file as a tab-separated line.
+     *
+     * @param auditLog the entry that did not fit into the queue
+     */
+    private synchronized void spill(AuditLog auditLog) {
+        Path spillFile = Path.of(auditProperties.getSpillFile());
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(auditLog.getTimestamp() + "\t" + auditLog.getUsername() + "\t" + auditLog.getAction());
+            writer.newLine();
+            spilled.incrementAndGet();
+        } catch (IOException e) {
+            logger.warn("Failed to spill audit log entry: {}", e.getMessage());
+            dropped.incrementAndGet();
+        }
+    }
+}
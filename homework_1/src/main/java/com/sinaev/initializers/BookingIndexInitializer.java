@@ -0,0 +1,58 @@
+package com.sinaev.initializers;
+
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.OccupancyCalendar;
+import com.sinaev.configs.properties.BookingProperties;
+import com.sinaev.repositories.BookingRepository;
+import com.sinaev.repositories.BookingSeriesRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Initializer for the booking interval index.
+ * <p>
+ * This component loads all stored bookings and booking series into the {@link BookingIntervalIndex} once the
+ * database schema has been migrated. It also periodically drops the days of the {@link OccupancyCalendar}
+ * older than the configured retention, so the calendar does not grow with time.
+ * </p>
+ */
+@Component
+@DependsOn("liquibaseInitializer")
+@RequiredArgsConstructor
+public class BookingIndexInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(BookingIndexInitializer.class);
+
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final OccupancyCalendar occupancyCalendar;
+    private final BookingProperties bookingProperties;
+
+    /**
+     * Warms the booking interval index after the bean properties have been set.
+     */
+    @PostConstruct
+    public void init() {
+        logger.info("Warming booking interval index...");
+        bookingIntervalIndex.rebuild(bookingRepository::findAll, bookingSeriesRepository::findAll);
+        logger.info("Booking interval index warmed with {} bookings and {} series.", bookingIntervalIndex.size(),
+                bookingIntervalIndex.allSeries().values().stream().mapToInt(List::size).sum());
+    }
+
+    /**
+     * Drops the occupancy calendar days before the retention window.
+     */
+    @Scheduled(fixedDelayString = "${booking.calendar.eviction-interval-ms:3600000}",
+            initialDelayString = "${booking.calendar.eviction-interval-ms:3600000}")
+    public void evictOldDays() {
+        occupancyCalendar.evictBefore(LocalDate.now().minusDays(bookingProperties.getCalendarRetentionDays()));
+    }
+}
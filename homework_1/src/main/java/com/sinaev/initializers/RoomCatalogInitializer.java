@@ -0,0 +1,54 @@
+package com.sinaev.initializers;
+
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.RoomCatalog;
+import com.sinaev.services.RoomService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Initializer for the room catalog.
+ * <p>
+ * This component loads all rooms into the {@link RoomCatalog} once the database schema has been
+ * migrated, and periodically reconciles the catalog with the table to pick up rooms changed
+ * outside of the application. When reconciliation finds a difference, the {@link NameIdCache}
+ * is cleared as well, since it may hold the same stale rooms.
+ * </p>
+ */
+@Component
+@DependsOn("liquibaseInitializer")
+@RequiredArgsConstructor
+public class RoomCatalogInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(RoomCatalogInitializer.class);
+
+    private final RoomService roomService;
+    private final NameIdCache nameIdCache;
+    private final RoomCatalog roomCatalog;
+
+    /**
+     * Loads the room catalog after the bean properties have been set.
+     */
+    @PostConstruct
+    public void init() {
+        roomService.refreshRoomCatalog();
+        logger.info("Room catalog loaded with {} rooms.", roomCatalog.get().rooms().size());
+    }
+
+    /**
+     * Reloads the room catalog and reports rooms changed outside of the application.
+     */
+    @Scheduled(fixedDelayString = "${room.catalog.reconcile-interval-ms:60000}",
+            initialDelayString = "${room.catalog.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (roomService.refreshRoomCatalog()) {
+            nameIdCache.clear();
+            logger.warn("Room catalog was out of date and has been reloaded with {} rooms.", roomCatalog.get().rooms().size());
+        }
+    }
+}
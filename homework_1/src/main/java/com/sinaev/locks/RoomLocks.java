@@ -0,0 +1,174 @@
+package com.sinaev.locks;
+
+import com.sinaev.configs.properties.BookingProperties;
+import com.sinaev.models.enums.RoomLockMode;
+import com.sinaev.transactions.UnitOfWork;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking writes per room.
+ * <p>
+ * An availability check and the write that follows it must not interleave with another check and
+ * write for the same room. In {@link RoomLockMode#LOCAL} mode every room maps to one of a fixed
+ * number of lock stripes, so writes to different rooms almost never wait for each other and memory
+ * does not grow with the number of rooms. In {@link RoomLockMode#ADVISORY} mode, for several nodes,
+ * the action runs in a {@link UnitOfWork} that first takes {@code pg_advisory_xact_lock(room_id)}
+ * for every room, so the lock is held on all nodes until the writes of the action are committed.
+ * </p>
+ * <p>
+ * When an action involves several rooms, the locks are taken in a fixed order, stripe index or room
+ * ID, so two actions locking the same rooms cannot deadlock.
+ * </p>
+ */
+@Component
+public class RoomLocks {
+    static final String ROOM_IDS_SQL = "SELECT id FROM rooms WHERE room_name = ANY (?) ORDER BY id";
+    static final String ADVISORY_LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private final UnitOfWork unitOfWork;
+    private final boolean advisory;
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Constructs the locks with the configured mode and stripe count.
+     *
+     * @param bookingProperties the booking properties
+     * @param unitOfWork        the unit of work the advisory locks and the action share
+     */
+    public RoomLocks(BookingProperties bookingProperties, UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
+        this.advisory = bookingProperties.getLockMode() == RoomLockMode.ADVISORY;
+        this.stripes = new ReentrantLock[Math.max(1, bookingProperties.getLockStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the locks of the given rooms.
+     *
+     * @param roomNames the names of the rooms the action reads and writes
+     * @param action    the action
+     */
+    public void withRooms(Collection<String> roomNames, Runnable action) {
+        withRooms(roomNames, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs an action while holding the locks of the given rooms.
+     *
+     * @param roomNames the names of the rooms the action reads and writes
+     * @param action    the action
+     * @param <T>       the type of the result
+     * @return the result of the action
+     * @throws IllegalStateException if the advisory locks cannot be taken
+     */
+    public <T> T withRooms(Collection<String> roomNames, Supplier<T> action) {
+        return advisory ? withAdvisoryLocks(roomNames, action) : withStripes(roomNames, action);
+    }
+
+    /**
+     * Returns the number of lock stripes.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the stripe a room maps to.
+     *
+     * @param roomName the name of the room
+     * @return the index of the stripe
+     */
+    int stripeOf(String roomName) {
+        int hash = roomName.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    /**
+     * Runs an action holding the local stripes of the rooms, taken in ascending stripe order.
+     *
+     * @param roomNames the names of the rooms
+     * @param action    the action
+     * @param <T>       the type of the result
+     * @return the result of the action
+     */
+    private <T> T withStripes(Collection<String> roomNames, Supplier<T> action) {
+        int[] locked = roomNames.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        for (int stripe : locked) {
+            stripes[stripe].lock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                stripes[locked[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs an action inside a unit of work holding the advisory locks of the rooms, taken in ascending ID order.
+     * <p>
+     * The unit is committed after the action, which releases the locks, and rolled back if the action
+     * fails. Rooms that do not exist are not locked.
+     * </p>
+     *
+     * @param roomNames the names of the rooms
+     * @param action    the action
+     * @param <T>       the type of the result
+     * @return the result of the action
+     * @throws IllegalStateException if the advisory locks cannot be taken
+     */
+    private <T> T withAdvisoryLocks(Collection<String> roomNames, Supplier<T> action) {
+        return unitOfWork.inTransaction(() -> {
+            try (Connection connection = unitOfWork.getConnection()) {
+                for (long roomId : roomIds(connection, roomNames)) {
+                    try (PreparedStatement preparedStatement = connection.prepareStatement(ADVISORY_LOCK_SQL)) {
+                        preparedStatement.setLong(1, roomId);
+                        preparedStatement.execute();
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot lock rooms " + roomNames + ": " + e.getMessage(), e);
+            }
+            return action.get();
+        });
+    }
+
+    /**
+     * Resolves room names to IDs in ascending order.
+     *
+     * @param connection the connection of the locking transaction
+     * @param roomNames  the names of the rooms
+     * @return the IDs of the existing rooms
+     * @throws SQLException if the query fails
+     */
+    private List<Long> roomIds(Connection connection, Collection<String> roomNames) throws SQLException {
+        List<Long> roomIds = new ArrayList<>(roomNames.size());
+        try (PreparedStatement preparedStatement = connection.prepareStatement(ROOM_IDS_SQL)) {
+            preparedStatement.setArray(1, connection.createArrayOf("varchar", roomNames.toArray()));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    roomIds.add(resultSet.getLong("id"));
+                }
+            }
+        }
+        return roomIds;
+    }
+}
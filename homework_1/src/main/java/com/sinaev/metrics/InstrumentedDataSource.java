@@ -0,0 +1,237 @@
+package com.sinaev.metrics;
+
+import com.sinaev.configs.properties.JdbcProperties;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data source wrapper timing every statement executed through its connections.
+ * <p>
+ * Connections and statements are wrapped in dynamic proxies. Prepared statements are timed
+ * under the SQL they were prepared with, plain statements under the SQL passed to
+ * {@code execute}. Durations go into the per-statement histograms of {@link JdbcMetrics}, and
+ * executions and connection borrows are counted per thread by {@link QueryCounter}.
+ * Statements slower than the configured threshold are logged with the types of their bind
+ * parameters; the values themselves are never logged. Everything else is delegated to the
+ * wrapped data source, which can still be reached with {@link #unwrap(Class)}.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class InstrumentedDataSource implements DataSource, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedDataSource.class);
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeBatch", "executeLargeUpdate", "executeLargeBatch");
+    private static final String BATCH = "batch";
+
+    private final DataSource target;
+    private final JdbcMetrics jdbcMetrics;
+    private final JdbcProperties jdbcProperties;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(target.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(target.getConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+
+    /**
+     * Closes the wrapped data source if it can be closed, shutting down its pool.
+     *
+     * @throws Exception if the wrapped data source fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        if (target instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Wraps a borrowed connection so that the statements it creates are timed.
+     *
+     * @param connection the connection to wrap
+     * @return the wrapped connection
+     */
+    private Connection wrap(Connection connection) {
+        QueryCounter.connectionBorrowed();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Invokes a method on a wrapped object, rethrowing what the method threw.
+     *
+     * @param target the wrapped object
+     * @param method the method to invoke
+     * @param args   the arguments of the call
+     * @return the result of the call
+     * @throws Throwable the exception thrown by the method
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Proxy handler wrapping the statements created by a connection.
+     */
+    @RequiredArgsConstructor
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrap(statement, CallableStatement.class, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(statement, PreparedStatement.class, (String) args[0]);
+            }
+            if (result instanceof Statement statement) {
+                return wrap(statement, Statement.class, null);
+            }
+            return result;
+        }
+
+        private Object wrap(Statement statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    /**
+     * Proxy handler timing the execute methods of a statement and remembering the types of its bind parameters.
+     */
+    @RequiredArgsConstructor
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private String[] binds = new String[0];
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!EXECUTE_METHODS.contains(name)) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    bind(index, name);
+                } else if (name.equals("clearParameters")) {
+                    Arrays.fill(binds, null);
+                }
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+            String executed = sqlOf(args);
+            LatencyHistogram histogram = jdbcMetrics.histogram(executed);
+            QueryCounter.statementExecuted();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = InstrumentedDataSource.invoke(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                histogram.record(elapsed, failed);
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+                if (jdbcProperties.getSlowQueryThresholdMs() >= 0 && elapsedMs >= jdbcProperties.getSlowQueryThresholdMs()) {
+                    logger.warn("Slow statement took {} ms: {} [binds: {}]", elapsedMs, JdbcMetrics.labelOf(executed), redactedBinds());
+                }
+            }
+        }
+
+        /**
+         * Remembers the type of a bind parameter from the name of its setter, such as {@code String} for {@code setString}.
+         *
+         * @param index  the 1-based parameter index
+         * @param setter the name of the setter
+         */
+        private void bind(int index, String setter) {
+            if (index > binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = setter;
+        }
+
+        /**
+         * Describes the bind parameters by index and type, without their values.
+         *
+         * @return the redacted bind parameters
+         */
+        private String redactedBinds() {
+            StringBuilder description = new StringBuilder();
+            for (int i = 0; i < binds.length; i++) {
+                if (binds[i] != null) {
+                    if (!description.isEmpty()) {
+                        description.append(", ");
+                    }
+                    description.append(i + 1).append(':').append(binds[i].substring(3)).append("=?");
+                }
+            }
+            return description.isEmpty() ? "none" : description.toString();
+        }
+
+        private String sqlOf(Object[] args) {
+            if (sql != null) {
+                return sql;
+            }
+            return args != null && args.length > 0 && args[0] instanceof String text ? text : BATCH;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sinaev.metrics;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of latency histograms, one per distinct SQL statement.
+ * <p>
+ * Statements are keyed by their SQL text, which for the repositories is a constant or a
+ * statement built from a small set of filters. The number of statements is bounded; any
+ * statement beyond {@value #MAX_STATEMENTS} is counted under {@value #OTHER}.
+ * </p>
+ */
+@Component
+public class JdbcMetrics extends LatencyRegistry<String> {
+    static final int MAX_STATEMENTS = 200;
+    static final String OTHER = "other";
+    private static final int MAX_LABEL_LENGTH = 200;
+
+    /**
+     * Constructs a registry bounded to {@value #MAX_STATEMENTS} statements.
+     */
+    public JdbcMetrics() {
+        super(MAX_STATEMENTS, OTHER);
+    }
+
+    /**
+     * Returns a statement as a single-line label: whitespace is collapsed and long statements are cut.
+     *
+     * @param sql the SQL text
+     * @return the label of the statement
+     */
+    public static String labelOf(String sql) {
+        String label = sql.strip().replaceAll("\\s+", " ");
+        return label.length() > MAX_LABEL_LENGTH ? label.substring(0, MAX_LABEL_LENGTH) + "..." : label;
+    }
+}
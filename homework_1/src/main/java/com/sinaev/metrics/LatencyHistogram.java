@@ -0,0 +1,175 @@
+package com.sinaev.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-memory histogram of latencies in nanoseconds.
+ * <p>
+ * Buckets are log-linear: values below {@value #SUB_BUCKETS} get a bucket each, and every
+ * following power of two is split into {@value #SUB_BUCKETS} equal buckets. A recorded value
+ * is therefore reported with a relative error below 1/{@value #SUB_BUCKETS}, whatever its
+ * magnitude, and the whole range of {@code long} fits into {@link #BUCKET_COUNT} counters.
+ * Recording is a few atomic increments and allocates nothing.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = SUB_BUCKETS + (64 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one call.
+     *
+     * @param nanos  the duration of the call in nanoseconds
+     * @param failed whether the call ended with an exception
+     */
+    public void record(long nanos, boolean failed) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(value));
+        sumNanos.add(value);
+        if (failed) {
+            errors.increment();
+        }
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Returns the number of failed calls.
+     *
+     * @return the number of calls recorded as failed
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     *
+     * @return the total duration in nanoseconds
+     */
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     *
+     * @return the maximum duration in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Copies the bucket counters.
+     * <p>
+     * Calls recorded while the copy is taken may or may not be included.
+     * </p>
+     *
+     * @return the count of each bucket
+     */
+    public long[] snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of calls in the given bucket counters.
+     *
+     * @param counts bucket counters taken with {@link #snapshot()}
+     * @return the total count
+     */
+    public static long count(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at the given quantile of the given bucket counters.
+     *
+     * @param counts   bucket counters taken with {@link #snapshot()}
+     * @param quantile the quantile, between 0 and 1
+     * @return the upper bound of the bucket holding the quantile, in nanoseconds, or 0 if nothing was recorded
+     */
+    public static long valueAtQuantile(long[] counts, double quantile) {
+        long total = count(counts);
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(counts.length - 1);
+    }
+
+    /**
+     * Returns the number of calls whose bucket lies entirely at or below the given value.
+     * <p>
+     * This is the cumulative count of a Prometheus histogram bucket with the given upper bound.
+     * A bucket straddling the bound is not counted, so the result never overstates the count.
+     * </p>
+     *
+     * @param counts bucket counters taken with {@link #snapshot()}
+     * @param nanos  the upper bound in nanoseconds
+     * @return the number of calls at or below the bound
+     */
+    public static long countAtOrBelow(long[] counts, long nanos) {
+        long total = 0;
+        for (int i = 0; i < counts.length && upperBoundOf(i) <= nanos; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bucket a value falls into.
+     *
+     * @param value a non-negative value
+     * @return the index of the bucket
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the greatest value that falls into a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the inclusive upper bound of the bucket
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long next = (long) (SUB_BUCKETS + subBucket + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
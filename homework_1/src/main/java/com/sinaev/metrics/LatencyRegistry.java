@@ -0,0 +1,64 @@
+package com.sinaev.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of latency histograms keyed by what is measured.
+ * <p>
+ * A histogram is created on the first use of a key and reused afterwards, so looking up the
+ * histogram of a known key does not allocate. The number of keys can be bounded; once the
+ * bound is reached, new keys share the histogram of the overflow key.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ */
+public class LatencyRegistry<K> {
+    private final Map<K, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final K overflowKey;
+
+    /**
+     * Constructs an unbounded registry.
+     */
+    public LatencyRegistry() {
+        this(Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Constructs a registry holding at most {@code maxKeys} keys besides the overflow key.
+     *
+     * @param maxKeys     the maximum number of distinct keys
+     * @param overflowKey the key shared by all keys beyond the bound
+     */
+    public LatencyRegistry(int maxKeys, K overflowKey) {
+        this.maxKeys = maxKeys;
+        this.overflowKey = overflowKey;
+    }
+
+    /**
+     * Returns the histogram of a key, creating it on first use.
+     *
+     * @param key the measured key
+     * @return the histogram of the key
+     */
+    public LatencyHistogram histogram(K key) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= maxKeys) {
+            return histograms.computeIfAbsent(overflowKey, ignored -> new LatencyHistogram());
+        }
+        return histograms.computeIfAbsent(key, ignored -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns all histograms keyed by what they measure.
+     *
+     * @return a copy of the registry content
+     */
+    public Map<K, LatencyHistogram> getHistograms() {
+        return Map.copyOf(histograms);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sinaev.metrics;
+
+import com.sinaev.models.dto.LatencyStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Registry of latency histograms, one per {@code @Loggable} method.
+ * <p>
+ * A histogram is created on the first call of a method and reused afterwards, so the memory
+ * used is fixed per method and recording a call does not allocate.
+ * </p>
+ */
+@Component
+public class MethodMetrics extends LatencyRegistry<Method> {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Summarizes the histograms of all methods called so far.
+     *
+     * @return the latency statistics of each method, ordered by method name
+     */
+    public List<LatencyStatsDTO> stats() {
+        return getHistograms().entrySet().stream()
+                .map(entry -> stats(nameOf(entry.getKey()), entry.getValue()))
+                .sorted(Comparator.comparing(LatencyStatsDTO::method))
+                .toList();
+    }
+
+    /**
+     * Returns the name a method is reported under.
+     *
+     * @param method the measured method
+     * @return the simple name of the declaring class and the method name
+     */
+    public static String nameOf(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    /**
+     * Summarizes one histogram.
+     *
+     * @param name      the name of the method
+     * @param histogram the histogram of the method
+     * @return the latency statistics in milliseconds
+     */
+    private static LatencyStatsDTO stats(String name, LatencyHistogram histogram) {
+        long[] counts = histogram.snapshot();
+        return new LatencyStatsDTO(
+                name,
+                LatencyHistogram.count(counts),
+                histogram.getErrors(),
+                LatencyHistogram.valueAtQuantile(counts, 0.5) / NANOS_PER_MILLI,
+                LatencyHistogram.valueAtQuantile(counts, 0.9) / NANOS_PER_MILLI,
+                LatencyHistogram.valueAtQuantile(counts, 0.99) / NANOS_PER_MILLI,
+                LatencyHistogram.valueAtQuantile(counts, 0.999) / NANOS_PER_MILLI,
+                histogram.getMaxNanos() / NANOS_PER_MILLI);
+    }
+}
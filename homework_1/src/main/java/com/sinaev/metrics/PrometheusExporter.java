@@ -0,0 +1,212 @@
+package com.sinaev.metrics;
+
+import com.sinaev.caches.BoundedCache;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.UserCache;
+import com.sinaev.handlers.AuditLogWriter;
+import com.sinaev.security.SessionTokens;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Writes all collected metrics in the Prometheus text exposition format.
+ * <p>
+ * Latencies are exported as histograms in seconds with fixed bucket bounds, derived from the
+ * lock-free histograms at scrape time; the recording side is never touched by a scrape
+ * beyond reading the counters. Pool usage and the audit queue are exported as gauges and
+ * counters read directly from their owners, as are the hit and miss counters of the name, user and session token caches.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class PrometheusExporter {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double[] BUCKET_BOUNDS_SECONDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final String[] BUCKET_LABELS = Arrays.stream(BUCKET_BOUNDS_SECONDS)
+            .mapToObj(bound -> BigDecimal.valueOf(bound).stripTrailingZeros().toPlainString())
+            .toArray(String[]::new);
+
+    private final RequestMetrics requestMetrics;
+    private final MethodMetrics methodMetrics;
+    private final JdbcMetrics jdbcMetrics;
+    private final DataSource dataSource;
+    private final AuditLogWriter auditLogWriter;
+    private final NameIdCache nameIdCache;
+    private final UserCache userCache;
+    private final SessionTokens sessionTokens;
+
+    /**
+     * Writes all metrics.
+     *
+     * @param out the writer to write the exposition text to
+     * @throws IOException if writing fails
+     */
+    public void write(Writer out) throws IOException {
+        writeHistograms(out, "http_server_requests_seconds", "Latency of HTTP requests per controller mapping.",
+                "handler", labelled(requestMetrics.getHistograms(), requestMetrics::labelOf));
+        writeHistograms(out, "service_method_seconds", "Latency of @Loggable service methods.",
+                "method", labelled(methodMetrics.getHistograms(), MethodMetrics::nameOf));
+        writeHistograms(out, "jdbc_statement_seconds", "Latency of JDBC statement executions per SQL statement.",
+                "sql", labelled(jdbcMetrics.getHistograms(), JdbcMetrics::labelOf));
+        writePool(out);
+        writeAudit(out);
+        writeCaches(out);
+    }
+
+    /**
+     * Writes one histogram family with an error counter per labelled histogram.
+     *
+     * @param out        the writer
+     * @param name       the metric name
+     * @param help       the metric description
+     * @param label      the name of the label distinguishing the histograms
+     * @param histograms the histograms keyed by label value
+     * @throws IOException if writing fails
+     */
+    private void writeHistograms(Writer out, String name, String help, String label,
+                                 Map<String, LatencyHistogram> histograms) throws IOException {
+        writeHeader(out, name, help, "histogram");
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            String labelPair = label + "=\"" + escape(entry.getKey()) + "\"";
+            long[] counts = entry.getValue().snapshot();
+            for (int i = 0; i < BUCKET_BOUNDS_SECONDS.length; i++) {
+                long count = LatencyHistogram.countAtOrBelow(counts, (long) (BUCKET_BOUNDS_SECONDS[i] * NANOS_PER_SECOND));
+                writeSample(out, name + "_bucket", labelPair + ",le=\"" + BUCKET_LABELS[i] + "\"", count);
+            }
+            long total = LatencyHistogram.count(counts);
+            writeSample(out, name + "_bucket", labelPair + ",le=\"+Inf\"", total);
+            writeSample(out, name + "_sum", labelPair, entry.getValue().getSumNanos() / NANOS_PER_SECOND);
+            writeSample(out, name + "_count", labelPair, total);
+        }
+        String errors = name.substring(0, name.lastIndexOf('_')) + "_errors_total";
+        writeHeader(out, errors, "Number of failed calls.", "counter");
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            writeSample(out, errors, label + "=\"" + escape(entry.getKey()) + "\"", entry.getValue().getErrors());
+        }
+    }
+
+    /**
+     * Writes the connection pool gauges if the data source is backed by a Hikari pool.
+     *
+     * @param out the writer
+     * @throws IOException if writing fails
+     */
+    private void writePool(Writer out) throws IOException {
+        HikariPoolMXBean pool = pool();
+        if (pool == null) {
+            return;
+        }
+        writeGauge(out, "db_pool_connections_active", "Connections currently in use.", pool.getActiveConnections());
+        writeGauge(out, "db_pool_connections_idle", "Connections idle in the pool.", pool.getIdleConnections());
+        writeGauge(out, "db_pool_connections_total", "Connections open in the pool.", pool.getTotalConnections());
+        writeGauge(out, "db_pool_threads_pending", "Threads waiting for a connection.", pool.getThreadsAwaitingConnection());
+    }
+
+    /**
+     * Writes the audit queue depth and the audit writer counters.
+     *
+     * @param out the writer
+     * @throws IOException if writing fails
+     */
+    private void writeAudit(Writer out) throws IOException {
+        writeGauge(out, "audit_queue_depth", "Audit log entries waiting to be written.", auditLogWriter.getPending());
+        writeCounter(out, "audit_entries_queued_total", "Audit log entries accepted into the queue.", auditLogWriter.getQueued());
+        writeCounter(out, "audit_entries_written_total", "Audit log entries written to the database.", auditLogWriter.getWritten());
+        writeCounter(out, "audit_entries_dropped_total", "Audit log entries lost to overflow or failed writes.", auditLogWriter.getDropped());
+        writeCounter(out, "audit_entries_spilled_total", "Audit log entries appended to the spill file.", auditLogWriter.getSpilled());
+    }
+
+    /**
+     * Writes the hit and miss counters of the name, user and session token caches.
+     *
+     * @param out the writer
+     * @throws IOException if writing fails
+     */
+    private void writeCaches(Writer out) throws IOException {
+        Map<String, BoundedCache<?, ?>> caches = new TreeMap<>(Map.of(
+                "rooms", nameIdCache.getRooms(),
+                "user_ids", nameIdCache.getUserIds(),
+                "users", userCache.getUsers(),
+                "session_tokens", sessionTokens.getVerified()));
+        writeHeader(out, "cache_hits_total", "Lookups answered from the cache.", "counter");
+        for (Map.Entry<String, BoundedCache<?, ?>> cache : caches.entrySet()) {
+            writeSample(out, "cache_hits_total", "cache=\"" + cache.getKey() + "\"", cache.getValue().getHits());
+        }
+        writeHeader(out, "cache_misses_total", "Lookups that loaded the value from the database.", "counter");
+        for (Map.Entry<String, BoundedCache<?, ?>> cache : caches.entrySet()) {
+            writeSample(out, "cache_misses_total", "cache=\"" + cache.getKey() + "\"", cache.getValue().getMisses());
+        }
+    }
+
+    /**
+     * Returns the Hikari pool behind the data source.
+     *
+     * @return the pool bean, or {@code null} if the data source is not a started Hikari pool
+     */
+    private HikariPoolMXBean pool() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean()
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static <K> Map<String, LatencyHistogram> labelled(Map<K, LatencyHistogram> histograms,
+                                                              Function<K, String> labelOf) {
+        Map<String, LatencyHistogram> labelled = new TreeMap<>();
+        histograms.forEach((key, histogram) -> labelled.put(labelOf.apply(key), histogram));
+        return labelled;
+    }
+
+    private static void writeGauge(Writer out, String name, String help, double value) throws IOException {
+        writeHeader(out, name, help, "gauge");
+        writeSample(out, name, null, value);
+    }
+
+    private static void writeCounter(Writer out, String name, String help, double value) throws IOException {
+        writeHeader(out, name, help, "counter");
+        writeSample(out, name, null, value);
+    }
+
+    private static void writeHeader(Writer out, String name, String help, String type) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static void writeSample(Writer out, String name, String labels, double value) throws IOException {
+        out.write(name);
+        if (labels != null) {
+            out.write("{" + labels + "}");
+        }
+        out.write(" ");
+        out.write(value == Math.rint(value) && !Double.isInfinite(value)
+                ? Long.toString((long) value)
+                : Double.toString(value));
+        out.write("\n");
+    }
+
+    /**
+     * Escapes a label value as required by the exposition format.
+     *
+     * @param value the raw label value
+     * @return the escaped value
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,41 @@
+package com.sinaev.metrics;
+
+import com.sinaev.configs.properties.JdbcProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the number of statements and connection borrows of a request to its response headers.
+ * <p>
+ * Enabled by the {@code debug-headers} flag of {@link JdbcProperties}. The headers are added
+ * just before the body is written, so statements run while streaming a body are not counted.
+ * </p>
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class QueryCountResponseAdvice implements ResponseBodyAdvice<Object> {
+    static final String STATEMENTS_HEADER = "X-Query-Count";
+    static final String CONNECTIONS_HEADER = "X-Connection-Count";
+
+    private final JdbcProperties jdbcProperties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return jdbcProperties.isDebugHeaders();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(STATEMENTS_HEADER, Long.toString(QueryCounter.statements()));
+        response.getHeaders().set(CONNECTIONS_HEADER, Long.toString(QueryCounter.connections()));
+        return body;
+    }
+}
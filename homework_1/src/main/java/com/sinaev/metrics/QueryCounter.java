@@ -0,0 +1,60 @@
+package com.sinaev.metrics;
+
+/**
+ * Per-thread counters of executed statements and borrowed connections.
+ * <p>
+ * A request is handled on a single thread, so resetting the counters when a request starts
+ * and reading them before the response is written gives the number of statements and
+ * connections that request needed. The counters are plain longs in a per-thread array, so
+ * counting does not allocate.
+ * </p>
+ */
+public final class QueryCounter {
+    private static final int STATEMENTS = 0;
+    private static final int CONNECTIONS = 1;
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Resets the counters of the current thread.
+     */
+    public static void reset() {
+        long[] counts = COUNTS.get();
+        counts[STATEMENTS] = 0;
+        counts[CONNECTIONS] = 0;
+    }
+
+    /**
+     * Counts one executed statement.
+     */
+    static void statementExecuted() {
+        COUNTS.get()[STATEMENTS]++;
+    }
+
+    /**
+     * Counts one borrowed connection.
+     */
+    static void connectionBorrowed() {
+        COUNTS.get()[CONNECTIONS]++;
+    }
+
+    /**
+     * Returns the number of statements executed by the current thread since the last reset.
+     *
+     * @return the statement count
+     */
+    public static long statements() {
+        return COUNTS.get()[STATEMENTS];
+    }
+
+    /**
+     * Returns the number of connections borrowed by the current thread since the last reset.
+     *
+     * @return the connection count
+     */
+    public static long connections() {
+        return COUNTS.get()[CONNECTIONS];
+    }
+}
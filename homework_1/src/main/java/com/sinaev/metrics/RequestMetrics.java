@@ -0,0 +1,44 @@
+package com.sinaev.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of latency histograms, one per controller handler method.
+ * <p>
+ * Each handler is labelled with the HTTP method and the mapping pattern it was first called
+ * through. The label is built once per handler, so recording a request does not allocate.
+ * </p>
+ */
+@Component
+public class RequestMetrics extends LatencyRegistry<Method> {
+    private final Map<Method, String> labels = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the histogram of a handler method, remembering its label on first use.
+     *
+     * @param handler     the controller method handling the request
+     * @param httpMethod  the HTTP method of the request
+     * @param pattern     the mapping pattern matched by the request
+     * @return the histogram of the handler
+     */
+    public LatencyHistogram histogram(Method handler, String httpMethod, String pattern) {
+        if (!labels.containsKey(handler)) {
+            labels.putIfAbsent(handler, httpMethod + " " + pattern);
+        }
+        return histogram(handler);
+    }
+
+    /**
+     * Returns the label of a handler method.
+     *
+     * @param handler the controller method
+     * @return the HTTP method and mapping pattern, or the method name if the handler has not been called
+     */
+    public String labelOf(Method handler) {
+        return labels.getOrDefault(handler, MethodMetrics.nameOf(handler));
+    }
+}
@@ -0,0 +1,61 @@
+package com.sinaev.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor measuring the latency of every request handled by a controller method.
+ * <p>
+ * The start time is kept in a per-thread holder instead of a request attribute, so no
+ * boxed value is allocated per request. A request counts as failed when the handler threw
+ * or the response status is 400 or above, which is how the controllers report errors.
+ * The per-thread {@link QueryCounter} is reset at the start of every request.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final RequestMetrics requestMetrics;
+
+    /**
+     * Remembers the time the request reached the handler and resets the query counters.
+     *
+     * @param request  the current request
+     * @param response the current response
+     * @param handler  the chosen handler
+     * @return always {@code true}
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.reset();
+        START.get()[0] = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Records the latency of a request handled by a controller method.
+     *
+     * @param request  the current request
+     * @param response the current response
+     * @param handler  the handler that processed the request
+     * @param ex       the exception thrown by the handler, if any
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        long elapsed = System.nanoTime() - START.get()[0];
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        requestMetrics.histogram(handlerMethod.getMethod(), request.getMethod(), String.valueOf(pattern))
+                .record(elapsed, ex != null || response.getStatus() >= 400);
+    }
+}
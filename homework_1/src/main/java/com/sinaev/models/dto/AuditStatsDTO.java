@@ -0,0 +1,18 @@
+package com.sinaev.models.dto;
+
+/**
+ * Data Transfer Object (DTO) for the counters of the audit writer.
+ *
+ * @param queued  the number of entries accepted into the queue
+ * @param written the number of entries written to the database
+ * @param dropped the number of entries lost to queue overflow or failed writes
+ * @param spilled the number of entries appended to the spill file
+ * @param pending the number of entries waiting in the queue
+ */
+public record AuditStatsDTO(
+        long queued,
+        long written,
+        long dropped,
+        long spilled,
+        int pending) {
+}
@@ -0,0 +1,14 @@
+package com.sinaev.models.dto;
+
+/**
+ * Data Transfer Object (DTO) for a signed session token issued on login.
+ *
+ * @param token     the token to send in the {@code Authorization} header
+ * @param tokenType the authentication scheme of the header, always {@code Bearer}
+ * @param expiresIn the number of seconds the token stays valid
+ */
+public record AuthTokenDTO(
+        String token,
+        String tokenType,
+        long expiresIn) {
+}
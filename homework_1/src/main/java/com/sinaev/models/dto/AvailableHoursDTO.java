@@ -0,0 +1,21 @@
+package com.sinaev.models.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the availability of a room on one date.
+ * <p>
+ * This record holds the start times of the free slots of the requested length together with
+ * the free intervals the slots were taken from.
+ * </p>
+ *
+ * @param slotMinutes   the length of a slot in minutes
+ * @param slots         the start times of slots in which the room is free
+ * @param freeIntervals the intervals of the date in which the room is free
+ */
+public record AvailableHoursDTO(
+        int slotMinutes,
+        List<LocalTime> slots,
+        List<FreeIntervalDTO> freeIntervals) {
+}
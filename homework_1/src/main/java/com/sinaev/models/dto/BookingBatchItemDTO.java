@@ -0,0 +1,14 @@
+package com.sinaev.models.dto;
+
+/**
+ * Data Transfer Object (DTO) for the result of one booking of a batch request.
+ *
+ * @param index   the position of the booking in the request
+ * @param created whether the booking was created
+ * @param error   the reason the booking was rejected, or null if it was created
+ */
+public record BookingBatchItemDTO(
+        int index,
+        boolean created,
+        String error) {
+}
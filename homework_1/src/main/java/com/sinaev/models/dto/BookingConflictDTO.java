@@ -0,0 +1,21 @@
+package com.sinaev.models.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a rejected booking.
+ * <p>
+ * This record explains why the booking was rejected and proposes alternatives found in the
+ * availability index: the next free times of the requested length in the same room, and rooms of
+ * the same type that are free for the requested length.
+ * </p>
+ *
+ * @param message    the reason the booking was rejected
+ * @param sameRoom   the next free intervals of the requested length in the requested room, earliest first
+ * @param otherRooms the other rooms of the same type, best first
+ */
+public record BookingConflictDTO(
+        String message,
+        List<FreeIntervalDTO> sameRoom,
+        List<RoomCandidateDTO> otherRooms) {
+}
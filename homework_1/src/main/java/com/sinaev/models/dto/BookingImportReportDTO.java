@@ -0,0 +1,14 @@
+package com.sinaev.models.dto;
+
+/**
+ * Data Transfer Object (DTO) for the outcome of a bulk booking import.
+ *
+ * @param read     the number of CSV rows read
+ * @param imported the number of bookings inserted
+ * @param skipped  the number of rows skipped because their user or room does not exist
+ */
+public record BookingImportReportDTO(
+        long read,
+        long imported,
+        long skipped) {
+}
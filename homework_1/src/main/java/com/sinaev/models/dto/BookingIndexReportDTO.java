@@ -0,0 +1,19 @@
+package com.sinaev.models.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the state of the booking interval index.
+ * <p>
+ * This record compares the in-memory index with the bookings stored in the database.
+ * </p>
+ *
+ * @param indexedBookings the number of bookings held by the index
+ * @param storedBookings  the number of bookings stored in the database
+ * @param mismatchedRooms the names of rooms whose indexed bookings differ from the database
+ */
+public record BookingIndexReportDTO(
+        int indexedBookings,
+        int storedBookings,
+        List<String> mismatchedRooms) {
+}
@@ -0,0 +1,21 @@
+package com.sinaev.models.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of bookings.
+ * <p>
+ * This record holds the bookings of a page together with the keyset cursor of the next page.
+ * The cursor fields are null when there are no more bookings.
+ * </p>
+ *
+ * @param bookings      the bookings of this page
+ * @param nextStartTime the value to pass as {@code afterStartTime} to fetch the next page
+ * @param nextId        the value to pass as {@code afterId} to fetch the next page
+ */
+public record BookingPageDTO(
+        List<BookingDTO> bookings,
+        LocalDateTime nextStartTime,
+        Long nextId) {
+}
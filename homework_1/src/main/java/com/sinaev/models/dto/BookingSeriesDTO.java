@@ -0,0 +1,38 @@
+package com.sinaev.models.dto;
+
+import com.sinaev.models.enums.RecurrenceFrequency;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a recurring booking.
+ * <p>
+ * This record represents the rule of a booking series: its first occurrence, how it repeats and
+ * when it ends. At least one of {@code count} and {@code until} must be given.
+ * </p>
+ *
+ * @param id         the ID of the series, or null when creating it
+ * @param username   the username associated with the series
+ * @param roomName   the name of the room being booked
+ * @param startTime  the start time of the first occurrence
+ * @param endTime    the end time of the first occurrence
+ * @param frequency  the unit of the repetition
+ * @param interval   the number of units between two occurrences, or null for 1
+ * @param count      the maximum number of occurrences, or null
+ * @param until      the last date an occurrence may start on, or null
+ * @param exceptions the start times of the cancelled occurrences, or null for none
+ */
+public record BookingSeriesDTO(
+        Long id,
+        String username,
+        String roomName,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        RecurrenceFrequency frequency,
+        Integer interval,
+        Integer count,
+        LocalDate until,
+        List<LocalDateTime> exceptions) {
+}
@@ -0,0 +1,17 @@
+package com.sinaev.models.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) for a free interval of a room.
+ * <p>
+ * This record represents a maximal half-open interval, {@code [start, end)}, in which the room has no booking.
+ * </p>
+ *
+ * @param start the inclusive start of the interval
+ * @param end   the exclusive end of the interval
+ */
+public record FreeIntervalDTO(
+        LocalDateTime start,
+        LocalDateTime end) {
+}
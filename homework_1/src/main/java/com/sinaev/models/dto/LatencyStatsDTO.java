@@ -0,0 +1,27 @@
+package com.sinaev.models.dto;
+
+/**
+ * Data Transfer Object (DTO) for the latency statistics of one method.
+ * <p>
+ * Percentiles are upper bounds of histogram buckets and are accurate to about 6%.
+ * </p>
+ *
+ * @param method the name of the method
+ * @param count  the number of calls
+ * @param errors the number of calls that ended with an exception
+ * @param p50Ms  the median latency in milliseconds
+ * @param p90Ms  the 90th percentile latency in milliseconds
+ * @param p99Ms  the 99th percentile latency in milliseconds
+ * @param p999Ms the 99.9th percentile latency in milliseconds
+ * @param maxMs  the maximum latency in milliseconds
+ */
+public record LatencyStatsDTO(
+        String method,
+        long count,
+        long errors,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs) {
+}
@@ -0,0 +1,24 @@
+package com.sinaev.models.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) for a room found by a free room search.
+ * <p>
+ * This record proposes the earliest time the room can host the searched meeting and says how long
+ * the room stays free after that start within the searched window.
+ * </p>
+ *
+ * @param roomName  the name of the room
+ * @param roomType  the type of the room
+ * @param start     the earliest start of the meeting in this room
+ * @param end       the end of the meeting when it starts at {@code start}
+ * @param freeUntil the end of the free interval containing the meeting, capped at the end of the window
+ */
+public record RoomCandidateDTO(
+        String roomName,
+        String roomType,
+        LocalDateTime start,
+        LocalDateTime end,
+        LocalDateTime freeUntil) {
+}
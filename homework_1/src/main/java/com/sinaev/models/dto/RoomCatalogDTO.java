@@ -0,0 +1,14 @@
+package com.sinaev.models.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a snapshot of the room catalog.
+ *
+ * @param etag  the entity tag identifying the content of the snapshot
+ * @param rooms the rooms, ordered by name
+ */
+public record RoomCatalogDTO(
+        String etag,
+        List<RoomDTO> rooms) {
+}
@@ -0,0 +1,218 @@
+package com.sinaev.models.entities;
+
+import com.sinaev.models.enums.RecurrenceFrequency;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents a recurring booking: one stored rule standing for many occurrences.
+ * <p>
+ * The first occurrence is {@code [startTime, endTime)}; the n-th occurrence starts {@code n * interval}
+ * days, weeks or months later and lasts as long. The series ends after {@code count} occurrences or
+ * on the {@code until} date, whichever comes first, and skips the occurrences whose start is listed
+ * in {@code exceptions}. Occurrences are never stored; they are computed on demand for a window,
+ * jumping straight to the first occurrence that can touch it, so the cost of an expansion depends
+ * on the number of occurrences in the window, not on how long the series has been running.
+ * </p>
+ */
+@Getter
+@Setter
+public class BookingSeries {
+    /**
+     * The id of the series.
+     */
+    private Long id;
+
+    /**
+     * The user who made the booking series.
+     */
+    private User user;
+
+    /**
+     * The room that is booked.
+     */
+    private Room room;
+
+    /**
+     * The start time of the first occurrence.
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * The end time of the first occurrence.
+     */
+    private LocalDateTime endTime;
+
+    /**
+     * The unit of the repetition.
+     */
+    private RecurrenceFrequency frequency;
+
+    /**
+     * The number of units between two occurrences.
+     */
+    private int interval;
+
+    /**
+     * The maximum number of occurrences, or null for no limit.
+     */
+    private Integer count;
+
+    /**
+     * The last date an occurrence may start on, or null for no limit.
+     */
+    private LocalDate until;
+
+    /**
+     * The start times of the cancelled occurrences.
+     */
+    private Set<LocalDateTime> exceptions;
+
+    /**
+     * Constructs a BookingSeries with the specified user, room, first occurrence and rule.
+     *
+     * @param user      the user who made the booking series
+     * @param room      the room that is booked
+     * @param startTime the start time of the first occurrence
+     * @param endTime   the end time of the first occurrence
+     * @param frequency the unit of the repetition
+     * @param interval  the number of units between two occurrences
+     * @param count     the maximum number of occurrences, or null
+     * @param until     the last date an occurrence may start on, or null
+     */
+    public BookingSeries(User user, Room room, LocalDateTime startTime, LocalDateTime endTime,
+                         RecurrenceFrequency frequency, int interval, Integer count, LocalDate until) {
+        this.user = user;
+        this.room = room;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.exceptions = new HashSet<>();
+    }
+
+    /**
+     * Returns the length of every occurrence.
+     *
+     * @return the duration of an occurrence
+     */
+    public Duration getDuration() {
+        return Duration.between(startTime, endTime);
+    }
+
+    /**
+     * Returns the start times of the occurrences overlapping a half-open interval, in order.
+     *
+     * @param from the inclusive start of the interval
+     * @param to   the exclusive end of the interval
+     * @return the start times of the overlapping, not cancelled occurrences
+     */
+    public List<LocalDateTime> occurrences(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        Duration duration = getDuration();
+        for (long n = firstIndexEndingAfter(from); ; n++) {
+            LocalDateTime occurrence = occurrence(n);
+            if (occurrence == null || !occurrence.isBefore(to)) {
+                return occurrences;
+            }
+            if (occurrence.plus(duration).isAfter(from) && !exceptions.contains(occurrence)) {
+                occurrences.add(occurrence);
+            }
+        }
+    }
+
+    /**
+     * Checks whether any occurrence overlaps a half-open interval.
+     *
+     * @param from the inclusive start of the interval
+     * @param to   the exclusive end of the interval
+     * @return true if an occurrence that is not cancelled overlaps the interval
+     */
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        Duration duration = getDuration();
+        for (long n = firstIndexEndingAfter(from); ; n++) {
+            LocalDateTime occurrence = occurrence(n);
+            if (occurrence == null || !occurrence.isBefore(to)) {
+                return false;
+            }
+            if (occurrence.plus(duration).isAfter(from) && !exceptions.contains(occurrence)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the start time of the n-th occurrence.
+     *
+     * @param n the zero-based index of the occurrence
+     * @return the start time, or null if the series has ended before it
+     */
+    public LocalDateTime occurrence(long n) {
+        if (count != null && n >= count) {
+            return null;
+        }
+        long units = n * interval;
+        LocalDateTime occurrence = switch (frequency) {
+            case DAILY -> startTime.plusDays(units);
+            case WEEKLY -> startTime.plusWeeks(units);
+            case MONTHLY -> startTime.plusMonths(units);
+        };
+        if (until != null && occurrence.toLocalDate().isAfter(until)) {
+            return null;
+        }
+        return occurrence;
+    }
+
+    /**
+     * Returns an index no greater than that of the first occurrence ending after the given time.
+     * <p>
+     * The index is computed from the calendar distance instead of by stepping through the series.
+     * It may be one too small, because months have different lengths, which the callers skip.
+     * </p>
+     *
+     * @param time the time
+     * @return the index to start an expansion from
+     */
+    private long firstIndexEndingAfter(LocalDateTime time) {
+        if (!time.isAfter(startTime)) {
+            return 0;
+        }
+        LocalDateTime earliestStart = time.minus(getDuration());
+        ChronoUnit unit = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+        };
+        return Math.max(0, unit.between(startTime, earliestStart) / interval - 1);
+    }
+
+    /**
+     * Returns a string representation of the booking series.
+     *
+     * @return a string representation of the booking series.
+     */
+    @Override
+    public String toString() {
+        return "BookingSeries: [" +
+                "user:" + user.getUsername() +
+                ", room:" + room.getName() +
+                ", startTime:" + startTime +
+                ", endTime:" + endTime +
+                ", frequency:" + frequency +
+                ", interval:" + interval +
+                ", count:" + count +
+                ", until:" + until +
+                ']';
+    }
+}
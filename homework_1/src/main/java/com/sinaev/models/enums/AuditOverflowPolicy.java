@@ -0,0 +1,21 @@
+package com.sinaev.models.enums;
+
+/**
+ * Represents what the audit writer does with an event when its queue is full.
+ */
+public enum AuditOverflowPolicy {
+    /**
+     * Wait on the calling thread until the queue has room.
+     */
+    BLOCK,
+
+    /**
+     * Discard the oldest queued event to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Append the event to the local spill file instead of queueing it.
+     */
+    SPILL
+}
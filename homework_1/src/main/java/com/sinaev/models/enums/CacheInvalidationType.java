@@ -0,0 +1,19 @@
+package com.sinaev.models.enums;
+
+/**
+ * Kinds of entities whose cached copies are invalidated across nodes.
+ */
+public enum CacheInvalidationType {
+    /**
+     * A room was created, renamed or deleted; the key is the room name.
+     */
+    ROOM,
+    /**
+     * A user was created; the key is the username.
+     */
+    USER,
+    /**
+     * A booking of a room was created, moved or deleted; the key is the room name.
+     */
+    BOOKING
+}
@@ -0,0 +1,22 @@
+package com.sinaev.models.enums;
+
+/**
+ * Represents how often the occurrences of a booking series repeat.
+ */
+public enum RecurrenceFrequency {
+    /**
+     * Every {@code interval} days.
+     */
+    DAILY,
+
+    /**
+     * Every {@code interval} weeks, on the weekday of the first occurrence.
+     */
+    WEEKLY,
+
+    /**
+     * Every {@code interval} months, on the day of month of the first occurrence, or the last day of
+     * shorter months.
+     */
+    MONTHLY
+}
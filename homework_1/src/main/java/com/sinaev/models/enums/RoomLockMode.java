@@ -0,0 +1,16 @@
+package com.sinaev.models.enums;
+
+/**
+ * Represents how booking writes to the same room are serialized.
+ */
+public enum RoomLockMode {
+    /**
+     * Striped in-process locks; enough when a single node writes bookings.
+     */
+    LOCAL,
+
+    /**
+     * Postgres transaction-scoped advisory locks on the room IDs; needed when several nodes write bookings.
+     */
+    ADVISORY
+}
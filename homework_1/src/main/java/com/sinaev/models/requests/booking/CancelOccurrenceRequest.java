@@ -0,0 +1,17 @@
+package com.sinaev.models.requests.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request object for cancelling one occurrence of a booking series.
+ * <p>
+ * This record encapsulates the parameters required to cancel an occurrence, such as the series ID and the start time of the occurrence.
+ * </p>
+ *
+ * @param seriesId        the ID of the series
+ * @param occurrenceStart the start time of the occurrence to be cancelled
+ */
+public record CancelOccurrenceRequest(
+        Long seriesId,
+        LocalDateTime occurrenceStart) {
+}
@@ -0,0 +1,28 @@
+package com.sinaev.models.requests.booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Request object for fetching one page of filtered bookings.
+ * <p>
+ * This record extends the booking filter with a keyset cursor. Bookings are ordered by start time
+ * and id; a page starts strictly after the booking identified by {@code afterStartTime} and
+ * {@code afterId}, which are taken from the previous page. Both cursor fields are omitted for the first page.
+ * </p>
+ *
+ * @param date           the date of the booking
+ * @param username       the username associated with the booking
+ * @param roomName       the name of the room being booked
+ * @param afterStartTime the start time of the last booking of the previous page
+ * @param afterId        the id of the last booking of the previous page
+ * @param limit          the maximum number of bookings to return
+ */
+public record FilterBookingsPageRequest(
+        LocalDate date,
+        String username,
+        String roomName,
+        LocalDateTime afterStartTime,
+        Long afterId,
+        Integer limit) {
+}
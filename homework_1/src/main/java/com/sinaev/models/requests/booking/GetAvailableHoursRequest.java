@@ -8,10 +8,22 @@ import java.time.LocalDate;
  * This record encapsulates the parameters used to request available booking hours for a specific date and room.
  * </p>
  *
- * @param date     the date for which available hours are requested
- * @param roomName the name of the room for which available hours are requested
+ * @param date        the date for which available hours are requested
+ * @param roomName    the name of the room for which available hours are requested
+ * @param slotMinutes the length of a slot in minutes, or null for the configured default
  */
 public record GetAvailableHoursRequest(
         LocalDate date,
-        String roomName) {
+        String roomName,
+        Integer slotMinutes) {
+
+    /**
+     * Constructs a request using the configured default slot length.
+     *
+     * @param date     the date for which available hours are requested
+     * @param roomName the name of the room for which available hours are requested
+     */
+    public GetAvailableHoursRequest(LocalDate date, String roomName) {
+        this(date, roomName, null);
+    }
 }
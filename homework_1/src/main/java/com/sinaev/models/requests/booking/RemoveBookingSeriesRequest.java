@@ -0,0 +1,13 @@
+package com.sinaev.models.requests.booking;
+
+/**
+ * Request object for removing a booking series.
+ * <p>
+ * This record encapsulates the parameters required to remove a booking series with all its occurrences.
+ * </p>
+ *
+ * @param seriesId the ID of the series to be removed
+ */
+public record RemoveBookingSeriesRequest(
+        Long seriesId) {
+}
@@ -0,0 +1,26 @@
+package com.sinaev.models.requests.booking;
+
+import com.sinaev.models.enums.RoomType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request object for searching free rooms.
+ * <p>
+ * This record describes a meeting of a given length that has to start and end inside a time window,
+ * optionally restricted to one type of room.
+ * </p>
+ *
+ * @param from            the inclusive start of the window
+ * @param to              the exclusive end of the window
+ * @param durationMinutes the length of the meeting in minutes
+ * @param roomType        the type of the room, or null for any type
+ * @param limit           the maximum number of candidates to return, or null for the configured default
+ */
+public record SearchRoomsRequest(
+        LocalDateTime from,
+        LocalDateTime to,
+        Integer durationMinutes,
+        RoomType roomType,
+        Integer limit) {
+}
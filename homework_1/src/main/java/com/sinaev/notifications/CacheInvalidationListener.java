@@ -0,0 +1,248 @@
+package com.sinaev.notifications;
+
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.UserCache;
+import com.sinaev.configs.properties.DatasourceProperties;
+import com.sinaev.configs.properties.InvalidationProperties;
+import com.sinaev.models.enums.CacheInvalidationType;
+import com.sinaev.repositories.BookingRepository;
+import com.sinaev.repositories.BookingSeriesRepository;
+import com.sinaev.services.RoomService;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives cache invalidations from the other nodes through Postgres {@code LISTEN}.
+ * <p>
+ * A daemon thread holds one dedicated connection, opened outside of the pool, and polls it for
+ * notifications on the configured channel. Each notification from another node evicts or reloads
+ * the affected entries of the local caches. When the connection breaks, the thread reconnects
+ * with exponential backoff. Notifications sent while it was disconnected are lost, so after every
+ * successful {@code LISTEN} all local caches are resynchronized from the database.
+ * </p>
+ */
+@Component
+@DependsOn("liquibaseInitializer")
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final InvalidationProperties invalidationProperties;
+    private final DatasourceProperties datasourceProperties;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final NameIdCache nameIdCache;
+    private final UserCache userCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final RoomService roomService;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    private Thread worker;
+    private volatile boolean running;
+    private volatile boolean listening;
+
+    /**
+     * Starts the listener thread if invalidation is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!invalidationProperties.isEnabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "cache-invalidation-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the listener thread and closes its connection.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        worker.interrupt();
+        try {
+            worker.join(invalidationProperties.getReconnectMaxDelayMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns whether the listener currently holds a connection subscribed to the channel.
+     *
+     * @return true if notifications are being received, false otherwise
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    /**
+     * Returns the number of notifications received from other nodes.
+     *
+     * @return the number of applied notifications
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * Returns the number of full resynchronizations done after (re)connecting.
+     *
+     * @return the number of resynchronizations
+     */
+    public long getResyncs() {
+        return resyncs.get();
+    }
+
+    /**
+     * Applies one notification payload to the local caches.
+     * <p>
+     * Notifications of this node and malformed payloads are ignored.
+     * </p>
+     *
+     * @param payload the payload in the form {@code nodeId:type:key}
+     */
+    void handle(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        if (parts[0].equals(cacheInvalidationPublisher.getNodeId())) {
+            return;
+        }
+        CacheInvalidationType type;
+        try {
+            type = CacheInvalidationType.valueOf(parts[1]);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring cache invalidation of unknown type: {}", payload);
+            return;
+        }
+        String key = parts[2];
+        received.incrementAndGet();
+        switch (type) {
+            case ROOM -> {
+                nameIdCache.invalidateRoom(key);
+                bookingIntervalIndex.replaceRoom(key, bookingRepository.findByRoomName(key));
+                bookingIntervalIndex.replaceSeries(key, bookingSeriesRepository.findByRoomName(key));
+                roomService.refreshRoomCatalog();
+            }
+            case USER -> {
+                nameIdCache.invalidateUser(key);
+                userCache.invalidate(key);
+            }
+            case BOOKING -> {
+                bookingIntervalIndex.replaceRoom(key, bookingRepository.findByRoomName(key));
+                bookingIntervalIndex.replaceSeries(key, bookingSeriesRepository.findByRoomName(key));
+            }
+        }
+    }
+
+    /**
+     * Reloads every local cache from the database.
+     */
+    void resync() {
+        nameIdCache.clear();
+        userCache.clear();
+        roomService.refreshRoomCatalog();
+        bookingIntervalIndex.rebuild(bookingRepository::findAll, bookingSeriesRepository::findAll);
+        resyncs.incrementAndGet();
+    }
+
+    /**
+     * Keeps a listening connection open until the listener is stopped, reconnecting with backoff.
+     */
+    private void run() {
+        long delay = invalidationProperties.getReconnectMinDelayMs();
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(datasourceProperties.getUrl(),
+                    datasourceProperties.getUsername(), datasourceProperties.getPassword())) {
+                listen(connection);
+                delay = invalidationProperties.getReconnectMinDelayMs();
+                poll(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    logger.warn("Cache invalidation listener disconnected, retrying in {} ms: {}", delay, e.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+            if (running) {
+                sleep(delay);
+                delay = Math.min(delay * 2, invalidationProperties.getReconnectMaxDelayMs());
+            }
+        }
+    }
+
+    /**
+     * Subscribes the connection to the channel and resynchronizes the caches.
+     *
+     * @param connection the dedicated listener connection
+     * @throws SQLException if the subscription fails
+     */
+    private void listen(Connection connection) throws SQLException {
+        String channel = invalidationProperties.getChannel().replace("\"", "\"\"");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN \"" + channel + "\"");
+        }
+        listening = true;
+        resync();
+        logger.info("Cache invalidation listener subscribed to '{}' as node {}",
+                invalidationProperties.getChannel(), cacheInvalidationPublisher.getNodeId());
+    }
+
+    /**
+     * Applies notifications until the listener is stopped or the connection breaks.
+     *
+     * @param connection the dedicated listener connection
+     * @throws SQLException if the connection breaks
+     */
+    private void poll(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        int timeout = (int) invalidationProperties.getPollTimeoutMs();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(timeout);
+            if (notifications == null || notifications.length == 0) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Listener connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                handle(notification.getParameter());
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.sinaev.notifications;
+
+import com.sinaev.configs.properties.InvalidationProperties;
+import com.sinaev.models.enums.CacheInvalidationType;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Publishes cache invalidations to the other nodes through Postgres {@code NOTIFY}.
+ * <p>
+ * Repositories call {@link #publish} on the connection of their write. The notification is part
+ * of the same transaction, so other nodes are only told about committed changes. The payload is
+ * {@code nodeId:type:key}; each node ignores its own notifications, because its repositories
+ * have already updated the local caches.
+ * </p>
+ */
+@Component
+public class CacheInvalidationPublisher {
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    private final InvalidationProperties invalidationProperties;
+    private final String nodeId;
+
+    /**
+     * Constructs a publisher for the configured node, generating a node ID if none is configured.
+     *
+     * @param invalidationProperties the invalidation properties
+     */
+    public CacheInvalidationPublisher(InvalidationProperties invalidationProperties) {
+        this.invalidationProperties = invalidationProperties;
+        String configuredNodeId = invalidationProperties.getNodeId();
+        this.nodeId = configuredNodeId == null || configuredNodeId.isBlank()
+                ? UUID.randomUUID().toString()
+                : configuredNodeId;
+    }
+
+    /**
+     * Returns the identifier of this node.
+     *
+     * @return the node ID put into every published payload
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Notifies the other nodes that cached copies of an entity are stale.
+     *
+     * @param connection the connection the change was written on
+     * @param type       the kind of the changed entity
+     * @param key        the name identifying the changed entity
+     * @throws SQLException if the notification cannot be sent
+     */
+    public void publish(Connection connection, CacheInvalidationType type, String key) throws SQLException {
+        if (!invalidationProperties.isEnabled()) {
+            return;
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(NOTIFY_SQL)) {
+            preparedStatement.setString(1, invalidationProperties.getChannel());
+            preparedStatement.setString(2, nodeId + ":" + type.name() + ":" + key);
+            preparedStatement.execute();
+        }
+    }
+}
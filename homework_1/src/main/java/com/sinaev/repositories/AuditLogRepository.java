@@ -1,6 +1,5 @@
 package com.sinaev.repositories;
 
-import com.sinaev.handlers.SQLQueryHandler;
 import com.sinaev.models.entities.AuditLog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
@@ -9,11 +8,12 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Repository for managing {@link AuditLog} entities.
  * <p>
- * This repository provides methods for saving audit logs to the database.
+ * This repository provides methods for saving audit logs to the database, one at a time or in batches.
  * </p>
  */
 @Repository
@@ -32,8 +32,6 @@ public class AuditLogRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(saveSQL)) {
 
-            changeSearchPath(connection);
-
             preparedStatement.setString(1, auditLog.getUsername());
             preparedStatement.setString(2, auditLog.getAction());
             preparedStatement.setTimestamp(3, java.sql.Timestamp.valueOf(auditLog.getTimestamp()));
@@ -44,12 +42,28 @@ public class AuditLogRepository {
     }
 
     /**
-     * Changes the search path for the given database connection.
+     * Saves audit log entries to the database as one JDBC batch.
      *
-     * @param connection the database connection
+     * @param auditLogs the audit log entries to save
+     * @return the number of saved entries, 0 if the batch failed
      */
-    protected void changeSearchPath(Connection connection) {
-        SQLQueryHandler handler = new SQLQueryHandler();
-        handler.addSearchPathPrivate(connection);
+    public int saveAll(List<AuditLog> auditLogs) {
+        String saveSQL = "INSERT INTO audit_log(username, action, timestamp) VALUES (?, ?, ?)";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(saveSQL)) {
+
+            for (AuditLog auditLog : auditLogs) {
+                preparedStatement.setString(1, auditLog.getUsername());
+                preparedStatement.setString(2, auditLog.getAction());
+                preparedStatement.setTimestamp(3, java.sql.Timestamp.valueOf(auditLog.getTimestamp()));
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            return auditLogs.size();
+        } catch (SQLException e) {
+            System.out.println("Got SQL Exception " + e.getMessage());
+        }
+        return 0;
     }
-}
+}
\ No newline at end of file
@@ -1,37 +1,119 @@
 package com.sinaev.repositories;
 
-import com.sinaev.handlers.SQLQueryHandler;
+import com.sinaev.builders.SQLQueryBuilder;
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.models.dto.BookingImportReportDTO;
+import com.sinaev.models.enums.CacheInvalidationType;
+import com.sinaev.notifications.CacheInvalidationPublisher;
+import com.sinaev.transactions.UnitOfWork;
+import com.sinaev.exceptions.BookingIsNotAvailableException;
 import com.sinaev.models.entities.Booking;
 import com.sinaev.models.entities.Room;
 import com.sinaev.models.entities.User;
 import com.sinaev.models.enums.RoomType;
 import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Repository for managing {@link Booking} entities.
  * <p>
  * This repository provides methods for performing CRUD operations on bookings in the database.
+ * Finders load a booking together with its user and room in a single joined query.
+ * Successful writes are mirrored into the {@link BookingIntervalIndex} once committed and announced
+ * to the other nodes through the {@link CacheInvalidationPublisher}. Inside a {@link UnitOfWork} all
+ * methods share the connection and transaction of the unit. Room and user IDs are resolved through the
+ * shared {@link NameIdCache}.
+ * </p>
+ * <p>
+ * Every write that adds or moves a booking is also checked by the database against the occurrences of
+ * the room's booking series; an overlap is reported like a violation of the exclusion constraint.
  * </p>
  */
 @Repository
 @RequiredArgsConstructor
 public class BookingRepository {
+    static final String SELECT_BOOKINGS_SQL = """
+            SELECT b.id, b.start_time, b.end_time,
+                   u.id AS user_id, u.username, u.password, u.is_admin,
+                   r.id AS room_id, r.room_name, r.room_type
+            FROM bookings b
+            JOIN users u ON u.id = b.user_id
+            JOIN rooms r ON r.id = b.room_id
+            """;
+    static final String FIND_ALL_SQL = SELECT_BOOKINGS_SQL;
+    static final String FIND_BY_ROOM_AND_TIME_SQL = SELECT_BOOKINGS_SQL + "WHERE r.room_name = ? AND b.start_time = ?";
+    static final String FIND_BY_ROOM_SQL = SELECT_BOOKINGS_SQL + "WHERE r.room_name = ?";
+    static final String FIND_BY_USER_SQL = SELECT_BOOKINGS_SQL + "WHERE u.username = ?";
+    static final String FIND_BY_DATE_SQL = SELECT_BOOKINGS_SQL + "WHERE b.start_time >= ? AND b.start_time < ?";
+    static final String SAVE_SQL = """
+            INSERT INTO bookings (user_id, room_id, start_time, end_time)
+            SELECT u.id, r.id, ?, ?
+            FROM users u, rooms r
+            WHERE u.username = ? AND r.room_name = ?
+            """;
+    static final String UPDATE_SQL = """
+            UPDATE bookings
+            SET user_id = u.id, room_id = r.id, start_time = ?, end_time = ?
+            FROM users u, rooms r, rooms old_room
+            WHERE u.username = ? AND r.room_name = ?
+              AND old_room.room_name = ? AND bookings.room_id = old_room.id AND bookings.start_time = ?
+            """;
+    static final String EXPORT_SQL = """
+            COPY (SELECT u.username, r.room_name, b.start_time, b.end_time
+                  FROM bookings b
+                  JOIN users u ON u.id = b.user_id
+                  JOIN rooms r ON r.id = b.room_id
+                  ORDER BY b.start_time, b.id)
+            TO STDOUT WITH (FORMAT csv, HEADER true)
+            """;
+    static final String CREATE_IMPORT_TABLE_SQL = """
+            CREATE TEMP TABLE booking_import (username VARCHAR(255), room_name VARCHAR(255), start_time TIMESTAMP, end_time TIMESTAMP)
+            ON COMMIT DROP
+            """;
+    static final String COPY_IMPORT_SQL = "COPY booking_import (username, room_name, start_time, end_time) FROM STDIN WITH (FORMAT csv, HEADER true)";
+    static final String INSERT_IMPORTED_SQL = """
+            INSERT INTO bookings (user_id, room_id, start_time, end_time)
+            SELECT u.id, r.id, i.start_time, i.end_time
+            FROM booking_import i
+            JOIN users u ON u.username = i.username
+            JOIN rooms r ON r.room_name = i.room_name
+            ORDER BY r.id, i.start_time
+            """;
+    static final String IMPORTED_ROOMS_SQL = "SELECT DISTINCT room_name FROM booking_import WHERE room_name IN (SELECT room_name FROM rooms)";
+
+    /**
+     * SQLState reported by PostgreSQL when an exclusion constraint is violated.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final DataSource dataSource;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final NameIdCache nameIdCache;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
 
     /**
      * Retrieves all bookings from the database.
@@ -40,23 +122,12 @@ public class BookingRepository {
      */
     public List<Booking> findAll() {
         List<Booking> bookings = new ArrayList<>();
-        String findAllSQL = "SELECT * FROM bookings";
 
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(findAllSQL)) {
-
-            changeSearchPath(connection);
-            ResultSet resultSet = preparedStatement.executeQuery();
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_SQL);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
             while (resultSet.next()) {
-                long userId = resultSet.getLong("user_id");
-                User user = findUserById(userId);
-                long roomId = resultSet.getLong("room_id");
-                Room room = findRoomById(roomId);
-                LocalDateTime startTime = resultSet.getTimestamp("start_time").toLocalDateTime();
-                LocalDateTime endTime = resultSet.getTimestamp("end_time").toLocalDateTime();
-                Booking booking = new Booking(user, room, startTime, endTime);
-
-                bookings.add(booking);
+                bookings.add(mapBooking(resultSet));
             }
         } catch (SQLException e) {
             System.out.println("Got SQL Exception " + e.getMessage());
@@ -72,25 +143,17 @@ public class BookingRepository {
      * @return an Optional containing the found booking, or an empty Optional if no booking is found
      */
     public Optional<Booking> findByRoomAndTime(String roomName, LocalDateTime startTime) {
-        String findByRoomAndTimeSQL = "SELECT * FROM bookings WHERE start_time = ? AND room_id = ?";
         Booking foundBooking = null;
 
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(findByRoomAndTimeSQL)) {
-
-            changeSearchPath(connection);
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ROOM_AND_TIME_SQL)) {
 
-            preparedStatement.setTimestamp(1, Timestamp.valueOf(startTime));
-            preparedStatement.setLong(2, getRoomId(roomName));
+            preparedStatement.setString(1, roomName);
+            preparedStatement.setTimestamp(2, Timestamp.valueOf(startTime));
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    foundBooking = new Booking(
-                            findUserById(resultSet.getLong("user_id")),
-                            findRoomByName(roomName),
-                            resultSet.getTimestamp("start_time").toLocalDateTime(),
-                            resultSet.getTimestamp("end_time").toLocalDateTime()
-                    );
+                    foundBooking = mapBooking(resultSet);
                 }
             }
         } catch (SQLException e) {
@@ -102,51 +165,218 @@ public class BookingRepository {
 
     /**
      * Saves a booking to the database.
+     * <p>
+     * The user and room are resolved by name inside the insert, so saving takes a single statement.
+     * Overlaps are rejected by the {@code bookings_room_no_overlap} exclusion constraint.
+     * </p>
      *
      * @param booking the booking to save
+     * @throws BookingIsNotAvailableException if the booking overlaps another booking of the room
+     * @throws NoSuchElementException         if the user or room does not exist
+     * @throws IllegalStateException          if the insert fails for another reason
      */
     public void save(Booking booking) {
-        String saveSQL = "INSERT INTO bookings (user_id, room_id, start_time, end_time) VALUES (?, ?, ?, ?)";
-
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(saveSQL)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(SAVE_SQL)) {
+
+            preparedStatement.setTimestamp(1, Timestamp.valueOf(booking.getStartTime()));
+            preparedStatement.setTimestamp(2, Timestamp.valueOf(booking.getEndTime()));
+            preparedStatement.setString(3, booking.getUser().getUsername());
+            preparedStatement.setString(4, booking.getRoom().getName());
+            if (preparedStatement.executeUpdate() == 0) {
+                throw new NoSuchElementException("User or room not found");
+            }
+            UnitOfWork.afterCommit(() -> bookingIntervalIndex.add(booking.getRoom().getName(), booking.getStartTime(), booking.getEndTime()));
+            cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, booking.getRoom().getName());
+        } catch (SQLException e) {
+            if (EXCLUSION_VIOLATION.equals(e.getSQLState())) {
+                throw new BookingIsNotAvailableException("Booking this room and time is not available");
+            }
+            throw new IllegalStateException("Failed to save booking: " + e.getMessage(), e);
+        }
+    }
 
-            changeSearchPath(connection);
+    /**
+     * Saves several bookings to the database in one transaction.
+     * <p>
+     * All inserts are sent as one JDBC batch of {@link #SAVE_SQL} statements, so the bookings cost a
+     * single round trip and are committed together. Inside a {@link UnitOfWork} the batch joins the
+     * transaction of the unit. If any booking overlaps an existing one, the whole batch is rolled back.
+     * </p>
+     *
+     * @param bookings the bookings to save
+     * @return the number of rows inserted for each booking, in order; 0 if its user or room does not exist
+     * @throws BookingIsNotAvailableException if a booking overlaps another booking of its room
+     * @throws IllegalStateException          if the batch fails for another reason
+     */
+    public int[] saveAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return new int[0];
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(SAVE_SQL)) {
+                for (Booking booking : bookings) {
+                    preparedStatement.setTimestamp(1, Timestamp.valueOf(booking.getStartTime()));
+                    preparedStatement.setTimestamp(2, Timestamp.valueOf(booking.getEndTime()));
+                    preparedStatement.setString(3, booking.getUser().getUsername());
+                    preparedStatement.setString(4, booking.getRoom().getName());
+                    preparedStatement.addBatch();
+                }
+                int[] inserted = preparedStatement.executeBatch();
+                List<Booking> saved = new ArrayList<>(bookings.size());
+                Set<String> roomNames = new LinkedHashSet<>();
+                for (int i = 0; i < inserted.length; i++) {
+                    if (inserted[i] > 0 || inserted[i] == Statement.SUCCESS_NO_INFO) {
+                        saved.add(bookings.get(i));
+                        roomNames.add(bookings.get(i).getRoom().getName());
+                    }
+                }
+                for (String roomName : roomNames) {
+                    cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, roomName);
+                }
+                connection.commit();
+                UnitOfWork.afterCommit(() -> saved.forEach(booking ->
+                        bookingIntervalIndex.add(booking.getRoom().getName(), booking.getStartTime(), booking.getEndTime())));
+                return inserted;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            if (isExclusionViolation(e)) {
+                throw new BookingIsNotAvailableException("Booking this room and time is not available");
+            }
+            throw new IllegalStateException("Failed to save bookings: " + e.getMessage(), e);
+        }
+    }
 
-            preparedStatement.setLong(1, getUserId(booking.getUser().getUsername()));
-            preparedStatement.setLong(2, getRoomId(booking.getRoom().getName()));
-            preparedStatement.setTimestamp(3, Timestamp.valueOf(booking.getStartTime()));
-            preparedStatement.setTimestamp(4, Timestamp.valueOf(booking.getEndTime()));
-            preparedStatement.executeUpdate();
+    /**
+     * Writes all bookings as CSV, with a header row, in start time order.
+     * <p>
+     * The rows are produced by {@code COPY ... TO STDOUT} and written to the stream as they arrive,
+     * so memory use does not grow with the number of bookings.
+     * </p>
+     *
+     * @param outputStream the stream receiving the CSV
+     * @return the number of bookings written
+     * @throws IllegalStateException if the bookings cannot be read
+     * @throws UncheckedIOException  if the stream cannot be written
+     */
+    public long exportCsv(OutputStream outputStream) {
+        try (Connection connection = dataSource.getConnection()) {
+            return copyManager(connection).copyOut(EXPORT_SQL, outputStream);
         } catch (SQLException e) {
-            System.out.println("Got SQL Exception " + e.getMessage());
+            throw new IllegalStateException("Failed to export bookings: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imports bookings from CSV in one transaction.
+     * <p>
+     * The CSV has a header row and the columns {@code username, room_name, start_time, end_time}. It is
+     * streamed with {@code COPY ... FROM STDIN} into a temporary table, and then inserted with one
+     * statement that resolves all user and room names by joining on them, so memory use does not grow
+     * with the size of the file. Rows whose user or room does not exist are skipped. If any row
+     * overlaps a booking or an occurrence of a booking series, the whole import is rolled back. Rows are
+     * inserted in room ID order, the order in which rooms are locked elsewhere. The index of every
+     * imported room is reloaded once the import is committed.
+     * </p>
+     *
+     * @param inputStream the stream providing the CSV
+     * @return the numbers of rows read, imported and skipped
+     * @throws BookingIsNotAvailableException if an imported booking overlaps another booking or a series occurrence of its room
+     * @throws IllegalStateException          if the CSV is malformed or cannot be imported
+     * @throws UncheckedIOException           if the stream cannot be read
+     */
+    public BookingImportReportDTO importCsv(InputStream inputStream) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_IMPORT_TABLE_SQL);
+                }
+                long read = copyManager(connection).copyIn(COPY_IMPORT_SQL, inputStream);
+                long imported;
+                try (Statement statement = connection.createStatement()) {
+                    imported = statement.executeLargeUpdate(INSERT_IMPORTED_SQL);
+                }
+                List<String> roomNames = new ArrayList<>();
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(IMPORTED_ROOMS_SQL)) {
+                    while (resultSet.next()) {
+                        roomNames.add(resultSet.getString("room_name"));
+                    }
+                }
+                for (String roomName : roomNames) {
+                    cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, roomName);
+                }
+                connection.commit();
+                UnitOfWork.afterCommit(() -> roomNames.forEach(roomName ->
+                        bookingIntervalIndex.replaceRoom(roomName, findByRoomName(roomName))));
+                return new BookingImportReportDTO(read, imported, read - imported);
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            if (isExclusionViolation(e)) {
+                throw new BookingIsNotAvailableException("Imported bookings overlap existing bookings or booking series");
+            }
+            throw new IllegalStateException("Failed to import bookings: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
     /**
      * Updates an existing booking in the database.
+     * <p>
+     * The new user and room and the old room are resolved by name inside the update, so updating takes
+     * a single statement. Overlaps are rejected by the {@code bookings_room_no_overlap} exclusion constraint.
+     * </p>
      *
      * @param oldBooking the old booking to update
      * @param newBooking the new booking data
+     * @throws BookingIsNotAvailableException if the new booking overlaps another booking of the room
+     * @throws NoSuchElementException         if the old booking, the new user or the new room does not exist
+     * @throws IllegalStateException          if the update fails for another reason
      */
     public void update(Booking oldBooking, Booking newBooking) {
-        String updateSQL = "UPDATE bookings SET user_id = ?, room_id = ?, start_time = ?, end_time = ? WHERE room_id = ? AND start_time = ?";
-
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(updateSQL)) {
-
-            changeSearchPath(connection);
+             PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_SQL)) {
 
-            preparedStatement.setLong(1, getUserId(newBooking.getUser().getUsername()));
-            preparedStatement.setLong(2, getRoomId(newBooking.getRoom().getName()));
-            preparedStatement.setTimestamp(3, Timestamp.valueOf(newBooking.getStartTime()));
-            preparedStatement.setTimestamp(4, Timestamp.valueOf(newBooking.getEndTime()));
-            preparedStatement.setLong(5, getRoomId(oldBooking.getRoom().getName()));
+            preparedStatement.setTimestamp(1, Timestamp.valueOf(newBooking.getStartTime()));
+            preparedStatement.setTimestamp(2, Timestamp.valueOf(newBooking.getEndTime()));
+            preparedStatement.setString(3, newBooking.getUser().getUsername());
+            preparedStatement.setString(4, newBooking.getRoom().getName());
+            preparedStatement.setString(5, oldBooking.getRoom().getName());
             preparedStatement.setTimestamp(6, Timestamp.valueOf(oldBooking.getStartTime()));
 
-            preparedStatement.executeUpdate();
+            if (preparedStatement.executeUpdate() == 0) {
+                throw new NoSuchElementException("Booking, user or room not found");
+            }
+            UnitOfWork.afterCommit(() -> {
+                bookingIntervalIndex.remove(oldBooking.getRoom().getName(), oldBooking.getStartTime());
+                bookingIntervalIndex.add(newBooking.getRoom().getName(), newBooking.getStartTime(), newBooking.getEndTime());
+            });
+            cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, oldBooking.getRoom().getName());
+            if (!oldBooking.getRoom().getName().equals(newBooking.getRoom().getName())) {
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, newBooking.getRoom().getName());
+            }
         } catch (SQLException e) {
-            System.out.println("Got SQL Exception " + e.getMessage());
+            if (EXCLUSION_VIOLATION.equals(e.getSQLState())) {
+                throw new BookingIsNotAvailableException("The new time or room is not available. Try another time or resource.");
+            }
+            throw new IllegalStateException("Failed to update booking: " + e.getMessage(), e);
         }
     }
 
@@ -154,6 +384,7 @@ public class BookingRepository {
      * Deletes a booking from the database.
      *
      * @param booking the booking to delete
+     * @throws IllegalStateException if the booking cannot be deleted
      */
     public void delete(Booking booking) {
         String deleteSQL = "DELETE FROM bookings WHERE user_id = ? AND room_id = ? AND start_time = ? AND end_time = ?";
@@ -161,15 +392,16 @@ public class BookingRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(deleteSQL)) {
 
-            changeSearchPath(connection);
-
             preparedStatement.setLong(1, getUserId(booking.getUser().getUsername()));
             preparedStatement.setLong(2, getRoomId(booking.getRoom().getName()));
             preparedStatement.setTimestamp(3, Timestamp.valueOf(booking.getStartTime()));
             preparedStatement.setTimestamp(4, Timestamp.valueOf(booking.getEndTime()));
-            preparedStatement.executeUpdate();
+            if (preparedStatement.executeUpdate() > 0) {
+                UnitOfWork.afterCommit(() -> bookingIntervalIndex.remove(booking.getRoom().getName(), booking.getStartTime()));
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, booking.getRoom().getName());
+            }
         } catch (SQLException e) {
-            System.out.println("Got SQL Exception " + e.getMessage());
+            throw new IllegalStateException("Failed to delete booking: " + e.getMessage(), e);
         }
     }
 
@@ -181,24 +413,15 @@ public class BookingRepository {
      */
     public List<Booking> findByRoomName(String roomName) {
         List<Booking> bookings = new ArrayList<>();
-        String findByRoomSQL = "SELECT * FROM bookings WHERE room_id = ?";
 
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(findByRoomSQL)) {
-
-            changeSearchPath(connection);
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ROOM_SQL)) {
 
-            preparedStatement.setLong(1, getRoomId(roomName));
+            preparedStatement.setString(1, roomName);
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    Booking booking = new Booking(
-                            findUserById(resultSet.getLong("user_id")),
-                            findRoomByName(roomName),
-                            resultSet.getTimestamp("start_time").toLocalDateTime(),
-                            resultSet.getTimestamp("end_time").toLocalDateTime()
-                    );
-                    bookings.add(booking);
+                    bookings.add(mapBooking(resultSet));
                 }
             }
         } catch (SQLException e) {
@@ -216,24 +439,15 @@ public class BookingRepository {
      */
     public List<Booking> findByUserName(String userName) {
         List<Booking> bookings = new ArrayList<>();
-        String findByUserSQL = "SELECT * FROM bookings WHERE user_id = ?";
 
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(findByUserSQL)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_USER_SQL)) {
 
-            changeSearchPath(connection);
-
-            preparedStatement.setLong(1, getUserId(userName));
+            preparedStatement.setString(1, userName);
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    Booking booking = new Booking(
-                            findUserById(getUserId(userName)),
-                            findRoomById(resultSet.getLong("room_id")),
-                            resultSet.getTimestamp("start_time").toLocalDateTime(),
-                            resultSet.getTimestamp("end_time").toLocalDateTime()
-                    );
-                    bookings.add(booking);
+                    bookings.add(mapBooking(resultSet));
                 }
             }
         } catch (SQLException e) {
@@ -251,26 +465,16 @@ public class BookingRepository {
      */
     public List<Booking> findByDate(LocalDate date) {
         List<Booking> bookings = new ArrayList<>();
-        String findByDateSQL = "SELECT * FROM bookings WHERE start_time >= ? AND start_time < ?";
 
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(findByDateSQL)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_DATE_SQL)) {
 
-            changeSearchPath(connection);
-            LocalDateTime dateTime = date.atTime(0, 0);
-            LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-            preparedStatement.setTimestamp(1, Timestamp.valueOf(dateTime));
-            preparedStatement.setTimestamp(2, Timestamp.valueOf(endOfDay));
+            preparedStatement.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+            preparedStatement.setTimestamp(2, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    Booking booking = new Booking(
-                            findUserById(resultSet.getLong("user_id")),
-                            findRoomById(resultSet.getLong("room_id")),
-                            resultSet.getTimestamp("start_time").toLocalDateTime(),
-                            resultSet.getTimestamp("end_time").toLocalDateTime()
-                    );
-                    bookings.add(booking);
+                    bookings.add(mapBooking(resultSet));
                 }
             }
         } catch (SQLException e) {
@@ -280,140 +484,309 @@ public class BookingRepository {
     }
 
     /**
-     * Finds a room by its name.
+     * Finds the bookings of a room that overlap the given half-open interval, ordered by start time.
      *
      * @param roomName the name of the room
-     * @return the room with the specified name
+     * @param from     the inclusive start of the interval
+     * @param to       the exclusive end of the interval
+     * @return a list of bookings of the room overlapping the interval
      */
-    public Room findRoomByName(String roomName) {
-        try {
-            return findRoomById(getRoomId(roomName));
+    public List<Booking> findByRoomAndRange(String roomName, LocalDateTime from, LocalDateTime to) {
+        List<Booking> bookings = new ArrayList<>();
+        SQLQueryBuilder query = rangeQuery(roomName, from, to);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = query.prepare(connection);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                bookings.add(mapBooking(resultSet));
+            }
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            System.out.println("Got SQL Exception " + e.getMessage());
         }
+        return bookings;
     }
 
     /**
-     * Retrieves the ID of a user from the database.
+     * Finds bookings matching all of the given optional criteria.
+     * <p>
+     * Each non-null argument adds a predicate to the WHERE clause; null arguments are ignored,
+     * so calling this method with only nulls returns all bookings.
+     * </p>
      *
-     * @param username the name of user to find the ID for
-     * @return the ID of the specified user
-     * @throws SQLException if the user is not found or a database access error occurs
+     * @param username the username of the booking's user, or null for any user
+     * @param roomName the name of the booked room, or null for any room
+     * @param date     the date the booking starts on, or null for any date
+     * @return a list of matching bookings
      */
-    private long getUserId(String username) throws SQLException {
-        String selectUserIdSQL = "SELECT id FROM users WHERE username = ?";
+    public List<Booking> findByFilter(String username, String roomName, LocalDate date) {
+        List<Booking> bookings = new ArrayList<>();
+        SQLQueryBuilder query = filterQuery(username, roomName, date);
+
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(selectUserIdSQL)) {
+             PreparedStatement preparedStatement = query.prepare(connection);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                bookings.add(mapBooking(resultSet));
+            }
+        } catch (SQLException e) {
+            System.out.println("Got SQL Exception " + e.getMessage());
+        }
+        return bookings;
+    }
 
-            changeSearchPath(connection);
+    /**
+     * Finds one page of bookings matching the given optional criteria, ordered by start time and id.
+     * <p>
+     * The page is located with a keyset cursor rather than an offset, so the database seeks directly
+     * to the first row after the cursor no matter how deep the page is.
+     * </p>
+     *
+     * @param username       the username of the booking's user, or null for any user
+     * @param roomName       the name of the booked room, or null for any room
+     * @param date           the date the booking starts on, or null for any date
+     * @param afterStartTime the start time of the last booking already seen, or null for the first page
+     * @param afterId        the id of the last booking already seen, or null for the first page
+     * @param limit          the maximum number of bookings to return
+     * @return a list of at most {@code limit} matching bookings
+     */
+    public List<Booking> findPageByFilter(String username, String roomName, LocalDate date,
+                                          LocalDateTime afterStartTime, Long afterId, int limit) {
+        List<Booking> bookings = new ArrayList<>();
+        SQLQueryBuilder query = filterQuery(username, roomName, date);
+        if (afterStartTime != null && afterId != null) {
+            query.where("(b.start_time, b.id) > (?, ?)", afterStartTime, afterId);
+        }
+        query.orderBy("b.start_time, b.id").limit(limit);
 
-            preparedStatement.setString(1, username);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getLong("id");
-                } else {
-                    throw new SQLException("User not found.");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = query.prepare(connection);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                bookings.add(mapBooking(resultSet));
+            }
+        } catch (SQLException e) {
+            System.out.println("Got SQL Exception " + e.getMessage());
+        }
+        return bookings;
+    }
+
+    /**
+     * Streams bookings matching the given optional criteria, ordered by start time and id.
+     * <p>
+     * Rows are read through a forward-only server-side cursor, {@code fetchSize} rows per round trip,
+     * and handed to the consumer one at a time, so memory use does not grow with the result size.
+     * </p>
+     *
+     * @param username  the username of the booking's user, or null for any user
+     * @param roomName  the name of the booked room, or null for any room
+     * @param date      the date the booking starts on, or null for any date
+     * @param fetchSize the number of rows fetched per round trip
+     * @param consumer  the callback receiving each booking
+     * @throws IllegalStateException if the bookings cannot be read
+     */
+    public void streamByFilter(String username, String roomName, LocalDate date,
+                               int fetchSize, Consumer<Booking> consumer) {
+        SQLQueryBuilder query = filterQuery(username, roomName, date).orderBy("b.start_time, b.id");
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = query.prepare(connection)) {
+                preparedStatement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(mapBooking(resultSet));
+                    }
                 }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to stream bookings", e);
+        }
+    }
+
+    /**
+     * Finds a room by its name through the shared name cache.
+     *
+     * @param roomName the name of the room
+     * @return the room with the specified name
+     */
+    public Room findRoomByName(String roomName) {
+        Room room = nameIdCache.room(roomName, this::loadRoom);
+        if (room == null) {
+            throw new RuntimeException(new SQLException("Room not found."));
+        }
+        return room;
+    }
+
+    /**
+     * Retrieves the ID of a user through the shared name cache.
+     *
+     * @param username the name of user to find the ID for
+     * @return the ID of the specified user
+     * @throws SQLException if the user is not found
+     */
+    private long getUserId(String username) throws SQLException {
+        Long userId = nameIdCache.userId(username, this::loadUserId);
+        if (userId == null) {
+            throw new SQLException("User not found.");
         }
+        return userId;
     }
 
     /**
-     * Retrieves the ID of a room from the database.
+     * Retrieves the ID of a room through the shared name cache.
      *
      * @param roomName the name of room to find the ID for
      * @return the ID of the specified room
-     * @throws SQLException if the room is not found or a database access error occurs
+     * @throws SQLException if the room is not found
      */
     private long getRoomId(String roomName) throws SQLException {
-        String selectRoomIdSQL = "SELECT id FROM rooms WHERE room_name = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(selectRoomIdSQL)) {
+        Room room = nameIdCache.room(roomName, this::loadRoom);
+        if (room == null) {
+            throw new SQLException("Room not found.");
+        }
+        return room.getId();
+    }
 
-            changeSearchPath(connection);
+    /**
+     * Loads the ID of a user from the database.
+     *
+     * @param username the username
+     * @return the ID of the user, or null if not found
+     */
+    private Long loadUserId(String username) {
+        String selectUserIdSQL = "SELECT id FROM users WHERE username = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(selectUserIdSQL)) {
 
-            preparedStatement.setString(1, roomName);
+            preparedStatement.setString(1, username);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
                     return resultSet.getLong("id");
-                } else {
-                    throw new SQLException("Room not found.");
                 }
             }
+        } catch (SQLException e) {
+            System.out.println("Got SQL Exception " + e.getMessage());
         }
+        return null;
     }
 
     /**
-     * Finds a user by their ID.
+     * Loads a room with its ID from the database.
      *
-     * @param userId the ID of the user to find
-     * @return the user with the specified ID
-     * @throws SQLException if the user is not found or a database access error occurs
+     * @param roomName the name of the room
+     * @return the room, or null if not found
      */
-    private User findUserById(long userId) throws SQLException {
-        String selectUserSQL = "SELECT * FROM users WHERE id = ?";
-        User user = null;
-
+    private Room loadRoom(String roomName) {
+        String selectRoomSQL = "SELECT id, room_name, room_type FROM rooms WHERE room_name = ?";
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(selectUserSQL)) {
-
-            changeSearchPath(connection);
-
-            preparedStatement.setLong(1, userId);
+             PreparedStatement preparedStatement = connection.prepareStatement(selectRoomSQL)) {
 
+            preparedStatement.setString(1, roomName);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    user = new User(resultSet.getString("username"), resultSet.getString("password"));
+                    Room room = new Room(resultSet.getString("room_name"), RoomType.valueOf(resultSet.getString("room_type")));
+                    room.setId(resultSet.getLong("id"));
+                    return room;
                 }
             }
+        } catch (SQLException e) {
+            System.out.println("Got SQL Exception " + e.getMessage());
         }
-
-        if (user == null) {
-            throw new SQLException("User not found.");
-        }
-
-        return user;
+        return null;
     }
 
     /**
-     * Finds a room by its ID.
+     * Returns the COPY API of the PostgreSQL connection behind a pooled connection.
      *
-     * @param roomId the ID of the room to find
-     * @return the room with the specified ID
-     * @throws SQLException if the room is not found or a database access error occurs
+     * @param connection the pooled connection
+     * @return the copy manager of the underlying driver connection
+     * @throws SQLException if the connection is not a PostgreSQL connection
      */
-    private Room findRoomById(long roomId) throws SQLException {
-        String selectRoomSQL = "SELECT * FROM rooms WHERE id = ?";
-        Room room = null;
-
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(selectRoomSQL)) {
-
-            changeSearchPath(connection);
-
-            preparedStatement.setLong(1, roomId);
+    private static CopyManager copyManager(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
 
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    room = new Room(resultSet.getString("room_name"), RoomType.valueOf(resultSet.getString("room_type")));
-                }
+    /**
+     * Checks whether a failure, or any statement of a failed batch, violated the overlap constraint.
+     *
+     * @param e the failure
+     * @return true if an exclusion constraint was violated
+     */
+    private static boolean isExclusionViolation(SQLException e) {
+        for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+            if (EXCLUSION_VIOLATION.equals(cause.getSQLState())) {
+                return true;
             }
         }
+        return false;
+    }
 
-        if (room == null) {
-            throw new SQLException("Room not found.");
+    /**
+     * Creates a joined booking query restricted by the given optional criteria.
+     *
+     * @param username the username to match, or null
+     * @param roomName the room name to match, or null
+     * @param date     the start date to match, or null
+     * @return the query builder with the filter predicates applied
+     */
+    SQLQueryBuilder filterQuery(String username, String roomName, LocalDate date) {
+        SQLQueryBuilder query = new SQLQueryBuilder(SELECT_BOOKINGS_SQL)
+                .whereIfPresent("u.username = ?", username)
+                .whereIfPresent("r.room_name = ?", roomName);
+        if (date != null) {
+            query.where("b.start_time >= ? AND b.start_time < ?", date.atStartOfDay(), date.plusDays(1).atStartOfDay());
         }
+        return query;
+    }
 
-        return room;
+    /**
+     * Creates a joined booking query for the bookings of a room overlapping a half-open interval.
+     *
+     * @param roomName the name of the room
+     * @param from     the inclusive start of the interval
+     * @param to       the exclusive end of the interval
+     * @return the query builder ordered by start time
+     */
+    SQLQueryBuilder rangeQuery(String roomName, LocalDateTime from, LocalDateTime to) {
+        return new SQLQueryBuilder(SELECT_BOOKINGS_SQL)
+                .where("r.room_name = ?", roomName)
+                .where("b.start_time < ? AND b.end_time > ?", to, from)
+                .orderBy("b.start_time");
     }
 
     /**
-     * Changes the search path to the specified schema.
+     * Maps the current row of a joined booking query to a fully populated booking.
      *
-     * @param connection the database connection to use
+     * @param resultSet the result set positioned on a row selected with {@link #SELECT_BOOKINGS_SQL}
+     * @return the booking with its user and room
+     * @throws SQLException if a column cannot be read
      */
-    void changeSearchPath(Connection connection) {
-        SQLQueryHandler handler = new SQLQueryHandler();
-        handler.addSearchPathPrivate(connection);
+    private Booking mapBooking(ResultSet resultSet) throws SQLException {
+        User user = new User(
+                resultSet.getString("username"),
+                resultSet.getString("password"),
+                resultSet.getBoolean("is_admin"));
+        user.setId(resultSet.getLong("user_id"));
+
+        Room room = new Room(
+                resultSet.getString("room_name"),
+                RoomType.valueOf(resultSet.getString("room_type")));
+        room.setId(resultSet.getLong("room_id"));
+
+        Booking booking = new Booking(
+                user,
+                room,
+                resultSet.getTimestamp("start_time").toLocalDateTime(),
+                resultSet.getTimestamp("end_time").toLocalDateTime());
+        booking.setId(resultSet.getLong("id"));
+        return booking;
     }
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.sinaev.repositories;
+
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.exceptions.BookingIsNotAvailableException;
+import com.sinaev.models.entities.BookingSeries;
+import com.sinaev.models.entities.Room;
+import com.sinaev.models.entities.User;
+import com.sinaev.models.enums.CacheInvalidationType;
+import com.sinaev.models.enums.RecurrenceFrequency;
+import com.sinaev.models.enums.RoomType;
+import com.sinaev.notifications.CacheInvalidationPublisher;
+import com.sinaev.transactions.UnitOfWork;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Repository for managing {@link BookingSeries} entities.
+ * <p>
+ * Each series is stored as one row holding its recurrence rule and the start times of its cancelled
+ * occurrences; occurrences themselves are never stored. Finders load a series together with its user
+ * and room in a single joined query. Successful writes are mirrored into the {@link BookingIntervalIndex}
+ * once committed and announced to the other nodes through the {@link CacheInvalidationPublisher}.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingSeriesRepository {
+    static final String SELECT_SERIES_SQL = """
+            SELECT s.id, s.start_time, s.end_time, s.frequency, s.recurrence_interval, s.occurrence_count, s.until_date, s.exceptions,
+                   u.id AS user_id, u.username, u.password, u.is_admin,
+                   r.id AS room_id, r.room_name, r.room_type
+            FROM booking_series s
+            JOIN users u ON u.id = s.user_id
+            JOIN rooms r ON r.id = s.room_id
+            """;
+    static final String FIND_BY_ID_SQL = SELECT_SERIES_SQL + "WHERE s.id = ?";
+    static final String FIND_BY_ROOM_SQL = SELECT_SERIES_SQL + "WHERE r.room_name = ?";
+    static final String SAVE_SQL = """
+            INSERT INTO booking_series (user_id, room_id, start_time, end_time, frequency, recurrence_interval, occurrence_count, until_date, exceptions)
+            SELECT u.id, r.id, ?, ?, ?, ?, ?, ?, ?
+            FROM users u, rooms r
+            WHERE u.username = ? AND r.room_name = ?
+            RETURNING id
+            """;
+    static final String ADD_EXCEPTION_SQL = "UPDATE booking_series SET exceptions = array_append(exceptions, ?) WHERE id = ?";
+    static final String DELETE_SQL = "DELETE FROM booking_series WHERE id = ?";
+
+    /**
+     * SQLState reported by PostgreSQL when a series overlaps another booking of its room.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private final DataSource dataSource;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    /**
+     * Retrieves all booking series from the database.
+     *
+     * @return a list of all booking series
+     * @throws IllegalStateException if the series cannot be loaded
+     */
+    public List<BookingSeries> findAll() {
+        List<BookingSeries> series = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_SERIES_SQL);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                series.add(mapSeries(resultSet));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load booking series: " + e.getMessage(), e);
+        }
+        return series;
+    }
+
+    /**
+     * Finds a booking series by its ID.
+     *
+     * @param id the ID of the series
+     * @return an Optional containing the found series, or an empty Optional if no series is found
+     * @throws IllegalStateException if the series cannot be loaded
+     */
+    public Optional<BookingSeries> findById(long id) {
+        BookingSeries foundSeries = null;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
+
+            preparedStatement.setLong(1, id);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    foundSeries = mapSeries(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to find booking series: " + e.getMessage(), e);
+        }
+        return Optional.ofNullable(foundSeries);
+    }
+
+    /**
+     * Finds all booking series of a specific room.
+     *
+     * @param roomName the name of the room
+     * @return a list of the series of the room
+     * @throws IllegalStateException if the series cannot be loaded
+     */
+    public List<BookingSeries> findByRoomName(String roomName) {
+        List<BookingSeries> series = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ROOM_SQL)) {
+
+            preparedStatement.setString(1, roomName);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    series.add(mapSeries(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to find booking series of room " + roomName + ": " + e.getMessage(), e);
+        }
+        return series;
+    }
+
+    /**
+     * Saves a booking series to the database and sets its ID.
+     * <p>
+     * The user and room are resolved by name inside the insert, so saving takes a single statement.
+     * The database rejects the series if one of its occurrences overlaps a booking or an occurrence of
+     * another series of the room, even one this node's index does not know yet.
+     * </p>
+     *
+     * @param bookingSeries the series to save
+     * @throws BookingIsNotAvailableException if an occurrence overlaps another booking of the room
+     * @throws NoSuchElementException         if the user or room does not exist
+     * @throws IllegalStateException          if the series cannot be saved
+     */
+    public void save(BookingSeries bookingSeries) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SAVE_SQL)) {
+
+            preparedStatement.setTimestamp(1, Timestamp.valueOf(bookingSeries.getStartTime()));
+            preparedStatement.setTimestamp(2, Timestamp.valueOf(bookingSeries.getEndTime()));
+            preparedStatement.setString(3, bookingSeries.getFrequency().name());
+            preparedStatement.setInt(4, bookingSeries.getInterval());
+            if (bookingSeries.getCount() == null) {
+                preparedStatement.setNull(5, Types.INTEGER);
+            } else {
+                preparedStatement.setInt(5, bookingSeries.getCount());
+            }
+            preparedStatement.setDate(6, bookingSeries.getUntil() == null ? null : Date.valueOf(bookingSeries.getUntil()));
+            preparedStatement.setArray(7, connection.createArrayOf("timestamp",
+                    bookingSeries.getExceptions().stream().map(Timestamp::valueOf).toArray()));
+            preparedStatement.setString(8, bookingSeries.getUser().getUsername());
+            preparedStatement.setString(9, bookingSeries.getRoom().getName());
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new NoSuchElementException("User or room not found");
+                }
+                bookingSeries.setId(resultSet.getLong("id"));
+            }
+            UnitOfWork.afterCommit(() -> bookingIntervalIndex.addSeries(bookingSeries));
+            cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, bookingSeries.getRoom().getName());
+        } catch (SQLException e) {
+            if (EXCLUSION_VIOLATION.equals(e.getSQLState())) {
+                throw new BookingIsNotAvailableException("The series overlaps another booking of the room");
+            }
+            throw new IllegalStateException("Failed to save booking series: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cancels one occurrence of a booking series.
+     *
+     * @param bookingSeries   the series
+     * @param occurrenceStart the start time of the occurrence to cancel
+     * @throws IllegalStateException if the occurrence cannot be cancelled
+     */
+    public void addException(BookingSeries bookingSeries, LocalDateTime occurrenceStart) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(ADD_EXCEPTION_SQL)) {
+
+            preparedStatement.setTimestamp(1, Timestamp.valueOf(occurrenceStart));
+            preparedStatement.setLong(2, bookingSeries.getId());
+            if (preparedStatement.executeUpdate() > 0) {
+                reloadRoomAfterCommit(bookingSeries.getRoom().getName());
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, bookingSeries.getRoom().getName());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to cancel occurrence of booking series: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes a booking series with all its occurrences.
+     *
+     * @param bookingSeries the series to delete
+     * @throws IllegalStateException if the series cannot be deleted
+     */
+    public void delete(BookingSeries bookingSeries) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(DELETE_SQL)) {
+
+            preparedStatement.setLong(1, bookingSeries.getId());
+            if (preparedStatement.executeUpdate() > 0) {
+                reloadRoomAfterCommit(bookingSeries.getRoom().getName());
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.BOOKING, bookingSeries.getRoom().getName());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to delete booking series: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reloads the indexed series of a room once the current write is committed.
+     *
+     * @param roomName the name of the room
+     */
+    private void reloadRoomAfterCommit(String roomName) {
+        UnitOfWork.afterCommit(() -> bookingIntervalIndex.replaceSeries(roomName, findByRoomName(roomName)));
+    }
+
+    /**
+     * Maps the current row of a joined series query to a fully populated booking series.
+     *
+     * @param resultSet the result set positioned on a row selected with {@link #SELECT_SERIES_SQL}
+     * @return the series with its user, room and cancelled occurrences
+     * @throws SQLException if a column cannot be read
+     */
+    private BookingSeries mapSeries(ResultSet resultSet) throws SQLException {
+        User user = new User(
+                resultSet.getString("username"),
+                resultSet.getString("password"),
+                resultSet.getBoolean("is_admin"));
+        user.setId(resultSet.getLong("user_id"));
+
+        Room room = new Room(
+                resultSet.getString("room_name"),
+                RoomType.valueOf(resultSet.getString("room_type")));
+        room.setId(resultSet.getLong("room_id"));
+
+        int count = resultSet.getInt("occurrence_count");
+        Integer occurrenceCount = resultSet.wasNull() ? null : count;
+        Date until = resultSet.getDate("until_date");
+        BookingSeries bookingSeries = new BookingSeries(
+                user,
+                room,
+                resultSet.getTimestamp("start_time").toLocalDateTime(),
+                resultSet.getTimestamp("end_time").toLocalDateTime(),
+                RecurrenceFrequency.valueOf(resultSet.getString("frequency")),
+                resultSet.getInt("recurrence_interval"),
+                occurrenceCount,
+                until == null ? null : until.toLocalDate());
+        bookingSeries.setId(resultSet.getLong("id"));
+
+        Array exceptions = resultSet.getArray("exceptions");
+        if (exceptions != null) {
+            for (Object exception : (Object[]) exceptions.getArray()) {
+                bookingSeries.getExceptions().add(((Timestamp) exception).toLocalDateTime());
+            }
+        }
+        return bookingSeries;
+    }
+}
@@ -1,6 +1,10 @@
 package com.sinaev.repositories;
 
-import com.sinaev.handlers.SQLQueryHandler;
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.models.enums.CacheInvalidationType;
+import com.sinaev.notifications.CacheInvalidationPublisher;
+import com.sinaev.transactions.UnitOfWork;
 import com.sinaev.models.entities.Room;
 import com.sinaev.models.enums.RoomType;
 import lombok.RequiredArgsConstructor;
@@ -18,11 +22,19 @@ import java.util.Optional;
 
 /**
  * Repository for managing rooms.
+ * <p>
+ * Renaming or deleting a room is mirrored into the {@link BookingIntervalIndex} and evicts the
+ * room from the {@link NameIdCache}, which serves lookups by name, once the change is committed. Every change is announced to the
+ * other nodes through the {@link CacheInvalidationPublisher}.
+ * </p>
  */
 @Repository
 @RequiredArgsConstructor
 public class RoomRepository {
     private final DataSource dataSource;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final NameIdCache nameIdCache;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
 
     /**
      * Finds all rooms in the database.
@@ -36,7 +48,6 @@ public class RoomRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(findAllSQL)) {
 
-            changeSearchPath(connection);
             ResultSet resultSet = preparedStatement.executeQuery();
             while (resultSet.next()) {
                 String name = resultSet.getString("room_name");
@@ -51,34 +62,13 @@ public class RoomRepository {
     }
 
     /**
-     * Finds a room by its name.
+     * Finds a room by its name through the shared name cache.
      *
      * @param roomName the name of the room to find
      * @return an Optional containing the found room, or an empty Optional if no room is found
      */
     public Optional<Room> findByName(String roomName) {
-        String selectSQL = "SELECT * FROM rooms WHERE room_name = ?";
-        Room foundRoom = null;
-
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(selectSQL)) {
-
-            changeSearchPath(connection);
-
-            preparedStatement.setString(1, roomName);
-
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    foundRoom = new Room(
-                            resultSet.getString("room_name"),
-                            RoomType.valueOf(resultSet.getString("room_type")));
-                }
-            }
-
-        } catch (SQLException e) {
-            System.out.println("Got SQL Exception " + e.getMessage());
-        }
-        return Optional.ofNullable(foundRoom);
+        return Optional.ofNullable(nameIdCache.room(roomName, this::loadByName));
     }
 
     /**
@@ -93,13 +83,19 @@ public class RoomRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(updateSQL)) {
 
-            changeSearchPath(connection);
-
             preparedStatement.setString(1, newRoom.getName());
             preparedStatement.setString(2, newRoom.getType().name());
             preparedStatement.setString(3, oldRoom.getName());
 
-            preparedStatement.executeUpdate();
+            if (preparedStatement.executeUpdate() > 0) {
+                UnitOfWork.afterCommit(() -> {
+                    bookingIntervalIndex.renameRoom(oldRoom.getName(), newRoom.getName());
+                    nameIdCache.invalidateRoom(oldRoom.getName());
+                    nameIdCache.invalidateRoom(newRoom.getName());
+                });
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.ROOM, oldRoom.getName());
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.ROOM, newRoom.getName());
+            }
         } catch (SQLException e) {
             System.out.println("Got SQL Exception " + e.getMessage());
         }
@@ -116,12 +112,12 @@ public class RoomRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(saveSQL)) {
 
-            changeSearchPath(connection);
-
             System.out.println("room name: " + room.getName() + ", type: " + room.getType().getType() + " saved");
             preparedStatement.setString(1, room.getName());
             preparedStatement.setString(2, room.getType().getType());
-            preparedStatement.executeUpdate();
+            if (preparedStatement.executeUpdate() > 0) {
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.ROOM, room.getName());
+            }
         } catch (SQLException e) {
             System.out.println("Got SQL Exception " + e.getMessage());
         }
@@ -139,10 +135,14 @@ public class RoomRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(deleteSQL)) {
 
-            changeSearchPath(connection);
-
             preparedStatement.setString(1, roomName);
-            preparedStatement.executeUpdate();
+            if (preparedStatement.executeUpdate() > 0) {
+                UnitOfWork.afterCommit(() -> {
+                    bookingIntervalIndex.removeRoom(roomName);
+                    nameIdCache.invalidateRoom(roomName);
+                });
+                cacheInvalidationPublisher.publish(connection, CacheInvalidationType.ROOM, roomName);
+            }
         } catch (SQLException e) {
             System.out.println("Got SQL Exception " + e.getMessage());
         }
@@ -160,8 +160,6 @@ public class RoomRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(selectSQL)) {
 
-            changeSearchPath(connection);
-
             preparedStatement.setString(1, roomName);
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
@@ -174,12 +172,32 @@ public class RoomRepository {
     }
 
     /**
-     * Changes the search path to the specified schema.
+     * Loads a room with its ID from the database.
      *
-     * @param connection the database connection to use
+     * @param roomName the name of the room to load
+     * @return the room, or null if no room is found
      */
-    protected void changeSearchPath(Connection connection) {
-        SQLQueryHandler handler = new SQLQueryHandler();
-        handler.addSearchPathPrivate(connection);
+    private Room loadByName(String roomName) {
+        String selectSQL = "SELECT * FROM rooms WHERE room_name = ?";
+        Room foundRoom = null;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(selectSQL)) {
+
+            preparedStatement.setString(1, roomName);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    foundRoom = new Room(
+                            resultSet.getString("room_name"),
+                            RoomType.valueOf(resultSet.getString("room_type")));
+                    foundRoom.setId(resultSet.getLong("id"));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Got SQL Exception " + e.getMessage());
+        }
+        return foundRoom;
     }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.sinaev.repositories;
 
-import com.sinaev.handlers.SQLQueryHandler;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.UserCache;
+import com.sinaev.models.enums.CacheInvalidationType;
+import com.sinaev.notifications.CacheInvalidationPublisher;
+import com.sinaev.transactions.UnitOfWork;
 import com.sinaev.models.entities.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
@@ -15,40 +19,29 @@ import java.util.Optional;
 
 /**
  * Repository for managing users.
+ * <p>
+ * Lookups by username go through the short-lived {@link UserCache}. Saving a user evicts its
+ * username from the {@link UserCache} and the {@link NameIdCache} and announces the change to the
+ * other nodes through the {@link CacheInvalidationPublisher}.
+ * </p>
  */
 @Repository
 @RequiredArgsConstructor
 public class UserRepository {
 
     private final DataSource dataSource;
+    private final NameIdCache nameIdCache;
+    private final UserCache userCache;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
 
     /**
-     * Finds a user by their username.
+     * Finds a user by their username through the user cache.
      *
      * @param username the username of the user to find
      * @return an Optional containing the found user, or an empty Optional if no user is found
      */
     public Optional<User> findByUsername(String username) {
-        String selectSQL = "SELECT * FROM users WHERE username = ?";
-        User foundUser = null;
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(selectSQL)) {
-            changeSearchPath(connection);
-            preparedStatement.setString(1, username);
-
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    foundUser = new User(
-                            resultSet.getString("username"),
-                            resultSet.getString("password"),
-                            resultSet.getBoolean("is_admin"));
-                }
-            }
-        } catch (SQLException e) {
-            System.out.println("Got SQL Exception " + e.getMessage());
-        }
-
-        return Optional.ofNullable(foundUser);
+        return Optional.ofNullable(userCache.get(username, this::loadByUsername));
     }
 
     /**
@@ -62,13 +55,16 @@ public class UserRepository {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(insertSQL)) {
 
-            changeSearchPath(connection);
-
             preparedStatement.setString(1, saveUser.getUsername());
             preparedStatement.setString(2, saveUser.getPassword());
             preparedStatement.setBoolean(3, saveUser.isAdmin());
 
             preparedStatement.executeUpdate();
+            UnitOfWork.afterCommit(() -> {
+                nameIdCache.invalidateUser(saveUser.getUsername());
+                userCache.invalidate(saveUser.getUsername());
+            });
+            cacheInvalidationPublisher.publish(connection, CacheInvalidationType.USER, saveUser.getUsername());
         } catch (SQLException e) {
             System.out.println("Got SQL Exception " + e.getMessage());
         }
@@ -85,7 +81,6 @@ public class UserRepository {
 
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(SQL_SELECT)) {
-            changeSearchPath(connection);
             preparedStatement.setString(1, username);
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
@@ -99,12 +94,31 @@ public class UserRepository {
     }
 
     /**
-     * Changes the search path to the specified schema.
+     * Loads a user with its ID from the database.
      *
-     * @param connection the database connection to use
+     * @param username the username of the user to load
+     * @return the user, or null if no user is found
      */
-    protected void changeSearchPath(Connection connection) {
-        SQLQueryHandler handler = new SQLQueryHandler();
-        handler.addSearchPathPrivate(connection);
+    private User loadByUsername(String username) {
+        String selectSQL = "SELECT * FROM users WHERE username = ?";
+        User foundUser = null;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(selectSQL)) {
+            preparedStatement.setString(1, username);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    foundUser = new User(
+                            resultSet.getString("username"),
+                            resultSet.getString("password"),
+                            resultSet.getBoolean("is_admin"));
+                    foundUser.setId(resultSet.getLong("id"));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Got SQL Exception " + e.getMessage());
+        }
+
+        return foundUser;
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.sinaev.security;
+
+import com.sinaev.caches.BoundedCache;
+import com.sinaev.configs.properties.TokenProperties;
+import com.sinaev.models.dto.AuthTokenDTO;
+import com.sinaev.models.dto.UserDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identifies the logged-in user of a request.
+ * <p>
+ * By default the user is kept in the HTTP session. When token mode is on, login issues a compact
+ * token {@code base64url(username).admin.expiresAt.base64url(HMAC-SHA256)} instead, and every
+ * request carries it in the {@code Authorization: Bearer} header. The token is verified with the
+ * shared secret alone, so any node can serve any request without sticky sessions or session
+ * replication. Verified tokens are cached until they expire, so a repeated token costs one map
+ * lookup; tokens that fail verification are never cached.
+ * </p>
+ */
+@Component
+public class SessionTokens {
+    static final int MAX_ENTRIES = 10_000;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String BEARER = "Bearer ";
+    private static final String SESSION_ATTRIBUTE = "loggedIn";
+
+    private final TokenProperties tokenProperties;
+    private final BoundedCache<String, VerifiedToken> verified = new BoundedCache<>(MAX_ENTRIES);
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Constructs the token support with the configured secret.
+     *
+     * @param tokenProperties the token properties
+     * @throws IllegalStateException if token mode is on and no secret is configured
+     */
+    public SessionTokens(TokenProperties tokenProperties) {
+        this.tokenProperties = tokenProperties;
+        if (tokenProperties.isEnabled() && (tokenProperties.getSecret() == null || tokenProperties.getSecret().isBlank())) {
+            throw new IllegalStateException("auth.token.secret must be set when token mode is enabled");
+        }
+        SecretKeySpec key = tokenProperties.isEnabled()
+                ? new SecretKeySpec(tokenProperties.getSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM)
+                : null;
+        this.macs = ThreadLocal.withInitial(() -> newMac(key));
+    }
+
+    /**
+     * Returns whether users are identified by tokens instead of the HTTP session.
+     *
+     * @return true in token mode
+     */
+    public boolean isEnabled() {
+        return tokenProperties.isEnabled();
+    }
+
+    /**
+     * Returns the logged-in user of a request.
+     *
+     * @param req the HTTP request
+     * @return the user from the verified bearer token in token mode or from the session otherwise,
+     * or null if the request has no logged-in user
+     */
+    public UserDTO currentUser(HttpServletRequest req) {
+        if (!isEnabled()) {
+            return (UserDTO) req.getSession().getAttribute(SESSION_ATTRIBUTE);
+        }
+        String header = req.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return verify(header.substring(BEARER.length()).trim());
+    }
+
+    /**
+     * Issues a signed token for a user.
+     *
+     * @param user the logged-in user
+     * @return the token and its lifetime
+     */
+    public AuthTokenDTO issue(UserDTO user) {
+        long expiresAt = System.currentTimeMillis() + tokenProperties.getTtlMs();
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(user.username().getBytes(StandardCharsets.UTF_8))
+                + '.' + (user.admin() ? '1' : '0')
+                + '.' + TimeUnit.MILLISECONDS.toSeconds(expiresAt);
+        String token = payload + '.' + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload));
+        return new AuthTokenDTO(token, BEARER.trim(), TimeUnit.MILLISECONDS.toSeconds(tokenProperties.getTtlMs()));
+    }
+
+    /**
+     * Verifies a token.
+     *
+     * @param token the token
+     * @return the user carried by the token, without password, or null if the token is malformed,
+     * forged or expired
+     */
+    public UserDTO verify(String token) {
+        VerifiedToken verifiedToken = verified.get(token, this::parse);
+        if (verifiedToken == null) {
+            return null;
+        }
+        if (verifiedToken.expiresAtMs() <= System.currentTimeMillis()) {
+            verified.invalidate(token);
+            return null;
+        }
+        return verifiedToken.user();
+    }
+
+    /**
+     * Returns the cache of verified tokens, for reading its counters.
+     *
+     * @return the verified token cache
+     */
+    public BoundedCache<String, VerifiedToken> getVerified() {
+        return verified;
+    }
+
+    /**
+     * Checks the signature of a token and decodes its claims.
+     *
+     * @param token the token
+     * @return the decoded token, or null if it is malformed or its signature does not match
+     */
+    private VerifiedToken parse(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        int expiresStart = signatureStart > 0 ? token.lastIndexOf('.', signatureStart - 1) : -1;
+        int adminStart = expiresStart > 0 ? token.lastIndexOf('.', expiresStart - 1) : -1;
+        if (adminStart <= 0 || expiresStart - adminStart != 2) {
+            return null;
+        }
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(token.substring(0, signatureStart)))) {
+                return null;
+            }
+            String username = new String(Base64.getUrlDecoder().decode(token.substring(0, adminStart)), StandardCharsets.UTF_8);
+            boolean admin = token.charAt(adminStart + 1) == '1';
+            long expiresAtMs = TimeUnit.SECONDS.toMillis(Long.parseLong(token, expiresStart + 1, signatureStart, 10));
+            return new VerifiedToken(new UserDTO(username, null, admin), expiresAtMs);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the signature of a token payload.
+     *
+     * @param payload the part of the token before the signature
+     * @return the HMAC-SHA256 of the payload
+     * @throws IllegalStateException if token mode is off
+     */
+    private byte[] sign(String payload) {
+        Mac mac = macs.get();
+        if (mac == null) {
+            throw new IllegalStateException("Token mode is not enabled");
+        }
+        return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Creates a MAC for the calling thread.
+     *
+     * @param key the signing key, or null if token mode is off
+     * @return the initialized MAC, or null without a key
+     */
+    private static Mac newMac(SecretKeySpec key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + ALGORITHM, e);
+        }
+    }
+
+    /**
+     * A token whose signature has been checked.
+     *
+     * @param user        the user carried by the token
+     * @param expiresAtMs the expiry of the token in epoch milliseconds
+     */
+    public record VerifiedToken(UserDTO user, long expiresAtMs) {
+    }
+}
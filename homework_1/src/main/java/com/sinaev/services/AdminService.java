@@ -0,0 +1,70 @@
+package com.sinaev.services;
+
+import com.sinaev.models.dto.AuditStatsDTO;
+import com.sinaev.models.dto.BookingImportReportDTO;
+import com.sinaev.models.dto.BookingIndexReportDTO;
+import com.sinaev.models.dto.LatencyStatsDTO;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service interface for administrative maintenance tasks.
+ * <p>
+ * This interface defines methods for checking and rebuilding in-memory state derived from the database,
+ * and for bulk import and export of bookings.
+ * </p>
+ */
+public interface AdminService {
+    /**
+     * Compares the booking interval index with the database without changing it.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the comparison of the index and the database
+     */
+    BookingIndexReportDTO verifyBookingIndex(HttpServletRequest httpRequest);
+
+    /**
+     * Rebuilds the booking interval index, bookings and series, from the database.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the comparison of the index and the database taken before the rebuild
+     */
+    BookingIndexReportDTO rebuildBookingIndex(HttpServletRequest httpRequest);
+
+    /**
+     * Returns the counters of the asynchronous audit writer.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the audit writer counters
+     */
+    AuditStatsDTO getAuditStats(HttpServletRequest httpRequest);
+
+    /**
+     * Returns the latency statistics of all {@code @Loggable} methods called so far.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the latency statistics of each method
+     */
+    List<LatencyStatsDTO> getLatencyStats(HttpServletRequest httpRequest);
+
+    /**
+     * Imports bookings from CSV.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param csv         the stream providing the CSV
+     * @return the numbers of rows read, imported and skipped
+     */
+    BookingImportReportDTO importBookings(HttpServletRequest httpRequest, InputStream csv);
+
+    /**
+     * Prepares an export of all bookings as CSV.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the writer of the CSV, to be called with the output stream of the response
+     */
+    Consumer<OutputStream> exportBookings(HttpServletRequest httpRequest);
+}
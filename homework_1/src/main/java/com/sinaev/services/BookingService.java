@@ -1,18 +1,27 @@
 package com.sinaev.services;
 
+import com.sinaev.models.dto.AvailableHoursDTO;
+import com.sinaev.models.dto.BookingBatchItemDTO;
 import com.sinaev.models.dto.BookingDTO;
+import com.sinaev.models.dto.BookingPageDTO;
+import com.sinaev.models.dto.BookingSeriesDTO;
+import com.sinaev.models.dto.RoomCandidateDTO;
 import com.sinaev.models.entities.Booking;
+import com.sinaev.models.requests.booking.CancelOccurrenceRequest;
+import com.sinaev.models.requests.booking.FilterBookingsPageRequest;
 import com.sinaev.models.requests.booking.FilterBookingsRequest;
 import com.sinaev.models.requests.booking.GetAvailableHoursRequest;
 import com.sinaev.models.requests.booking.RemoveBookingRequest;
+import com.sinaev.models.requests.booking.RemoveBookingSeriesRequest;
+import com.sinaev.models.requests.booking.SearchRoomsRequest;
 import com.sinaev.models.requests.booking.UpdateBookingRequest;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.stereotype.Service;
 
-import java.time.LocalTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing bookings.
@@ -30,13 +39,55 @@ public interface BookingService {
      */
     void createBooking(HttpServletRequest httpRequest, BookingDTO bookingDTO);
 
+    /**
+     * Creates several bookings at once, in one transaction.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param bookingDTOs the bookings to create
+     * @return the result of each booking, in request order
+     */
+    List<BookingBatchItemDTO> createBookings(HttpServletRequest httpRequest, List<BookingDTO> bookingDTOs);
+
+    /**
+     * Creates a recurring booking.
+     *
+     * @param httpRequest      the HTTP request containing user session information
+     * @param bookingSeriesDTO the rule of the series
+     * @return the ID of the created series
+     */
+    long createBookingSeries(HttpServletRequest httpRequest, BookingSeriesDTO bookingSeriesDTO);
+
+    /**
+     * Cancels one occurrence of a recurring booking.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param request     the request containing the series ID and the start of the occurrence
+     */
+    void cancelOccurrence(HttpServletRequest httpRequest, CancelOccurrenceRequest request);
+
+    /**
+     * Deletes a recurring booking with all its occurrences.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param request     the request containing the series ID
+     */
+    void deleteBookingSeries(HttpServletRequest httpRequest, RemoveBookingSeriesRequest request);
+
     /**
      * Retrieves available hours for booking a room on a specific date.
      *
-     * @param request the request containing the date and room name
-     * @return a list of available hours
+     * @param request the request containing the date, room name and optional slot length
+     * @return the free slots and free intervals of the room on that date
+     */
+    AvailableHoursDTO getAvailableHours(GetAvailableHoursRequest request);
+
+    /**
+     * Searches all rooms for the earliest free time for a meeting inside a window.
+     *
+     * @param request the request containing the window, the meeting length, an optional room type and a limit
+     * @return the candidate rooms, best first
      */
-    List<LocalTime> getAvailableHours(GetAvailableHoursRequest request);
+    List<RoomCandidateDTO> searchRooms(SearchRoomsRequest request);
 
     /**
      * Updates an existing booking.
@@ -62,4 +113,20 @@ public interface BookingService {
      */
     List<BookingDTO> filterBookings(FilterBookingsRequest request);
 
+    /**
+     * Returns one page of bookings matching the specified criteria, using keyset pagination.
+     *
+     * @param request the request containing the filtering criteria, cursor and page size
+     * @return the page of bookings with the cursor of the next page
+     */
+    BookingPageDTO filterBookingsPage(FilterBookingsPageRequest request);
+
+    /**
+     * Streams bookings matching the specified criteria to the consumer as they are read.
+     *
+     * @param request  the request containing the filtering criteria
+     * @param consumer the callback receiving each booking
+     */
+    void streamBookings(FilterBookingsRequest request, Consumer<BookingDTO> consumer);
+
 }
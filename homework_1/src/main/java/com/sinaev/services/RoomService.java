@@ -1,5 +1,6 @@
 package com.sinaev.services;
 
+import com.sinaev.models.dto.RoomCatalogDTO;
 import com.sinaev.models.dto.RoomDTO;
 import com.sinaev.models.requests.room.UpdateRoomRequest;
 
@@ -28,6 +29,20 @@ public interface RoomService {
      */
     List<RoomDTO> getRooms();
 
+    /**
+     * Retrieves the current snapshot of the room catalog.
+     *
+     * @return the rooms and the entity tag of the snapshot
+     */
+    RoomCatalogDTO getRoomCatalog();
+
+    /**
+     * Reloads the room catalog from the database.
+     *
+     * @return true if the catalog changed, false otherwise
+     */
+    boolean refreshRoomCatalog();
+
     /**
      * Updates an existing room.
      *
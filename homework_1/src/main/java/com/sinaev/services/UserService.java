@@ -1,5 +1,6 @@
 package com.sinaev.services;
 
+import com.sinaev.models.dto.AuthTokenDTO;
 import com.sinaev.models.dto.UserDTO;
 
 import javax.servlet.http.HttpServletRequest;
@@ -16,8 +17,9 @@ public interface UserService {
      *
      * @param httpReq the HTTP request containing user session information
      * @param userDTO the user data transfer object containing user credentials
+     * @return the session token in token mode, or null if the user is kept in the session
      */
-    void login(HttpServletRequest httpReq, UserDTO userDTO);
+    AuthTokenDTO login(HttpServletRequest httpReq, UserDTO userDTO);
 
     /**
      * Registers a new user.
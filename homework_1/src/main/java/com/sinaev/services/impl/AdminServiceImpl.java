@@ -0,0 +1,158 @@
+package com.sinaev.services.impl;
+
+import com.sinaev.annotations.Loggable;
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.handlers.AuditLogWriter;
+import com.sinaev.metrics.MethodMetrics;
+import com.sinaev.models.dto.AuditStatsDTO;
+import com.sinaev.models.dto.BookingImportReportDTO;
+import com.sinaev.models.dto.BookingIndexReportDTO;
+import com.sinaev.models.dto.LatencyStatsDTO;
+import com.sinaev.models.dto.UserDTO;
+import com.sinaev.models.entities.Booking;
+import com.sinaev.repositories.BookingRepository;
+import com.sinaev.repositories.BookingSeriesRepository;
+import com.sinaev.security.SessionTokens;
+import com.sinaev.services.AdminService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link AdminService} interface.
+ * <p>
+ * All operations require a logged-in admin user.
+ * </p>
+ */
+@Service
+@Loggable
+@RequiredArgsConstructor
+public class AdminServiceImpl implements AdminService {
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final AuditLogWriter auditLogWriter;
+    private final MethodMetrics methodMetrics;
+    private final SessionTokens sessionTokens;
+
+    /**
+     * Compares the booking interval index with the database without changing it.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the comparison of the index and the database
+     */
+    @Override
+    public BookingIndexReportDTO verifyBookingIndex(HttpServletRequest httpRequest) {
+        checkAdmin(httpRequest);
+        return report(bookingRepository.findAll());
+    }
+
+    /**
+     * Rebuilds the booking interval index, bookings and series, from the database.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the comparison of the index and the database taken before the rebuild
+     */
+    @Override
+    public BookingIndexReportDTO rebuildBookingIndex(HttpServletRequest httpRequest) {
+        checkAdmin(httpRequest);
+        AtomicReference<BookingIndexReportDTO> report = new AtomicReference<>();
+        bookingIntervalIndex.rebuild(() -> {
+            List<Booking> bookings = bookingRepository.findAll();
+            report.set(report(bookings));
+            return bookings;
+        }, bookingSeriesRepository::findAll);
+        return report.get();
+    }
+
+    /**
+     * Returns the counters of the asynchronous audit writer.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the audit writer counters
+     */
+    @Override
+    public AuditStatsDTO getAuditStats(HttpServletRequest httpRequest) {
+        checkAdmin(httpRequest);
+        return new AuditStatsDTO(
+                auditLogWriter.getQueued(),
+                auditLogWriter.getWritten(),
+                auditLogWriter.getDropped(),
+                auditLogWriter.getSpilled(),
+                auditLogWriter.getPending());
+    }
+
+    /**
+     * Returns the latency statistics of all {@code @Loggable} methods called so far.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the latency statistics of each method
+     */
+    @Override
+    public List<LatencyStatsDTO> getLatencyStats(HttpServletRequest httpRequest) {
+        checkAdmin(httpRequest);
+        return methodMetrics.stats();
+    }
+
+    /**
+     * Imports bookings from CSV with {@code COPY}, in constant memory.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param csv         the stream providing the CSV
+     * @return the numbers of rows read, imported and skipped
+     */
+    @Override
+    public BookingImportReportDTO importBookings(HttpServletRequest httpRequest, InputStream csv) {
+        checkAdmin(httpRequest);
+        return bookingRepository.importCsv(csv);
+    }
+
+    /**
+     * Prepares an export of all bookings as CSV with {@code COPY}, in constant memory.
+     * <p>
+     * Admin access is checked right away, before anything is written to the response.
+     * </p>
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @return the writer of the CSV, to be called with the output stream of the response
+     */
+    @Override
+    public Consumer<OutputStream> exportBookings(HttpServletRequest httpRequest) {
+        checkAdmin(httpRequest);
+        return bookingRepository::exportCsv;
+    }
+
+    /**
+     * Compares the booking interval index with the given bookings.
+     *
+     * @param bookings all bookings stored in the database
+     * @return the comparison of the index and the bookings
+     */
+    private BookingIndexReportDTO report(List<Booking> bookings) {
+        return new BookingIndexReportDTO(bookingIntervalIndex.size(), bookings.size(), bookingIntervalIndex.diff(bookings));
+    }
+
+    /**
+     * Checks that the logged-in user is an admin.
+     *
+     * @param httpRequest the HTTP request
+     * @throws NoSuchElementException if the request has no logged-in user
+     * @throws SecurityException      if the user is not an admin
+     */
+    private void checkAdmin(HttpServletRequest httpRequest) {
+        UserDTO userDTO = sessionTokens.currentUser(httpRequest);
+        if (userDTO == null) {
+            throw new NoSuchElementException("Log in first");
+        }
+        if (!userDTO.admin()) {
+            throw new SecurityException("You do not have admin user access");
+        }
+    }
+}
@@ -1,22 +1,44 @@
 package com.sinaev.services.impl;
 
 import com.sinaev.annotations.Loggable;
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.DayOccupancy;
+import com.sinaev.caches.OccupancyCalendar;
+import com.sinaev.caches.RoomCatalog;
+import com.sinaev.configs.properties.BookingProperties;
 import com.sinaev.exceptions.BookingIsNotAvailableException;
+import com.sinaev.locks.RoomLocks;
 import com.sinaev.mappers.BookingMapper;
 import com.sinaev.mappers.UserMapper;
+import com.sinaev.models.dto.AvailableHoursDTO;
+import com.sinaev.models.dto.BookingBatchItemDTO;
+import com.sinaev.models.dto.BookingConflictDTO;
 import com.sinaev.models.dto.BookingDTO;
+import com.sinaev.models.dto.BookingPageDTO;
+import com.sinaev.models.dto.BookingSeriesDTO;
+import com.sinaev.models.dto.FreeIntervalDTO;
+import com.sinaev.models.dto.RoomCandidateDTO;
+import com.sinaev.models.dto.RoomDTO;
 import com.sinaev.models.dto.UserDTO;
 import com.sinaev.models.entities.Booking;
+import com.sinaev.models.entities.BookingSeries;
 import com.sinaev.models.entities.Room;
 import com.sinaev.models.entities.User;
+import com.sinaev.models.requests.booking.CancelOccurrenceRequest;
+import com.sinaev.models.requests.booking.FilterBookingsPageRequest;
 import com.sinaev.models.requests.booking.FilterBookingsRequest;
 import com.sinaev.models.requests.booking.GetAvailableHoursRequest;
 import com.sinaev.models.requests.booking.RemoveBookingRequest;
+import com.sinaev.models.requests.booking.RemoveBookingSeriesRequest;
+import com.sinaev.models.requests.booking.SearchRoomsRequest;
 import com.sinaev.models.requests.booking.UpdateBookingRequest;
 import com.sinaev.repositories.BookingRepository;
+import com.sinaev.repositories.BookingSeriesRepository;
 import com.sinaev.repositories.RoomRepository;
 import com.sinaev.repositories.UserRepository;
+import com.sinaev.security.SessionTokens;
 import com.sinaev.services.BookingService;
+import com.sinaev.transactions.UnitOfWork;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -24,14 +46,19 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the {@link BookingService} interface.
@@ -44,100 +71,354 @@ import java.util.Optional;
 @Loggable
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final RoomRepository roomRepository;
     private final BookingMapper bookingMapper;
     private final UserMapper userMapper;
+    private final BookingProperties bookingProperties;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final SessionTokens sessionTokens;
+    private final RoomLocks roomLocks;
+    private final UnitOfWork unitOfWork;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final RoomCatalog roomCatalog;
+    private final OccupancyCalendar occupancyCalendar;
 
     /**
      * Creates a new booking.
+     * <p>
+     * The in-memory index rejects obvious conflicts without touching the database; the insert itself
+     * is a single statement, and the database exclusion constraint rejects any overlap that slipped
+     * past the index, for example from another node. The check and the insert run under the lock of
+     * the room and in one unit of work, so concurrent requests for the same room are serialized while
+     * other rooms proceed, and the index only learns about the booking once it is committed.
+     * </p>
+     * <p>
+     * A rejected booking carries alternatives, so the client does not have to probe neighbouring
+     * times: the next free times of the same length in the same room and the free rooms of the same
+     * type. They are computed from the index after the lock of the room is released.
+     * </p>
      *
      * @param httpRequest the HTTP request containing user session information
      * @param bookingDTO  the booking data transfer object containing booking details
+     * @throws BookingIsNotAvailableException if the room is already booked in that time
+     * @throws NoSuchElementException         if the user is not logged in or the room does not exist
+     * @throws IllegalArgumentException       if a time is missing or the end is not after the start
      */
     @Override
     public void createBooking(HttpServletRequest httpRequest, BookingDTO bookingDTO) {
         LocalDateTime start = bookingDTO.startTime();
         LocalDateTime end = bookingDTO.endTime();
+        checkTimes(start, end);
 
-        if (!isRoomAvailable(bookingDTO.roomName(), start, end)) {
-            throw new BookingIsNotAvailableException("Booking this room and time is not available");
+        try {
+            roomLocks.withRooms(List.of(bookingDTO.roomName()), () -> unitOfWork.inTransaction(() -> {
+                if (!isRoomAvailable(bookingDTO.roomName(), start, end)) {
+                    throw new BookingIsNotAvailableException("Booking this room and time is not available");
+                }
+                UserDTO userDTO = getCurrentUserDTO(httpRequest);
+                Booking booking = bookingMapper.toEntity(bookingDTO);
+                User user = userMapper.toEntity(userDTO);
+                booking.setUser(user);
+                bookingRepository.save(booking);
+            }));
+        } catch (BookingIsNotAvailableException e) {
+            throw new BookingIsNotAvailableException(e.getMessage(), conflict(bookingDTO, e.getMessage()));
         }
-            UserDTO userDTO = getUserDTOFromSession(httpRequest);
-            Booking booking = bookingMapper.toEntity(bookingDTO);
-            User user = userMapper.toEntity(userDTO);
-            booking.setUser(user);
-            booking.setRoom(findRoomByName(bookingDTO.roomName()));
-            bookingRepository.save(booking);
+    }
+
+    /**
+     * Creates several bookings at once.
+     * <p>
+     * All entries are validated in one pass under the locks of their rooms: against the in-memory
+     * {@link BookingIntervalIndex} and against the entries of the same batch accepted before them.
+     * The accepted entries are then inserted with one JDBC batch in one unit of work, so they are
+     * committed together. Rejected entries do not stop the others; each one is reported with its reason.
+     * </p>
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param bookingDTOs the bookings to create
+     * @return the result of each booking, in request order
+     * @throws IllegalArgumentException       if the batch is larger than the configured maximum
+     * @throws NoSuchElementException         if the user is not logged in
+     * @throws BookingIsNotAvailableException if an accepted booking was taken on another node meanwhile,
+     *                                        in which case none of the batch is created
+     */
+    @Override
+    public List<BookingBatchItemDTO> createBookings(HttpServletRequest httpRequest, List<BookingDTO> bookingDTOs) {
+        if (bookingDTOs.size() > bookingProperties.getMaxBatchSize()) {
+            throw new IllegalArgumentException("A batch may contain at most " + bookingProperties.getMaxBatchSize() + " bookings");
+        }
+        User user = userMapper.toEntity(getCurrentUserDTO(httpRequest));
+        List<String> roomNames = bookingDTOs.stream()
+                .map(BookingDTO::roomName)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        return roomLocks.withRooms(roomNames, () -> unitOfWork.inTransaction(() -> {
+            BookingBatchItemDTO[] results = new BookingBatchItemDTO[bookingDTOs.size()];
+            BookingIntervalIndex accepted = new BookingIntervalIndex();
+            List<Booking> bookings = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < bookingDTOs.size(); i++) {
+                BookingDTO bookingDTO = bookingDTOs.get(i);
+                String error = batchError(bookingDTO, accepted);
+                if (error != null) {
+                    results[i] = new BookingBatchItemDTO(i, false, error);
+                    continue;
+                }
+                accepted.add(bookingDTO.roomName(), bookingDTO.startTime(), bookingDTO.endTime());
+                Booking booking = bookingMapper.toEntity(bookingDTO);
+                booking.setUser(user);
+                bookings.add(booking);
+                positions.add(i);
+            }
+
+            int[] inserted = bookingRepository.saveAll(bookings);
+            for (int i = 0; i < positions.size(); i++) {
+                int position = positions.get(i);
+                results[position] = inserted[i] != 0
+                        ? new BookingBatchItemDTO(position, true, null)
+                        : new BookingBatchItemDTO(position, false, "User or room not found");
+            }
+            return List.of(results);
+        }));
+    }
+
+    /**
+     * Creates a recurring booking.
+     * <p>
+     * The rule is stored once. Every occurrence is checked against the single bookings and the other
+     * series of the room under the lock of the room, and the series is saved in the same unit of work.
+     * The database checks the occurrences again on insert, so a booking another node has not announced
+     * yet cannot be overlapped either.
+     * </p>
+     *
+     * @param httpRequest      the HTTP request containing user session information
+     * @param bookingSeriesDTO the rule of the series
+     * @return the ID of the created series
+     * @throws IllegalArgumentException       if the rule is incomplete, unbounded, self-overlapping or too long
+     * @throws NoSuchElementException         if the user is not logged in or the room does not exist
+     * @throws BookingIsNotAvailableException if an occurrence overlaps another booking of the room
+     */
+    @Override
+    public long createBookingSeries(HttpServletRequest httpRequest, BookingSeriesDTO bookingSeriesDTO) {
+        BookingSeries bookingSeries = toSeries(bookingSeriesDTO);
+        String roomName = bookingSeries.getRoom().getName();
+        Room room = roomRepository.findByName(roomName)
+                .orElseThrow(() -> new NoSuchElementException("Room not found"));
+        bookingSeries.setRoom(room);
+        bookingSeries.setUser(userMapper.toEntity(getCurrentUserDTO(httpRequest)));
+        List<LocalDateTime> occurrences = allOccurrences(bookingSeries);
+
+        roomLocks.withRooms(List.of(roomName), () -> unitOfWork.inTransaction(() -> {
+            Duration duration = bookingSeries.getDuration();
+            for (LocalDateTime occurrence : occurrences) {
+                if (!isRoomAvailable(roomName, occurrence, occurrence.plus(duration))) {
+                    throw new BookingIsNotAvailableException("The occurrence at " + occurrence + " is not available");
+                }
+            }
+            bookingSeriesRepository.save(bookingSeries);
+        }));
+        return bookingSeries.getId();
+    }
+
+    /**
+     * Cancels one occurrence of a recurring booking, keeping the others.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param request     the request containing the series ID and the start of the occurrence
+     * @throws NoSuchElementException if the series or the occurrence does not exist
+     * @throws SecurityException      if the user is neither the creator of the series nor an admin
+     */
+    @Override
+    public void cancelOccurrence(HttpServletRequest httpRequest, CancelOccurrenceRequest request) {
+        LocalDateTime occurrenceStart = request.occurrenceStart();
+        unitOfWork.inTransaction(() -> {
+            BookingSeries bookingSeries = ownedSeries(httpRequest, request.seriesId());
+            if (occurrenceStart == null
+                    || !bookingSeries.occurrences(occurrenceStart, occurrenceStart.plusNanos(1)).contains(occurrenceStart)) {
+                throw new NoSuchElementException("No occurrence of the series starts at the specified time.");
+            }
+            bookingSeriesRepository.addException(bookingSeries, occurrenceStart);
+        });
+    }
+
+    /**
+     * Deletes a recurring booking with all its occurrences.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param request     the request containing the series ID
+     * @throws NoSuchElementException if the series does not exist
+     * @throws SecurityException      if the user is neither the creator of the series nor an admin
+     */
+    @Override
+    public void deleteBookingSeries(HttpServletRequest httpRequest, RemoveBookingSeriesRequest request) {
+        unitOfWork.inTransaction(() -> bookingSeriesRepository.delete(ownedSeries(httpRequest, request.seriesId())));
     }
 
     /**
      * Retrieves available hours for booking a room on a specific date.
+     * <p>
+     * The day is first looked up in the {@link OccupancyCalendar}. When every booking of the day is
+     * aligned to the calendar slots, the free intervals are the runs of clear bits and a slot is free
+     * when the bits it touches are clear. Otherwise the bookings overlapping the date are read with one
+     * range query, merged with the occurrences of the room's series on that date, and swept once in
+     * start time order to collect the free intervals. The slots are the aligned intervals of the
+     * requested length that lie entirely inside a free interval.
+     * </p>
      *
-     * @param request the request containing the date and room name
-     * @return a list of available hours
+     * @param request the request containing the date, room name and optional slot length
+     * @return the free slots and free intervals of the room on that date
+     * @throws NoSuchElementException   if the room does not exist
+     * @throws IllegalArgumentException if the slot length does not evenly divide a day
      */
     @Override
-    public List<LocalTime> getAvailableHours(GetAvailableHoursRequest request) {
-        List<LocalTime> availableHours = new ArrayList<>();
+    public AvailableHoursDTO getAvailableHours(GetAvailableHoursRequest request) {
+        int slotMinutes = slotMinutes(request.slotMinutes());
         String roomName = request.roomName();
-        if (findRoomByName(roomName) == null) {
+        if (roomRepository.findByName(roomName).isEmpty()) {
             throw new NoSuchElementException("Room not found");
         }
-        LocalDate date = request.date();
-        for (int hour = 0; hour < 24; hour++) {
-            LocalDateTime startTime = date.atTime(hour, 0);
-            LocalDateTime endTime = startTime.plusHours(1);
+        LocalDateTime dayStart = request.date().atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+
+        DayOccupancy day = occupancyCalendar.day(roomName, request.date());
+        if (day.exact()) {
+            List<LocalTime> slots = new ArrayList<>();
+            for (int minute = 0; minute < MINUTES_PER_DAY; minute += slotMinutes) {
+                int from = minute / DayOccupancy.SLOT_MINUTES;
+                int to = (minute + slotMinutes + DayOccupancy.SLOT_MINUTES - 1) / DayOccupancy.SLOT_MINUTES;
+                if (day.isClear(from, to)) {
+                    slots.add(LocalTime.MIN.plusMinutes(minute));
+                }
+            }
+            return new AvailableHoursDTO(slotMinutes, slots, day.freeIntervals());
+        }
 
-            boolean isAvailable = bookingRepository.findByRoomName(roomName).stream()
-                    .noneMatch(booking -> booking.getStartTime().isBefore(endTime) && booking.getEndTime().isAfter(startTime));
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findByRoomAndRange(roomName, dayStart, dayEnd));
+        bookings.addAll(occurrences(roomName, bookingIntervalIndex.seriesOf(roomName), dayStart, dayEnd));
+        bookings.sort(Comparator.comparing(Booking::getStartTime));
+
+        List<FreeIntervalDTO> freeIntervals = new ArrayList<>();
+        LocalDateTime cursor = dayStart;
+        for (Booking booking : bookings) {
+            if (booking.getStartTime().isAfter(cursor)) {
+                freeIntervals.add(new FreeIntervalDTO(cursor, booking.getStartTime()));
+            }
+            if (booking.getEndTime().isAfter(cursor)) {
+                cursor = booking.getEndTime();
+            }
+        }
+        if (cursor.isBefore(dayEnd)) {
+            freeIntervals.add(new FreeIntervalDTO(cursor, dayEnd));
+        }
 
-            if (isAvailable) {
-                availableHours.add(startTime.toLocalTime());
+        List<LocalTime> slots = new ArrayList<>();
+        for (FreeIntervalDTO interval : freeIntervals) {
+            long offset = Duration.between(dayStart, interval.start()).toMinutes();
+            LocalDateTime slot = dayStart.plusMinutes((offset + slotMinutes - 1) / slotMinutes * slotMinutes);
+            while (!slot.plusMinutes(slotMinutes).isAfter(interval.end())) {
+                slots.add(slot.toLocalTime());
+                slot = slot.plusMinutes(slotMinutes);
             }
         }
-        return availableHours;
+        return new AvailableHoursDTO(slotMinutes, slots, freeIntervals);
+    }
+
+    /**
+     * Searches all rooms for the earliest free time for a meeting inside a window.
+     * <p>
+     * The search is answered from memory: the rooms come from the {@link RoomCatalog} and each room
+     * costs one lookup in the {@link BookingIntervalIndex} plus a walk over its bookings inside the
+     * window, so no query is sent to the database. Candidates are ranked by the earliest start, then
+     * by the shortest free interval around the meeting, which keeps longer free intervals for longer
+     * meetings, then by room name.
+     * </p>
+     *
+     * @param request the request containing the window, the meeting length, an optional room type and a limit
+     * @return the candidate rooms, best first
+     * @throws IllegalArgumentException if the window or the meeting length is missing or invalid, or the limit is not positive
+     */
+    @Override
+    public List<RoomCandidateDTO> searchRooms(SearchRoomsRequest request) {
+        LocalDateTime from = request.from();
+        LocalDateTime to = request.to();
+        if (from == null || to == null || request.durationMinutes() == null) {
+            throw new IllegalArgumentException("Window start, window end and duration are required");
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Window end must be after window start");
+        }
+        if (request.durationMinutes() < 1) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        Duration duration = Duration.ofMinutes(request.durationMinutes());
+        String roomType = request.roomType() == null ? null : request.roomType().name();
+        int limit = searchLimit(request.limit());
+
+        return candidates(roomType, null, from, to, duration, limit);
     }
 
     /**
      * Updates an existing booking.
+     * <p>
+     * The lookup of the booking, the permission check, the availability check and the update run under
+     * the locks of both the original and the new room, in one unit of work, so they share a connection
+     * and a snapshot and commit together, and the booking cannot be moved or deleted in between.
+     * </p>
      *
      * @param httpRequest the HTTP request containing user session information
      * @param request     the request containing the original and new booking details
+     * @throws NoSuchElementException   if the booking, the user or the new room does not exist
+     * @throws IllegalArgumentException if a room name, the original start or a new time is missing, or the new
+     *                                  end is not after the new start
      */
     @Override
     public void updateBooking(HttpServletRequest httpRequest, UpdateBookingRequest request) {
         LocalDateTime originalStart = request.originalStartTime();
         String roomName = request.originalRoomName();
+        String newRoomName = request.newRoomName();
+        if (roomName == null || originalStart == null || newRoomName == null) {
+            throw new IllegalArgumentException("Original room, original start time and new room are required");
+        }
+        checkTimes(request.newStartTime(), request.newEndTime());
 
-        Optional<Booking> optionalBooking = bookingRepository.findByRoomAndTime(roomName, originalStart);
+        LocalDateTime newStart = request.newStartTime();
+        LocalDateTime newEnd = request.newEndTime();
+        roomLocks.withRooms(List.of(roomName, newRoomName), () -> unitOfWork.inTransaction(() -> {
+            Optional<Booking> optionalBooking = bookingRepository.findByRoomAndTime(roomName, originalStart);
 
-        if (optionalBooking.isEmpty()) {
-            throw new NoSuchElementException("Booking not found.");
-        }
+            if (optionalBooking.isEmpty()) {
+                throw new NoSuchElementException("Booking not found.");
+            }
 
-        Booking booking = optionalBooking.get();
-        UserDTO userDTO = getUserDTOFromSession(httpRequest);
-        User user = userMapper.toEntity(userDTO);
+            Booking booking = optionalBooking.get();
+            UserDTO userDTO = getCurrentUserDTO(httpRequest);
+            User user = userMapper.toEntity(userDTO);
 
-        if (!booking.getUser().equals(user) && !user.isAdmin()) {
-            throw new SecurityException("Denied. Must be the creator of the booking or have admin access");
-        }
+            if (!booking.getUser().getUsername().equals(user.getUsername()) && !user.isAdmin()) {
+                throw new SecurityException("Denied. Must be the creator of the booking or have admin access");
+            }
 
-        String newRoomName = request.newRoomName();
-        LocalDateTime newStart = request.newStartTime();
-        LocalDateTime newEnd = request.newEndTime();
-        if (!isRoomAvailable(newRoomName, newStart, newEnd)) {
-            throw new BookingIsNotAvailableException("The new time or room is not available. Try another time or resource.");
-        }
-        Room newRoom = findRoomByName(newRoomName);
-        Booking newBooking = new Booking(user, newRoom, newStart, newEnd);
-        bookingRepository.update(booking, newBooking);
+            if (!isRoomAvailable(newRoomName, newStart, newEnd)) {
+                throw new BookingIsNotAvailableException("The new time or room is not available. Try another time or resource.");
+            }
+            Room newRoom = findRoomByName(newRoomName);
+            Booking newBooking = new Booking(user, newRoom, newStart, newEnd);
+            bookingRepository.update(booking, newBooking);
+        }));
     }
 
     /**
      * Deletes an existing booking.
+     * <p>
+     * The lookup and the delete run in one unit of work.
+     * </p>
      *
      * @param httpRequest the HTTP request containing user session information
      * @param request     the request containing the booking details to be deleted
@@ -146,79 +427,125 @@ public class BookingServiceImpl implements BookingService {
     public void deleteBooking(HttpServletRequest httpRequest, RemoveBookingRequest request) {
         LocalDateTime startTime = request.startTime();
         String roomName = request.roomName();
-        Optional<Booking> optionalBooking = bookingRepository.findByRoomAndTime(roomName, startTime);
+        unitOfWork.inTransaction(() -> {
+            Optional<Booking> optionalBooking = bookingRepository.findByRoomAndTime(roomName, startTime);
 
-        if (optionalBooking.isEmpty()) {
-            throw new BookingIsNotAvailableException("No booking found at the specified time for the specified room.");
-        }
+            if (optionalBooking.isEmpty()) {
+                throw new BookingIsNotAvailableException("No booking found at the specified time for the specified room.");
+            }
 
-        Booking booking = optionalBooking.get();
-        UserDTO userDTO = getUserDTOFromSession(httpRequest);
-        User user = userMapper.toEntity(userDTO);
-        if (!user.isAdmin() && !booking.getUser().equals(user)) {
-            throw new SecurityException("Denied. Must be the creator of the booking or have admin access");
-        }
+            Booking booking = optionalBooking.get();
+            UserDTO userDTO = getCurrentUserDTO(httpRequest);
+            User user = userMapper.toEntity(userDTO);
+            if (!user.isAdmin() && !booking.getUser().getUsername().equals(user.getUsername())) {
+                throw new SecurityException("Denied. Must be the creator of the booking or have admin access");
+            }
 
-        bookingRepository.delete(booking);
+            bookingRepository.delete(booking);
+        });
     }
 
     /**
      * Filters bookings based on the specified criteria.
+     * <p>
+     * The criteria are applied by the database. A username or room name that does not exist
+     * is ignored rather than matching nothing. The single bookings are followed by the occurrences
+     * of the matching series, expanded on the requested date only, or over the whole series if no
+     * date is given.
+     * </p>
      *
      * @param request the request containing the filtering criteria
      * @return a list of filtered bookings
      */
     @Override
     public List<BookingDTO> filterBookings(FilterBookingsRequest request) {
-        Optional<User> user;
-        if (request.username() != null) {
-            String username = request.username();
-            user = userRepository.findByUsername(username);
-        } else {
-            user = Optional.empty();
-        }
-        Optional<Room> room;
-        if (request.roomName() != null) {
-            String roomName = request.roomName();
-            room = roomRepository.findByName(roomName);
-        } else {
-            room = Optional.empty();
-        }
-        LocalDate date;
-        if (request.date() != null) {
-            date = request.date();
-        } else {
-            date = null;
-        }
+        String username = existingUsername(request.username());
+        String roomName = existingRoomName(request.roomName());
+        LocalDate date = request.date();
 
-        List<Booking> filterResult = bookingRepository.findAll();
-        if (user.isPresent()) {
-            filterResult = filterResult.stream()
-                    .filter(booking -> booking
-                            .getUser()
-                            .equals(user.get()))
-                    .toList();
+        List<BookingDTO> bookings = new ArrayList<>();
+        for (Booking booking : bookingRepository.findByFilter(username, roomName, date)) {
+            bookings.add(bookingMapper.toDTO(booking));
         }
-        if (room.isPresent()) {
-            filterResult = filterResult.stream()
-                    .filter(booking -> booking
-                            .getRoom()
-                            .equals(room.get()))
+        for (Map.Entry<String, List<BookingSeries>> roomSeries : bookingIntervalIndex.allSeries().entrySet()) {
+            if (roomName != null && !roomName.equals(roomSeries.getKey())) {
+                continue;
+            }
+            List<BookingSeries> matching = roomSeries.getValue().stream()
+                    .filter(bookingSeries -> username == null || username.equals(bookingSeries.getUser().getUsername()))
                     .toList();
+            LocalDateTime from = date == null ? LocalDateTime.MIN : date.atStartOfDay();
+            LocalDateTime to = date == null ? LocalDateTime.MAX : date.plusDays(1).atStartOfDay();
+            for (Booking occurrence : occurrences(roomSeries.getKey(), matching, from, to)) {
+                if (!occurrence.getStartTime().isBefore(from)) {
+                    bookings.add(new BookingDTO(occurrence.getUser().getUsername(), occurrence.getRoom().getName(),
+                            occurrence.getStartTime(), occurrence.getEndTime()));
+                }
+            }
         }
-        if (date != null) {
-            filterResult = filterResult.stream()
-                    .filter(booking -> booking
-                            .getStartTime().toLocalDate()
-                            .equals(date))
-                    .toList();
+        return bookings;
+    }
+
+    /**
+     * Returns one page of bookings matching the specified criteria, using keyset pagination.
+     * <p>
+     * The criteria follow {@link #filterBookings(FilterBookingsRequest)}. The page size defaults to the
+     * configured default and is capped at the configured maximum.
+     * </p>
+     *
+     * @param request the request containing the filtering criteria, cursor and page size
+     * @return the page of bookings with the cursor of the next page
+     * @throws IllegalArgumentException if only one cursor field is given or the page size is not positive
+     */
+    @Override
+    public BookingPageDTO filterBookingsPage(FilterBookingsPageRequest request) {
+        if ((request.afterStartTime() == null) != (request.afterId() == null)) {
+            throw new IllegalArgumentException("afterStartTime and afterId must be given together");
         }
+        int limit = pageSize(request.limit());
+
+        List<Booking> bookings = bookingRepository.findPageByFilter(
+                existingUsername(request.username()),
+                existingRoomName(request.roomName()),
+                request.date(),
+                request.afterStartTime(),
+                request.afterId(),
+                limit + 1);
 
-        return filterResult.stream().map(bookingMapper::toDTO).toList();
+        if (bookings.size() <= limit) {
+            return new BookingPageDTO(bookings.stream().map(bookingMapper::toDTO).toList(), null, null);
+        }
+        List<Booking> page = bookings.subList(0, limit);
+        Booking last = page.get(limit - 1);
+        return new BookingPageDTO(page.stream().map(bookingMapper::toDTO).toList(), last.getStartTime(), last.getId());
+    }
+
+    /**
+     * Streams bookings matching the specified criteria to the consumer as they are read.
+     * <p>
+     * The criteria follow {@link #filterBookings(FilterBookingsRequest)}.
+     * </p>
+     *
+     * @param request  the request containing the filtering criteria
+     * @param consumer the callback receiving each booking
+     */
+    @Override
+    public void streamBookings(FilterBookingsRequest request, Consumer<BookingDTO> consumer) {
+        bookingRepository.streamByFilter(
+                existingUsername(request.username()),
+                existingRoomName(request.roomName()),
+                request.date(),
+                bookingProperties.getStreamFetchSize(),
+                booking -> consumer.accept(bookingMapper.toDTO(booking)));
     }
 
     /**
      * Checks if a room is available in the specified time interval.
+     * <p>
+     * The check is answered by the in-memory {@link OccupancyCalendar}, with a bitwise test per day,
+     * or by the {@link BookingIntervalIndex} when a booking of the day is not aligned to the calendar
+     * slots. Intervals are half-open, so a booking may start exactly when another one ends.
+     * </p>
      *
      * @param roomName  the room's name to check
      * @param startTime the start time of the interval
@@ -226,8 +553,304 @@ public class BookingServiceImpl implements BookingService {
      * @return true if the room is available in the specified time interval, false otherwise
      */
     boolean isRoomAvailable(String roomName, LocalDateTime startTime, LocalDateTime endTime) {
-        return bookingRepository.findByRoomName(roomName).stream()
-                .allMatch(booking -> booking.getEndTime().isBefore(startTime) || booking.getStartTime().isAfter(endTime));
+        return occupancyCalendar.isFree(roomName, startTime, endTime);
+    }
+
+    /**
+     * Checks that a booking has both times and ends after it starts.
+     *
+     * @param start the start of the booking
+     * @param end   the end of the booking
+     * @throws IllegalArgumentException if a time is missing or the end is not after the start
+     */
+    private void checkTimes(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Start time and end time are required");
+        }
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+    }
+
+    /**
+     * Validates one entry of a batch.
+     *
+     * @param bookingDTO the entry
+     * @param accepted   the entries of the batch accepted so far
+     * @return the reason the entry is rejected, or null if it can be booked
+     */
+    private String batchError(BookingDTO bookingDTO, BookingIntervalIndex accepted) {
+        String roomName = bookingDTO.roomName();
+        LocalDateTime start = bookingDTO.startTime();
+        LocalDateTime end = bookingDTO.endTime();
+        if (roomName == null || start == null || end == null) {
+            return "Room, start time and end time are required";
+        }
+        if (!end.isAfter(start)) {
+            return "End time must be after start time";
+        }
+        if (roomRepository.findByName(roomName).isEmpty()) {
+            return "Room not found";
+        }
+        if (!isRoomAvailable(roomName, start, end)) {
+            return "Booking this room and time is not available";
+        }
+        if (!accepted.isFree(roomName, start, end)) {
+            return "Overlaps another booking of the batch";
+        }
+        return null;
+    }
+
+    /**
+     * Expands the occurrences of booking series overlapping a half-open interval.
+     *
+     * @param roomName   the current name of the room of the series
+     * @param roomSeries the series to expand
+     * @param from       the inclusive start of the interval
+     * @param to         the exclusive end of the interval
+     * @return the overlapping occurrences as bookings
+     */
+    private List<Booking> occurrences(String roomName, List<BookingSeries> roomSeries, LocalDateTime from, LocalDateTime to) {
+        List<Booking> occurrences = new ArrayList<>();
+        for (BookingSeries bookingSeries : roomSeries) {
+            Room room = new Room(roomName, bookingSeries.getRoom().getType());
+            Duration duration = bookingSeries.getDuration();
+            for (LocalDateTime start : bookingSeries.occurrences(from, to)) {
+                occurrences.add(new Booking(bookingSeries.getUser(), room, start, start.plus(duration)));
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Lists every occurrence of a new series, checking that the series is bounded and does not overlap itself.
+     *
+     * @param bookingSeries the series
+     * @return the start times of the occurrences that are not cancelled
+     * @throws IllegalArgumentException if the series overlaps itself or has more occurrences than allowed
+     */
+    private List<LocalDateTime> allOccurrences(BookingSeries bookingSeries) {
+        LocalDateTime second = bookingSeries.occurrence(1);
+        if (second != null && second.isBefore(bookingSeries.getEndTime())) {
+            throw new IllegalArgumentException("Occurrences of a series must not overlap each other");
+        }
+        int maxOccurrences = bookingProperties.getMaxSeriesOccurrences();
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        for (int n = 0; ; n++) {
+            LocalDateTime occurrence = bookingSeries.occurrence(n);
+            if (occurrence == null) {
+                return occurrences;
+            }
+            if (n >= maxOccurrences) {
+                throw new IllegalArgumentException("A series may have at most " + maxOccurrences + " occurrences");
+            }
+            if (!bookingSeries.getExceptions().contains(occurrence)) {
+                occurrences.add(occurrence);
+            }
+        }
+    }
+
+    /**
+     * Converts and validates the rule of a new series.
+     *
+     * @param bookingSeriesDTO the rule
+     * @return the series, with a room holding only the room name and no user
+     * @throws IllegalArgumentException if the rule is incomplete or unbounded
+     */
+    private BookingSeries toSeries(BookingSeriesDTO bookingSeriesDTO) {
+        if (bookingSeriesDTO.roomName() == null || bookingSeriesDTO.startTime() == null
+                || bookingSeriesDTO.endTime() == null || bookingSeriesDTO.frequency() == null) {
+            throw new IllegalArgumentException("Room, start time, end time and frequency are required");
+        }
+        if (!bookingSeriesDTO.endTime().isAfter(bookingSeriesDTO.startTime())) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        int interval = bookingSeriesDTO.interval() == null ? 1 : bookingSeriesDTO.interval();
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if (bookingSeriesDTO.count() == null && bookingSeriesDTO.until() == null) {
+            throw new IllegalArgumentException("A series needs a count or an until date");
+        }
+        if (bookingSeriesDTO.count() != null && bookingSeriesDTO.count() < 1) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+        BookingSeries bookingSeries = new BookingSeries(null, new Room(bookingSeriesDTO.roomName(), null),
+                bookingSeriesDTO.startTime(), bookingSeriesDTO.endTime(), bookingSeriesDTO.frequency(),
+                interval, bookingSeriesDTO.count(), bookingSeriesDTO.until());
+        if (bookingSeriesDTO.exceptions() != null) {
+            bookingSeries.getExceptions().addAll(bookingSeriesDTO.exceptions());
+        }
+        return bookingSeries;
+    }
+
+    /**
+     * Finds a series the logged-in user may change.
+     *
+     * @param httpRequest the HTTP request containing user session information
+     * @param seriesId    the ID of the series
+     * @return the series
+     * @throws NoSuchElementException if the series does not exist or the user is not logged in
+     * @throws SecurityException      if the user is neither the creator of the series nor an admin
+     */
+    private BookingSeries ownedSeries(HttpServletRequest httpRequest, Long seriesId) {
+        BookingSeries bookingSeries = (seriesId == null ? Optional.<BookingSeries>empty() : bookingSeriesRepository.findById(seriesId))
+                .orElseThrow(() -> new NoSuchElementException("Booking series not found."));
+        User user = userMapper.toEntity(getCurrentUserDTO(httpRequest));
+        if (!user.isAdmin() && !bookingSeries.getUser().getUsername().equals(user.getUsername())) {
+            throw new SecurityException("Denied. Must be the creator of the booking or have admin access");
+        }
+        return bookingSeries;
+    }
+
+    /**
+     * Returns the username if it is set and belongs to an existing user.
+     *
+     * @param username the username from a filter request
+     * @return the username, or null if it should not restrict the filter
+     */
+    private String existingUsername(String username) {
+        if (username != null && userRepository.findByUsername(username).isPresent()) {
+            return username;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the room name if it is set and belongs to an existing room.
+     *
+     * @param roomName the room name from a filter request
+     * @return the room name, or null if it should not restrict the filter
+     */
+    private String existingRoomName(String roomName) {
+        if (roomName != null && roomRepository.findByName(roomName).isPresent()) {
+            return roomName;
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the slot length of an available hours request.
+     *
+     * @param requested the requested slot length in minutes, or null for the default
+     * @return the slot length in minutes
+     * @throws IllegalArgumentException if the slot length is not positive or does not evenly divide a day
+     */
+    private int slotMinutes(Integer requested) {
+        int slotMinutes = requested == null ? bookingProperties.getDefaultSlotMinutes() : requested;
+        if (slotMinutes < 1 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("Slot length must evenly divide a day, e.g. 15, 30 or 60 minutes");
+        }
+        return slotMinutes;
+    }
+
+    /**
+     * Collects the rooms free for a meeting inside a window, ranked like a free room search.
+     *
+     * @param roomType     the type of the rooms, or null for any type
+     * @param excludedRoom the name of a room to leave out, or null
+     * @param from         the inclusive start of the window
+     * @param to           the exclusive end of the window
+     * @param duration     the length of the meeting
+     * @param limit        the maximum number of candidates
+     * @return the candidate rooms, best first
+     */
+    private List<RoomCandidateDTO> candidates(String roomType, String excludedRoom, LocalDateTime from,
+                                              LocalDateTime to, Duration duration, int limit) {
+        List<RoomCandidateDTO> candidates = new ArrayList<>();
+        for (RoomDTO room : roomCatalog.get().rooms()) {
+            if (roomType != null && !roomType.equals(room.type()) || room.name().equals(excludedRoom)) {
+                continue;
+            }
+            FreeIntervalDTO free = bookingIntervalIndex.firstFreeInterval(room.name(), from, to, duration);
+            if (free != null) {
+                candidates.add(new RoomCandidateDTO(room.name(), room.type(), free.start(), free.start().plus(duration), free.end()));
+            }
+        }
+        return candidates.stream()
+                .sorted(Comparator.comparing(RoomCandidateDTO::start)
+                        .thenComparing(RoomCandidateDTO::freeUntil)
+                        .thenComparing(RoomCandidateDTO::roomName))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Proposes alternatives to a rejected booking from the {@link BookingIntervalIndex}.
+     * <p>
+     * Both lists are looked for between the requested start and the configured horizon after it and
+     * hold at most the configured number of entries. The same room is walked from the requested start,
+     * one free interval per suggestion, so its cost is bounded by the bookings inside the horizon.
+     * The other rooms are the rooms of the same type in the {@link RoomCatalog}, one index lookup each.
+     * No query is sent to the database.
+     * </p>
+     *
+     * @param bookingDTO the rejected booking
+     * @param message    the reason the booking was rejected
+     * @return the rejected booking with the proposed alternatives
+     */
+    private BookingConflictDTO conflict(BookingDTO bookingDTO, String message) {
+        LocalDateTime start = bookingDTO.startTime();
+        int limit = bookingProperties.getConflictSuggestions();
+        if (start == null || bookingDTO.endTime() == null || !bookingDTO.endTime().isAfter(start) || limit < 1) {
+            return new BookingConflictDTO(message, List.of(), List.of());
+        }
+        Duration duration = Duration.between(start, bookingDTO.endTime());
+        LocalDateTime horizon = start.plusHours(bookingProperties.getConflictHorizonHours());
+
+        List<FreeIntervalDTO> sameRoom = new ArrayList<>(limit);
+        LocalDateTime cursor = start;
+        while (sameRoom.size() < limit && cursor.isBefore(horizon)) {
+            FreeIntervalDTO free = bookingIntervalIndex.firstFreeInterval(bookingDTO.roomName(), cursor, horizon, duration);
+            if (free == null) {
+                break;
+            }
+            sameRoom.add(new FreeIntervalDTO(free.start(), free.start().plus(duration)));
+            cursor = free.end();
+        }
+
+        String roomType = roomCatalog.get().rooms().stream()
+                .filter(room -> room.name().equals(bookingDTO.roomName()))
+                .map(RoomDTO::type)
+                .findFirst()
+                .orElse(null);
+        List<RoomCandidateDTO> otherRooms = roomType == null ? List.of()
+                : candidates(roomType, bookingDTO.roomName(), start, horizon, duration, limit);
+        return new BookingConflictDTO(message, sameRoom, otherRooms);
+    }
+
+    /**
+     * Resolves the number of candidates returned by a free room search.
+     *
+     * @param requested the requested number of candidates, or null for the default
+     * @return the number of candidates capped at the configured maximum
+     * @throws IllegalArgumentException if the requested number is not positive
+     */
+    private int searchLimit(Integer requested) {
+        if (requested == null) {
+            return bookingProperties.getDefaultSearchLimit();
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(requested, bookingProperties.getMaxSearchLimit());
+    }
+
+    /**
+     * Resolves the page size of a paginated request.
+     *
+     * @param requested the requested page size, or null for the default
+     * @return the page size capped at the configured maximum
+     * @throws IllegalArgumentException if the requested page size is not positive
+     */
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return bookingProperties.getDefaultPageSize();
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(requested, bookingProperties.getMaxPageSize());
     }
 
     /**
@@ -241,14 +864,14 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Retrieves the user DTO from the session.
+     * Retrieves the DTO of the logged-in user from the session or the session token.
      *
-     * @param req the HTTP request containing the session
+     * @param req the HTTP request
      * @return the user DTO
-     * @throws NoSuchElementException if the user is not found in the session
+     * @throws NoSuchElementException if the request has no logged-in user
      */
-    private UserDTO getUserDTOFromSession(HttpServletRequest req) {
-        UserDTO userDTO = (UserDTO) req.getSession().getAttribute("loggedIn");
+    private UserDTO getCurrentUserDTO(HttpServletRequest req) {
+        UserDTO userDTO = sessionTokens.currentUser(req);
         if (userDTO == null) {
             throw new NoSuchElementException("Log in first");
         } else {
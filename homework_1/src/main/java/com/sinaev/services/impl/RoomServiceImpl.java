@@ -1,8 +1,10 @@
 package com.sinaev.services.impl;
 
 import com.sinaev.annotations.Loggable;
+import com.sinaev.caches.RoomCatalog;
 import com.sinaev.exceptions.ObjectAlreadyExistsException;
 import com.sinaev.mappers.RoomMapper;
+import com.sinaev.models.dto.RoomCatalogDTO;
 import com.sinaev.models.dto.RoomDTO;
 import com.sinaev.models.dto.UserDTO;
 import com.sinaev.models.entities.Room;
@@ -10,6 +12,7 @@ import com.sinaev.models.enums.RoomType;
 import com.sinaev.models.requests.room.UpdateRoomRequest;
 import com.sinaev.repositories.RoomRepository;
 import com.sinaev.services.RoomService;
+import com.sinaev.security.SessionTokens;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -22,6 +25,10 @@ import java.util.Optional;
 
 /**
  * Room service class that manages room creation, retrieval, updating, and deletion.
+ * <p>
+ * Rooms are read from the in-memory {@link RoomCatalog}, which is reloaded after every change
+ * made through this service.
+ * </p>
  */
 @Service
 @Loggable
@@ -29,6 +36,8 @@ import java.util.Optional;
 public class RoomServiceImpl implements RoomService {
     private final RoomRepository roomRepository;
     private final RoomMapper roomMapper;
+    private final RoomCatalog roomCatalog;
+    private final SessionTokens sessionTokens;
 
     /**
      * Creates a new room.
@@ -37,25 +46,44 @@ public class RoomServiceImpl implements RoomService {
      * @param roomDTO the room data transfer object containing room details
      */
     public void createRoom(HttpServletRequest req, RoomDTO roomDTO) {
-        UserDTO userDTO = getUserDTOFromSession(req);
+        UserDTO userDTO = getCurrentUserDTO(req);
         if (!userIsAdmin(userDTO)) {
             throw new SecurityException("You do not have admin user access");
         }
-        if (roomRepository.exists(roomDTO.name())) {
+        if (roomCatalog.contains(roomDTO.name()) || roomRepository.exists(roomDTO.name())) {
             throw new ObjectAlreadyExistsException("Room with name '" + roomDTO.name() + "' already exists");
         }
         Room room = roomMapper.toEntity(roomDTO);
         roomRepository.save(room);
+        refreshRoomCatalog();
     }
 
     /**
-     * Returns the list of rooms.
+     * Returns the list of rooms from the room catalog.
      *
      * @return the list of rooms
      */
     public List<RoomDTO> getRooms() {
+        return roomCatalog.get().rooms();
+    }
+
+    /**
+     * Returns the current snapshot of the room catalog.
+     *
+     * @return the rooms and the entity tag of the snapshot
+     */
+    public RoomCatalogDTO getRoomCatalog() {
+        return roomCatalog.get();
+    }
+
+    /**
+     * Reloads the room catalog from the database and swaps it in.
+     *
+     * @return true if the catalog changed, false otherwise
+     */
+    public boolean refreshRoomCatalog() {
         List<RoomDTO> rooms = roomRepository.findAll().stream().map(roomMapper::toDTO).toList();
-        return rooms;
+        return roomCatalog.replace(rooms);
     }
 
     /**
@@ -65,7 +93,7 @@ public class RoomServiceImpl implements RoomService {
      * @param updateRoomRequest the request containing the original and new room details
      */
     public void updateRoom(HttpServletRequest req, UpdateRoomRequest updateRoomRequest) {
-        UserDTO userDTO = getUserDTOFromSession(req);
+        UserDTO userDTO = getCurrentUserDTO(req);
         if (!userIsAdmin(userDTO)) {
             throw new SecurityException("You do not have admin user access");
         }
@@ -80,6 +108,7 @@ public class RoomServiceImpl implements RoomService {
         Room oldRoom = optionalRoom.get();
         Room newRoom = new Room(newRoomName, roomType);
         roomRepository.update(oldRoom, newRoom);
+        refreshRoomCatalog();
     }
 
     /**
@@ -89,7 +118,7 @@ public class RoomServiceImpl implements RoomService {
      * @param roomName the name of the room to be deleted
      */
     public void deleteRoom(HttpServletRequest req, String roomName) {
-        UserDTO userDTO = getUserDTOFromSession(req);
+        UserDTO userDTO = getCurrentUserDTO(req);
         if (!userIsAdmin(userDTO)) {
             throw new SecurityException("You do not have admin user access");
         }
@@ -99,6 +128,7 @@ public class RoomServiceImpl implements RoomService {
         }
         Room room = optionalRoom.get();
         roomRepository.delete(room);
+        refreshRoomCatalog();
     }
 
     /**
@@ -112,14 +142,14 @@ public class RoomServiceImpl implements RoomService {
     }
 
     /**
-     * Retrieves the user DTO from the session.
+     * Retrieves the DTO of the logged-in user from the session or the session token.
      *
-     * @param httpRequest the HTTP request containing the session
+     * @param httpRequest the HTTP request
      * @return the user DTO
-     * @throws NoSuchElementException if the user is not found in the session
+     * @throws NoSuchElementException if the request has no logged-in user
      */
-    private UserDTO getUserDTOFromSession(HttpServletRequest httpRequest) {
-        UserDTO userDTO = (UserDTO) httpRequest.getSession().getAttribute("loggedIn");
+    private UserDTO getCurrentUserDTO(HttpServletRequest httpRequest) {
+        UserDTO userDTO = sessionTokens.currentUser(httpRequest);
         if (userDTO == null) {
             throw new NoSuchElementException("Log in first");
         } else {
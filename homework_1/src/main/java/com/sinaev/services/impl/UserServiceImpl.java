@@ -3,9 +3,11 @@ package com.sinaev.services.impl;
 import com.sinaev.annotations.Loggable;
 import com.sinaev.exceptions.UsernameAlreadyTakenException;
 import com.sinaev.mappers.UserMapper;
+import com.sinaev.models.dto.AuthTokenDTO;
 import com.sinaev.models.dto.UserDTO;
 import com.sinaev.models.entities.User;
 import com.sinaev.repositories.UserRepository;
+import com.sinaev.security.SessionTokens;
 import com.sinaev.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -24,23 +26,30 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final SessionTokens sessionTokens;
 
     /**
      * Logs in the specified user if they are registered.
+     * <p>
+     * The user is loaded once; the same entity is used to check the password and the admin
+     * flag and to fill the session. In token mode nothing is put into the session and a signed
+     * token carrying the username and admin flag is returned instead.
+     * </p>
      *
      * @param httpReq the HTTP request containing user session information
      * @param userDTO the DTO of user attempting to log in
+     * @return the session token in token mode, or null if the user is kept in the session
      * @throws NoSuchElementException if the user is not found
      */
-    public void login(HttpServletRequest httpReq, UserDTO userDTO) {
-        if (!isRegistered(userDTO)) {
-            throw new NoSuchElementException("User: '" + userDTO.username() + "' not found");
+    public AuthTokenDTO login(HttpServletRequest httpReq, UserDTO userDTO) {
+        User user = userRepository.findByUsername(userDTO.username())
+                .filter(found -> found.getPassword().equals(userDTO.password()))
+                .orElseThrow(() -> new NoSuchElementException("User: '" + userDTO.username() + "' not found"));
+        if (sessionTokens.isEnabled()) {
+            return sessionTokens.issue(userMapper.toDTO(user));
         }
-        User user = userMapper.toEntity(userDTO);
-        if (isAdmin(user)) {
-            user.setAdmin(true);
-        }
-        setUserDTOInSession(httpReq, userDTO);
+        setUserInSession(httpReq, user);
+        return null;
     }
 
     /**
@@ -58,30 +67,6 @@ public class UserServiceImpl implements UserService {
         userRepository.save(user);
     }
 
-    /**
-     * Checks if a user with the specified login and password is registered.
-     *
-     * @param userDTO the DTO of the user including login and password
-     * @return true if the user with the specified login and password is registered, false otherwise
-     */
-    private boolean isRegistered(UserDTO userDTO) {
-        return userRepository.findByUsername(userDTO.username())
-                .map(user -> user.getPassword().equals(userDTO.password()))
-                .orElse(false);
-    }
-
-    /**
-     * Checks if the specified user is an admin.
-     *
-     * @param user the user to check
-     * @return true if the user is an admin, false otherwise
-     */
-    private boolean isAdmin(User user) {
-        return userRepository.findByUsername(user.getUsername())
-                .map(User::isAdmin)
-                .orElse(false);
-    }
-
     /**
      * Checks if the specified user's username is already taken.
      *
@@ -114,7 +99,17 @@ public class UserServiceImpl implements UserService {
         if (userOpt.isEmpty()) {
             throw new NoSuchElementException("User not found");
         }
-        UserDTO userWithAdminStatus = userMapper.toDTO(userOpt.get());
+        setUserInSession(req, userOpt.get());
+    }
+
+    /**
+     * Puts the DTO of a loaded user, including its admin status, into the session.
+     *
+     * @param req  the HTTP request containing the session
+     * @param user the user loaded from the repository
+     */
+    private void setUserInSession(HttpServletRequest req, User user) {
+        UserDTO userWithAdminStatus = userMapper.toDTO(user);
         HttpSession session = req.getSession();
         session.setAttribute("loggedIn", userWithAdminStatus);
     }
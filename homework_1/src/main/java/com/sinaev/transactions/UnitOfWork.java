@@ -0,0 +1,267 @@
+package com.sinaev.transactions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Transaction-aware data source and lightweight unit of work.
+ * <p>
+ * Outside a unit of work, {@link #getConnection()} borrows a new connection from the wrapped data
+ * source, as before. Inside {@link #inTransaction(Supplier)}, one connection is borrowed, bound to
+ * the current thread and handed to every repository that asks for a connection, so all their
+ * statements share one transaction and one snapshot, and the unit borrows a single pooled connection
+ * however many repository calls it makes. The unit is committed once when the outermost call
+ * returns and rolled back if it throws; nested calls join the unit that is already running.
+ * </p>
+ * <p>
+ * Participants cannot end the unit: closing, committing or switching auto-commit on a bound
+ * connection is ignored, and a rollback marks the unit rollback-only. In-memory state that mirrors
+ * the database should be changed through {@link #afterCommit(Runnable)}, so it is left untouched
+ * when the unit rolls back.
+ * </p>
+ */
+public class UnitOfWork implements DataSource, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(UnitOfWork.class);
+    private static final ThreadLocal<Transaction> current = new ThreadLocal<>();
+
+    private final DataSource target;
+
+    /**
+     * Constructs a unit of work over a data source.
+     *
+     * @param target the data source connections are borrowed from
+     */
+    public UnitOfWork(DataSource target) {
+        this.target = target;
+    }
+
+    /**
+     * Runs work in a unit of work, joining the unit already running on this thread if there is one.
+     *
+     * @param work the work
+     * @throws IllegalStateException if the transaction cannot be started or committed
+     */
+    public void inTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs work in a unit of work, joining the unit already running on this thread if there is one.
+     *
+     * @param work the work
+     * @param <T>  the type of the result
+     * @return the result of the work
+     * @throws IllegalStateException if the transaction cannot be started or committed
+     */
+    public <T> T inTransaction(Supplier<T> work) {
+        Transaction running = current.get();
+        if (running != null) {
+            if (running.owner != this) {
+                throw new IllegalStateException("Another unit of work is already running on this thread");
+            }
+            return work.get();
+        }
+
+        Connection connection;
+        try {
+            connection = target.getConnection();
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot begin transaction: " + e.getMessage(), e);
+        }
+        Transaction transaction = new Transaction(this, connection);
+        current.set(transaction);
+        T result;
+        try {
+            result = work.get();
+            if (transaction.rollbackOnly) {
+                logger.warn("Unit of work was marked rollback-only, rolling back");
+                connection.rollback();
+                return result;
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollback(connection, e);
+            throw new IllegalStateException("Cannot commit transaction: " + e.getMessage(), e);
+        } catch (RuntimeException | Error e) {
+            rollback(connection, e);
+            throw e;
+        } finally {
+            current.remove();
+            release(connection);
+        }
+        transaction.afterCommit.forEach(Runnable::run);
+        return result;
+    }
+
+    /**
+     * Returns whether a unit of work is running on the current thread.
+     *
+     * @return true inside {@link #inTransaction(Supplier)}
+     */
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * Runs an action once the current unit of work has committed, or right away outside a unit of work.
+     * <p>
+     * The action is dropped if the unit rolls back.
+     * </p>
+     *
+     * @param action the action
+     */
+    public static void afterCommit(Runnable action) {
+        Transaction transaction = current.get();
+        if (transaction == null) {
+            action.run();
+        } else {
+            transaction.afterCommit.add(action);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Transaction transaction = current.get();
+        if (transaction != null && transaction.owner == this) {
+            return transaction.participant;
+        }
+        return target.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+
+    /**
+     * Closes the wrapped data source if it can be closed, shutting down its pool.
+     *
+     * @throws Exception if the wrapped data source fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        if (target instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Rolls back a failed unit, keeping the original failure as the one reported.
+     *
+     * @param connection the connection of the unit
+     * @param failure    the failure that ended the unit
+     */
+    private static void rollback(Connection connection, Throwable failure) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Restores auto-commit and returns the connection of a finished unit to the pool.
+     *
+     * @param connection the connection of the unit
+     */
+    private static void release(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.warn("Failed to restore auto-commit: {}", e.getMessage());
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to release connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A running unit of work.
+     */
+    private static final class Transaction {
+        private final UnitOfWork owner;
+        private final Connection participant;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private boolean rollbackOnly;
+
+        private Transaction(UnitOfWork owner, Connection connection) {
+            this.owner = owner;
+            this.participant = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close", "commit", "setAutoCommit" -> {
+                                return null;
+                            }
+                            case "rollback" -> {
+                                if (args == null) {
+                                    rollbackOnly = true;
+                                    return null;
+                                }
+                            }
+                            case "isClosed" -> {
+                                return false;
+                            }
+                            default -> {
+                            }
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
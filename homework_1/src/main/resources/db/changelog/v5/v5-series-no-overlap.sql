@@ -0,0 +1,109 @@
+-- Occurrences of booking series are never stored, so the bookings_room_no_overlap exclusion constraint
+-- cannot see them. These triggers expand the series of a room over the written range instead and reject
+-- overlaps with the same SQLState as the constraint, 23P01. Both triggers take the transaction-level
+-- advisory lock of the room first, the same lock taken by the ADVISORY room lock mode, so a booking and
+-- a series of one room are never checked concurrently. The script can be run again.
+
+ALTER TABLE ${entitySchemaName}.booking_series DROP CONSTRAINT IF EXISTS booking_series_bounded;
+ALTER TABLE ${entitySchemaName}.booking_series
+    ADD CONSTRAINT booking_series_bounded CHECK (occurrence_count IS NOT NULL OR until_date IS NOT NULL);
+
+-- The number of whole days, weeks or months from the start of a series to a time.
+CREATE OR REPLACE FUNCTION ${entitySchemaName}.series_period_index(frequency VARCHAR, series_start TIMESTAMP, t TIMESTAMP)
+    RETURNS BIGINT
+    LANGUAGE sql
+    IMMUTABLE AS
+$$
+SELECT (CASE frequency
+            WHEN 'DAILY' THEN floor(extract(EPOCH FROM t - series_start) / 86400)
+            WHEN 'WEEKLY' THEN floor(extract(EPOCH FROM t - series_start) / 604800)
+            ELSE (extract(YEAR FROM t) - extract(YEAR FROM series_start)) * 12
+                + extract(MONTH FROM t) - extract(MONTH FROM series_start)
+    END)::BIGINT
+$$;
+
+-- The occurrences of a series overlapping [window_start, window_end), or all occurrences from
+-- window_start on when window_end is null. Only the periods around the window are generated.
+CREATE OR REPLACE FUNCTION ${entitySchemaName}.series_occurrences(series ${entitySchemaName}.booking_series,
+                                                                  window_start TIMESTAMP, window_end TIMESTAMP)
+    RETURNS TABLE (occurrence_start TIMESTAMP, occurrence_end TIMESTAMP)
+    LANGUAGE sql
+    STABLE AS
+$$
+SELECT o.occurrence_start, o.occurrence_start + (series.end_time - series.start_time)
+FROM generate_series(
+             greatest(0, ${entitySchemaName}.series_period_index(series.frequency, series.start_time,
+                                 window_start - (series.end_time - series.start_time)) / series.recurrence_interval - 1),
+             least(series.occurrence_count - 1,
+                   ${entitySchemaName}.series_period_index(series.frequency, series.start_time, window_end)
+                       / series.recurrence_interval + 1,
+                   ${entitySchemaName}.series_period_index(series.frequency, series.start_time, series.until_date + 1)
+                       / series.recurrence_interval + 1)) AS n
+         CROSS JOIN LATERAL (
+    SELECT series.start_time + CASE series.frequency
+                                   WHEN 'DAILY' THEN make_interval(days => (n * series.recurrence_interval)::INT)
+                                   WHEN 'WEEKLY' THEN make_interval(weeks => (n * series.recurrence_interval)::INT)
+                                   ELSE make_interval(months => (n * series.recurrence_interval)::INT)
+        END AS occurrence_start) o
+WHERE (series.until_date IS NULL OR o.occurrence_start::DATE <= series.until_date)
+  AND (window_end IS NULL OR o.occurrence_start < window_end)
+  AND o.occurrence_start + (series.end_time - series.start_time) > window_start
+  AND o.occurrence_start <> ALL (series.exceptions)
+$$;
+
+CREATE OR REPLACE FUNCTION ${entitySchemaName}.bookings_no_series_overlap()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM pg_advisory_xact_lock(NEW.room_id);
+    IF EXISTS (SELECT 1
+               FROM ${entitySchemaName}.booking_series s
+                        CROSS JOIN LATERAL ${entitySchemaName}.series_occurrences(s, NEW.start_time, NEW.end_time)
+               WHERE s.room_id = NEW.room_id) THEN
+        RAISE EXCEPTION 'Booking of room % from % to % overlaps an occurrence of a booking series',
+            NEW.room_id, NEW.start_time, NEW.end_time
+            USING ERRCODE = 'exclusion_violation';
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS bookings_no_series_overlap ON ${entitySchemaName}.bookings;
+CREATE TRIGGER bookings_no_series_overlap
+    BEFORE INSERT OR UPDATE OF room_id, start_time, end_time
+    ON ${entitySchemaName}.bookings
+    FOR EACH ROW
+EXECUTE PROCEDURE ${entitySchemaName}.bookings_no_series_overlap();
+
+CREATE OR REPLACE FUNCTION ${entitySchemaName}.booking_series_no_overlap()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM pg_advisory_xact_lock(NEW.room_id);
+    IF EXISTS (SELECT 1
+               FROM ${entitySchemaName}.series_occurrences(NEW, NEW.start_time, NULL) o
+               WHERE EXISTS (SELECT 1
+                             FROM ${entitySchemaName}.bookings b
+                             WHERE b.room_id = NEW.room_id
+                               AND tsrange(b.start_time, b.end_time) && tsrange(o.occurrence_start, o.occurrence_end))
+                  OR EXISTS (SELECT 1
+                             FROM ${entitySchemaName}.booking_series s
+                                      CROSS JOIN LATERAL ${entitySchemaName}.series_occurrences(s, o.occurrence_start, o.occurrence_end)
+                             WHERE s.room_id = NEW.room_id
+                               AND s.id <> NEW.id)) THEN
+        RAISE EXCEPTION 'Booking series of room % starting at % overlaps another booking of the room',
+            NEW.room_id, NEW.start_time
+            USING ERRCODE = 'exclusion_violation';
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS booking_series_no_overlap ON ${entitySchemaName}.booking_series;
+CREATE TRIGGER booking_series_no_overlap
+    BEFORE INSERT OR UPDATE OF room_id, start_time, end_time, frequency, recurrence_interval, occurrence_count, until_date
+    ON ${entitySchemaName}.booking_series
+    FOR EACH ROW
+EXECUTE PROCEDURE ${entitySchemaName}.booking_series_no_overlap();
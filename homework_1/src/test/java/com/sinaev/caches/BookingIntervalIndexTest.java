@@ -0,0 +1,234 @@
+package com.sinaev.caches;
+
+import com.sinaev.models.dto.FreeIntervalDTO;
+import com.sinaev.models.entities.Booking;
+import com.sinaev.models.entities.BookingSeries;
+import com.sinaev.models.entities.Room;
+import com.sinaev.models.entities.User;
+import com.sinaev.models.enums.RecurrenceFrequency;
+import com.sinaev.models.enums.RoomType;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class BookingIntervalIndexTest {
+
+    private BookingIntervalIndex index;
+    private LocalDateTime tenOClock;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() {
+        index = new BookingIntervalIndex();
+        tenOClock = LocalDateTime.of(2024, 6, 20, 10, 0);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test overlapping intervals are not free and adjacent intervals are free")
+    public void testIsFree() {
+        index.add("Room1", tenOClock, tenOClock.plusHours(1));
+        index.add("Room1", tenOClock.plusHours(3), tenOClock.plusHours(4));
+
+        softly.assertThat(index.isFree("Room1", tenOClock, tenOClock.plusHours(1))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.minusMinutes(30), tenOClock.plusMinutes(30))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusMinutes(15), tenOClock.plusMinutes(45))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.minusHours(1), tenOClock.plusHours(5))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusHours(1), tenOClock.plusHours(3))).isTrue();
+        softly.assertThat(index.isFree("Room1", tenOClock.minusHours(1), tenOClock)).isTrue();
+        softly.assertThat(index.isFree("Room2", tenOClock, tenOClock.plusHours(1))).isTrue();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test removed, renamed and deleted rooms are reflected in lookups")
+    public void testRemoveAndRenameRoom() {
+        index.add("Room1", tenOClock, tenOClock.plusHours(1));
+        index.add("Room1", tenOClock.plusHours(2), tenOClock.plusHours(3));
+        index.remove("Room1", tenOClock);
+        index.renameRoom("Room1", "Renamed");
+
+        softly.assertThat(index.isFree("Renamed", tenOClock, tenOClock.plusHours(1))).isTrue();
+        softly.assertThat(index.isFree("Renamed", tenOClock.plusHours(2), tenOClock.plusHours(3))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusHours(2), tenOClock.plusHours(3))).isTrue();
+
+        index.removeRoom("Renamed");
+        softly.assertThat(index.size()).isZero();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test the first free interval skips bookings and series occurrences that leave too little room")
+    public void testFirstFreeInterval() {
+        LocalDateTime nine = tenOClock.minusHours(1);
+        index.add("Room1", nine.minusMinutes(30), nine.plusMinutes(15));
+        index.add("Room1", nine.plusMinutes(45), tenOClock.plusMinutes(30));
+        index.addSeries(new BookingSeries(new User("user1", "password", false), new Room("Room1", RoomType.MEETING_ROOM),
+                tenOClock.minusDays(1).plusHours(1), tenOClock.minusDays(1).plusHours(2), RecurrenceFrequency.DAILY, 1, 5, null));
+        Duration hour = Duration.ofHours(1);
+
+        softly.assertThat(index.firstFreeInterval("Room1", nine, nine.plusHours(8), hour))
+                .isEqualTo(new FreeIntervalDTO(tenOClock.plusHours(2), nine.plusHours(8)));
+        softly.assertThat(index.firstFreeInterval("Room1", nine, nine.plusHours(8), Duration.ofMinutes(30)))
+                .isEqualTo(new FreeIntervalDTO(nine.plusMinutes(15), nine.plusMinutes(45)));
+        softly.assertThat(index.firstFreeInterval("Room1", tenOClock, tenOClock.plusHours(3), Duration.ofMinutes(30)))
+                .isEqualTo(new FreeIntervalDTO(tenOClock.plusMinutes(30), tenOClock.plusHours(1)));
+        softly.assertThat(index.firstFreeInterval("Room1", nine, tenOClock.plusHours(2), hour)).isNull();
+        softly.assertThat(index.firstFreeInterval("Room2", nine, nine.plusHours(1), hour))
+                .isEqualTo(new FreeIntervalDTO(nine, nine.plusHours(1)));
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test finding the first free interval of a thousand rooms only visits the bookings inside the window")
+    public void testFirstFreeIntervalAcrossManyRooms() {
+        LocalDate date = tenOClock.toLocalDate();
+        String[] roomNames = new String[1_000];
+        for (int r = 0; r < roomNames.length; r++) {
+            roomNames[r] = "Room" + r;
+            for (int d = -30; d <= 30; d++) {
+                for (int h = 8; h < 18; h += 2) {
+                    index.add(roomNames[r], date.plusDays(d).atTime(h, 0), date.plusDays(d).atTime(h + 1, r % 60));
+                }
+            }
+        }
+        Duration duration = Duration.ofMinutes(45);
+
+        int found = 0;
+        for (String roomName : roomNames) {
+            if (index.firstFreeInterval(roomName, date.atTime(8, 0), date.atTime(18, 0), duration) != null) {
+                found++;
+            }
+        }
+
+        softly.assertThat(found).isEqualTo(1_000 / 60 * 16 + 16);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test series occurrences block their intervals except cancelled and ended ones")
+    public void testSeries() {
+        User user = new User("user1", "password", false);
+        BookingSeries weekly = new BookingSeries(user, new Room("Room1", RoomType.MEETING_ROOM),
+                tenOClock, tenOClock.plusMinutes(30), RecurrenceFrequency.WEEKLY, 1, 52, null);
+        weekly.getExceptions().add(tenOClock.plusWeeks(2));
+        index.addSeries(weekly);
+
+        softly.assertThat(index.isFree("Room1", tenOClock.plusWeeks(1), tenOClock.plusWeeks(1).plusHours(1))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusWeeks(51).plusMinutes(15), tenOClock.plusWeeks(51).plusHours(1))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusWeeks(1).plusMinutes(30), tenOClock.plusWeeks(1).plusHours(1))).isTrue();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusDays(1), tenOClock.plusDays(1).plusHours(1))).isTrue();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusWeeks(2), tenOClock.plusWeeks(2).plusHours(1))).isTrue();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusWeeks(52), tenOClock.plusWeeks(52).plusHours(1))).isTrue();
+        softly.assertThat(weekly.occurrences(tenOClock.plusDays(1), tenOClock.plusWeeks(4)))
+                .containsExactly(tenOClock.plusWeeks(1), tenOClock.plusWeeks(3));
+
+        BookingSeries monthly = new BookingSeries(user, new Room("Room2", RoomType.WORKSPACE),
+                LocalDateTime.of(2024, 1, 31, 9, 0), LocalDateTime.of(2024, 1, 31, 10, 0),
+                RecurrenceFrequency.MONTHLY, 1, null, LocalDate.of(2024, 4, 30));
+        softly.assertThat(monthly.occurrences(LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2025, 1, 1, 0, 0)))
+                .containsExactly(LocalDateTime.of(2024, 2, 29, 9, 0), LocalDateTime.of(2024, 3, 31, 9, 0),
+                        LocalDateTime.of(2024, 4, 30, 9, 0));
+
+        index.renameRoom("Room1", "Renamed");
+        softly.assertThat(index.isFree("Renamed", tenOClock.plusWeeks(1), tenOClock.plusWeeks(1).plusHours(1))).isFalse();
+        index.removeRoom("Renamed");
+        softly.assertThat(index.seriesOf("Renamed")).isEmpty();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test a check against a long series only expands the occurrences near the checked interval")
+    public void testSeriesExpansionIsLazy() {
+        BookingSeries daily = spy(new BookingSeries(new User("user1", "password", false), new Room("Room1", RoomType.MEETING_ROOM),
+                tenOClock, tenOClock.plusHours(1), RecurrenceFrequency.DAILY, 1, 1_000_000, null));
+        index.addSeries(daily);
+        LocalDateTime farAway = tenOClock.plusDays(500_000);
+
+        softly.assertThat(index.isFree("Room1", farAway.plusMinutes(30), farAway.plusHours(2))).isFalse();
+        softly.assertThat(index.isFree("Room1", farAway.plusHours(1), farAway.plusHours(2))).isTrue();
+        softly.assertAll();
+        verify(daily, atMost(8)).occurrence(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test diff reports drifted rooms until the index is rebuilt")
+    public void testDiffAndRebuild() {
+        User user = new User("user1", "password", false);
+        Room room1 = new Room("Room1", RoomType.MEETING_ROOM);
+        Room room2 = new Room("Room2", RoomType.WORKSPACE);
+        List<Booking> stored = List.of(
+                new Booking(user, room1, tenOClock, tenOClock.plusHours(1)),
+                new Booking(user, room2, tenOClock, tenOClock.plusHours(2)));
+
+        index.add("Room1", tenOClock, tenOClock.plusHours(1));
+        index.add("Room3", tenOClock, tenOClock.plusHours(1));
+
+        softly.assertThat(index.diff(stored)).containsExactly("Room2", "Room3");
+
+        index.rebuild(() -> stored, List::of);
+
+        softly.assertThat(index.diff(stored)).isEmpty();
+        softly.assertThat(index.size()).isEqualTo(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test writes made while a rebuild reads the database survive the rebuild")
+    public void testWritesDuringRebuild() {
+        User user = new User("user1", "password", false);
+        Room room1 = new Room("Room1", RoomType.MEETING_ROOM);
+        List<Booking> stored = List.of(
+                new Booking(user, room1, tenOClock, tenOClock.plusHours(1)),
+                new Booking(user, room1, tenOClock.plusHours(2), tenOClock.plusHours(3)));
+        BookingSeries weekly = new BookingSeries(user, room1, tenOClock.plusDays(1), tenOClock.plusDays(1).plusHours(1),
+                RecurrenceFrequency.WEEKLY, 1, 10, null);
+
+        index.rebuild(() -> {
+            index.add("Room1", tenOClock.plusHours(4), tenOClock.plusHours(5));
+            index.remove("Room1", tenOClock.plusHours(2));
+            return stored;
+        }, () -> {
+            index.addSeries(weekly);
+            return List.of();
+        });
+
+        softly.assertThat(index.isFree("Room1", tenOClock, tenOClock.plusHours(1))).isFalse();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusHours(2), tenOClock.plusHours(3))).isTrue();
+        softly.assertThat(index.isFree("Room1", tenOClock.plusHours(4), tenOClock.plusHours(5))).isFalse();
+        softly.assertThat(index.seriesOf("Room1")).containsExactly(weekly);
+        softly.assertThat(index.size()).isEqualTo(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test replaying a series the rebuild already loaded does not add it twice")
+    public void testSeriesReplayedDuringRebuild() {
+        User user = new User("user1", "password", false);
+        Room room1 = new Room("Room1", RoomType.MEETING_ROOM);
+        BookingSeries weekly = new BookingSeries(user, room1, tenOClock, tenOClock.plusHours(1), RecurrenceFrequency.WEEKLY, 1, 10, null);
+        weekly.setId(1L);
+        BookingSeries loaded = new BookingSeries(user, room1, tenOClock, tenOClock.plusHours(1), RecurrenceFrequency.WEEKLY, 1, 10, null);
+        loaded.setId(1L);
+
+        index.rebuild(List::of, () -> {
+            index.addSeries(weekly);
+            return List.of(loaded);
+        });
+
+        softly.assertThat(index.seriesOf("Room1")).containsExactly(weekly);
+        softly.assertThat(index.isFree("Room1", tenOClock.plusWeeks(1), tenOClock.plusWeeks(1).plusHours(1))).isFalse();
+        softly.assertAll();
+    }
+}
@@ -0,0 +1,81 @@
+package com.sinaev.caches;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedCacheTest {
+
+    private BoundedCache<String, Long> cache;
+    private AtomicInteger loads;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new BoundedCache<>(3);
+        loads = new AtomicInteger();
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test values are loaded once and counted as hits afterwards")
+    public void testHitsAndMisses() {
+        softly.assertThat(cache.get("room", this::load)).isEqualTo(4L);
+        softly.assertThat(cache.get("room", this::load)).isEqualTo(4L);
+        softly.assertThat(cache.get("room", this::load)).isEqualTo(4L);
+
+        softly.assertThat(loads.get()).isEqualTo(1);
+        softly.assertThat(cache.getHits()).isEqualTo(2);
+        softly.assertThat(cache.getMisses()).isEqualTo(1);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test missing values are not cached and invalidated values are reloaded")
+    public void testMissingAndInvalidated() {
+        softly.assertThat(cache.get("missing", key -> null)).isNull();
+        softly.assertThat(cache.size()).isZero();
+
+        cache.get("room", this::load);
+        cache.invalidate("room");
+        cache.get("room", this::load);
+
+        softly.assertThat(loads.get()).isEqualTo(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test expired values are reloaded and counted as misses")
+    public void testExpiry() throws InterruptedException {
+        BoundedCache<String, Long> expiring = new BoundedCache<>(3, 20);
+
+        expiring.get("room", this::load);
+        expiring.get("room", this::load);
+        Thread.sleep(40);
+        expiring.get("room", this::load);
+
+        softly.assertThat(loads.get()).isEqualTo(2);
+        softly.assertThat(expiring.getHits()).isEqualTo(1);
+        softly.assertThat(expiring.getMisses()).isEqualTo(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test the cache never grows beyond its bound")
+    public void testBounded() {
+        for (int i = 0; i < 10; i++) {
+            cache.get("room" + i, this::load);
+        }
+
+        softly.assertThat(cache.size()).isEqualTo(3);
+        softly.assertAll();
+    }
+
+    private Long load(String key) {
+        loads.incrementAndGet();
+        return (long) key.length();
+    }
+}
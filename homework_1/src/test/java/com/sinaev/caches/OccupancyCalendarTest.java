@@ -0,0 +1,189 @@
+package com.sinaev.caches;
+
+import com.sinaev.models.dto.FreeIntervalDTO;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class OccupancyCalendarTest {
+
+    private BookingIntervalIndex index;
+    private OccupancyCalendar calendar;
+    private LocalDate date;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() {
+        index = spy(new BookingIntervalIndex());
+        calendar = new OccupancyCalendar(index);
+        date = LocalDate.of(2024, 6, 20);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test aligned days are answered from the bits, including intervals spanning midnight")
+    public void testExactDays() {
+        index.add("Room1", date.atTime(9, 0), date.atTime(10, 0));
+        index.add("Room1", date.atTime(15, 45), date.atTime(16, 15));
+        index.add("Room1", date.atTime(23, 30), date.plusDays(1).atTime(0, 30));
+
+        softly.assertThat(calendar.day("Room1", date).exact()).isTrue();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(10, 0), date.atTime(15, 45))).isTrue();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(8, 0), date.atTime(9, 0))).isTrue();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(9, 59), date.atTime(10, 30))).isFalse();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(16, 14), date.atTime(16, 15))).isFalse();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(22, 0), date.atTime(23, 30))).isTrue();
+        softly.assertThat(calendar.isFree("Room1", date.plusDays(1).atTime(0, 0), date.plusDays(1).atTime(0, 10))).isFalse();
+        softly.assertThat(calendar.isFree("Room1", date.plusDays(1).atTime(0, 30), date.plusDays(3).atTime(0, 0))).isTrue();
+        softly.assertThat(calendar.day("Room1", date).freeIntervals()).containsExactly(
+                new FreeIntervalDTO(date.atStartOfDay(), date.atTime(9, 0)),
+                new FreeIntervalDTO(date.atTime(10, 0), date.atTime(15, 45)),
+                new FreeIntervalDTO(date.atTime(16, 15), date.atTime(23, 30)));
+        softly.assertAll();
+        verify(index, never()).isFree(anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test a day with an unaligned booking falls back to the index only when the bits are set")
+    public void testUnalignedDayFallsBack() {
+        index.add("Room1", date.atTime(10, 5), date.atTime(10, 20));
+
+        softly.assertThat(calendar.day("Room1", date).exact()).isFalse();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(9, 0), date.atTime(10, 0))).isTrue();
+        verify(index, never()).isFree(anyString(), any(), any());
+        softly.assertThat(calendar.isFree("Room1", date.atTime(10, 0), date.atTime(10, 5))).isTrue();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(10, 20), date.atTime(10, 45))).isTrue();
+        softly.assertThat(calendar.isFree("Room1", date.atTime(10, 10), date.atTime(10, 15))).isFalse();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test a write rebuilds the days of its room only and old days can be evicted")
+    public void testWritesAndEviction() {
+        index.add("Room2", date.atTime(9, 0), date.atTime(10, 0));
+        calendar.day("Room1", date);
+        calendar.day("Room2", date);
+        calendar.day("Room2", date.minusDays(3));
+
+        index.add("Room1", date.atTime(12, 0), date.atTime(13, 0));
+        softly.assertThat(calendar.isFree("Room1", date.atTime(12, 0), date.atTime(13, 0))).isFalse();
+        index.remove("Room1", date.atTime(12, 0));
+        softly.assertThat(calendar.isFree("Room1", date.atTime(12, 0), date.atTime(13, 0))).isTrue();
+        long misses = calendar.getDays().getMisses();
+        softly.assertThat(calendar.isFree("Room2", date.atTime(9, 30), date.atTime(9, 45))).isFalse();
+        softly.assertThat(calendar.getDays().getMisses()).isEqualTo(misses);
+
+        index.rebuild(List::of, List::of);
+        softly.assertThat(calendar.isFree("Room2", date.atTime(9, 30), date.atTime(9, 45))).isTrue();
+
+        calendar.evictBefore(date);
+        softly.assertThat(calendar.getDays().size()).isEqualTo(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test the slots of both words and the end of the day are tracked")
+    public void testDayOccupancyBits() {
+        DayOccupancy day = DayOccupancy.of(date, List.of(
+                Map.entry(date.atTime(15, 45), date.atTime(16, 15)),
+                Map.entry(date.atTime(23, 45), date.plusDays(1).atTime(1, 0)),
+                Map.entry(date.minusDays(1).atTime(22, 0), date.atStartOfDay())));
+
+        softly.assertThat(day.isClear(62, 63)).isTrue();
+        softly.assertThat(day.isClear(63, 64)).isFalse();
+        softly.assertThat(day.isClear(64, 65)).isFalse();
+        softly.assertThat(day.isClear(65, 95)).isTrue();
+        softly.assertThat(day.isClear(95, 96)).isFalse();
+        softly.assertThat(day.isClear(0, 1)).isTrue();
+        softly.assertThat(DayOccupancy.of(date, List.of(Map.entry(date.atStartOfDay(), date.plusDays(1).atStartOfDay())))
+                .freeIntervals()).isEmpty();
+        softly.assertThat(DayOccupancy.of(date, List.of()).freeIntervals())
+                .containsExactly(new FreeIntervalDTO(date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test free slots and availability checks from cached bits match a scan of the day's bookings")
+    public void testMatchesListScan() {
+        BookingIntervalIndex plainIndex = new BookingIntervalIndex();
+        OccupancyCalendar plainCalendar = new OccupancyCalendar(plainIndex);
+        String[] roomNames = new String[1_000];
+        for (int r = 0; r < roomNames.length; r++) {
+            roomNames[r] = "Room" + r;
+            for (int h = 8; h < 18; h++) {
+                if ((r + h) % 3 != 0) {
+                    plainIndex.add(roomNames[r], date.atTime(h, 0), date.atTime(h, 45));
+                }
+            }
+        }
+
+        for (String roomName : roomNames) {
+            softly.assertThat(bitFreeSlots(plainCalendar.day(roomName, date))).isEqualTo(scanFreeSlots(plainIndex, roomName));
+            for (int h = 0; h < 24; h++) {
+                softly.assertThat(plainCalendar.isFree(roomName, date.atTime(h, 30), date.atTime(h, 50)))
+                        .isEqualTo(plainIndex.isFree(roomName, date.atTime(h, 30), date.atTime(h, 50)));
+            }
+        }
+        for (String roomName : List.of("Room0", "Room1", "Room2")) {
+            softly.assertThat(plainCalendar.day(roomName, date).freeIntervals())
+                    .isEqualTo(scanFreeIntervals(plainIndex, roomName));
+        }
+        softly.assertAll();
+    }
+
+    private List<LocalDateTime> scanFreeSlots(BookingIntervalIndex index, String roomName) {
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (FreeIntervalDTO interval : scanFreeIntervals(index, roomName)) {
+            long offset = Duration.between(date.atStartOfDay(), interval.start()).toMinutes();
+            LocalDateTime slot = date.atStartOfDay().plusMinutes((offset + 14) / 15 * 15);
+            while (!slot.plusMinutes(15).isAfter(interval.end())) {
+                slots.add(slot);
+                slot = slot.plusMinutes(15);
+            }
+        }
+        return slots;
+    }
+
+    private List<LocalDateTime> bitFreeSlots(DayOccupancy day) {
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (int slot = 0; slot < DayOccupancy.SLOTS; slot++) {
+            if (day.isClear(slot, slot + 1)) {
+                slots.add(date.atStartOfDay().plusMinutes(slot * 15L));
+            }
+        }
+        return slots;
+    }
+
+    private List<FreeIntervalDTO> scanFreeIntervals(BookingIntervalIndex index, String roomName) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        List<FreeIntervalDTO> freeIntervals = new ArrayList<>();
+        LocalDateTime cursor = dayStart;
+        for (Map.Entry<LocalDateTime, LocalDateTime> interval : index.intervalsIn(roomName, dayStart, dayEnd)) {
+            if (interval.getKey().isAfter(cursor)) {
+                freeIntervals.add(new FreeIntervalDTO(cursor, interval.getKey()));
+            }
+            if (interval.getValue().isAfter(cursor)) {
+                cursor = interval.getValue();
+            }
+        }
+        if (cursor.isBefore(dayEnd)) {
+            freeIntervals.add(new FreeIntervalDTO(cursor, dayEnd));
+        }
+        return freeIntervals;
+    }
+}
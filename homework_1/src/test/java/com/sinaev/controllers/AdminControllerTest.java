@@ -0,0 +1,121 @@
+package com.sinaev.controllers;
+
+import com.sinaev.models.dto.BookingImportReportDTO;
+import com.sinaev.models.dto.BookingIndexReportDTO;
+import com.sinaev.models.dto.LatencyStatsDTO;
+import com.sinaev.services.AdminService;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class AdminControllerTest {
+
+    @Mock
+    private AdminService adminService;
+
+    @Mock
+    private HttpServletRequest httpRequest;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test booking index verification")
+    public void testVerifyBookingIndex() {
+        BookingIndexReportDTO report = new BookingIndexReportDTO(3, 4, List.of("Room1"));
+        when(adminService.verifyBookingIndex(httpRequest)).thenReturn(report);
+
+        ResponseEntity<?> response = adminController.verifyBookingIndex(httpRequest);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(response.getBody()).isEqualTo(report);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test booking index rebuild without admin access")
+    public void testRebuildBookingIndexNotAdmin() {
+        when(adminService.rebuildBookingIndex(httpRequest)).thenThrow(new SecurityException("You do not have admin user access"));
+
+        ResponseEntity<?> response = adminController.rebuildBookingIndex(httpRequest);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(400);
+        softly.assertThat(response.getBody()).isEqualTo("You do not have admin user access");
+        verify(adminService, times(1)).rebuildBookingIndex(httpRequest);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test bookings import streams the request body")
+    public void testImportBookings() throws IOException {
+        ServletInputStream body = mock(ServletInputStream.class);
+        BookingImportReportDTO report = new BookingImportReportDTO(3, 2, 1);
+        when(httpRequest.getInputStream()).thenReturn(body);
+        when(adminService.importBookings(httpRequest, body)).thenReturn(report);
+
+        ResponseEntity<?> response = adminController.importBookings(httpRequest);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(response.getBody()).isEqualTo(report);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test bookings export writes CSV and checks admin access before streaming")
+    public void testExportBookings() throws IOException {
+        when(adminService.exportBookings(httpRequest)).thenReturn(outputStream -> {
+            try {
+                outputStream.write("username,room_name,start_time,end_time\n".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        ResponseEntity<?> response = adminController.exportBookings(httpRequest);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+
+        softly.assertThat(response.getHeaders().getContentType()).hasToString("text/csv");
+        softly.assertThat(outputStream.toString(StandardCharsets.UTF_8)).startsWith("username,room_name");
+
+        when(adminService.exportBookings(httpRequest)).thenThrow(new SecurityException("You do not have admin user access"));
+        softly.assertThat(adminController.exportBookings(httpRequest).getStatusCodeValue()).isEqualTo(400);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test method latency statistics")
+    public void testGetLatencyStats() {
+        List<LatencyStatsDTO> stats = List.of(new LatencyStatsDTO("BookingServiceImpl.createBooking", 10, 1, 0.5, 0.9, 1.2, 1.2, 1.2));
+        when(adminService.getLatencyStats(httpRequest)).thenReturn(stats);
+
+        ResponseEntity<?> response = adminController.getLatencyStats(httpRequest);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(response.getBody()).isEqualTo(stats);
+        softly.assertAll();
+    }
+}
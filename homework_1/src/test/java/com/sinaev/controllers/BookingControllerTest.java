@@ -1,11 +1,23 @@
 package com.sinaev.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sinaev.exceptions.BookingIsNotAvailableException;
+import com.sinaev.models.dto.AvailableHoursDTO;
+import com.sinaev.models.dto.BookingBatchItemDTO;
+import com.sinaev.models.dto.BookingConflictDTO;
 import com.sinaev.models.dto.BookingDTO;
+import com.sinaev.models.dto.BookingPageDTO;
+import com.sinaev.models.dto.BookingSeriesDTO;
+import com.sinaev.models.dto.FreeIntervalDTO;
+import com.sinaev.models.dto.RoomCandidateDTO;
 import com.sinaev.models.entities.Booking;
+import com.sinaev.models.enums.RecurrenceFrequency;
+import com.sinaev.models.enums.RoomType;
+import com.sinaev.models.requests.booking.FilterBookingsPageRequest;
 import com.sinaev.models.requests.booking.FilterBookingsRequest;
 import com.sinaev.models.requests.booking.GetAvailableHoursRequest;
 import com.sinaev.models.requests.booking.RemoveBookingRequest;
+import com.sinaev.models.requests.booking.SearchRoomsRequest;
 import com.sinaev.models.requests.booking.UpdateBookingRequest;
 import com.sinaev.services.BookingService;
 import org.assertj.core.api.SoftAssertions;
@@ -17,15 +29,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 
@@ -37,6 +55,9 @@ public class BookingControllerTest {
     @Mock
     private HttpServletRequest httpRequest;
 
+    @Spy
+    private ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder().build();
+
     @InjectMocks
     private BookingController bookingController;
 
@@ -77,11 +98,79 @@ public class BookingControllerTest {
         softly.assertAll();
     }
 
+    @Test
+    @DisplayName("Test booking creation conflict returns the proposed alternatives")
+    public void testCreateBookingConflict() {
+        LocalDateTime start = LocalDate.now().atTime(10, 0);
+        BookingDTO bookingDTO = new BookingDTO("username", "roomName", start, start.plusHours(1));
+        BookingConflictDTO conflict = new BookingConflictDTO("Booking is not available",
+                List.of(new FreeIntervalDTO(start.plusHours(2), start.plusHours(3))),
+                List.of(new RoomCandidateDTO("otherRoom", "MEETING_ROOM", start, start.plusHours(1), start.plusHours(4))));
+        doThrow(new BookingIsNotAvailableException("Booking is not available", conflict))
+                .when(bookingService).createBooking(httpRequest, bookingDTO);
+
+        ResponseEntity<?> response = bookingController.create(httpRequest, bookingDTO);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(400);
+        softly.assertThat(response.getBody()).isEqualTo(conflict);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test batch booking creation returns the result of each booking")
+    public void testCreateBatch() {
+        List<BookingDTO> bookingDTOs = List.of(
+                new BookingDTO("username", "roomName", LocalDateTime.now(), LocalDateTime.now().plusHours(1)),
+                new BookingDTO("username", "otherRoom", LocalDateTime.now(), LocalDateTime.now().plusHours(1)));
+        List<BookingBatchItemDTO> results = List.of(
+                new BookingBatchItemDTO(0, true, null),
+                new BookingBatchItemDTO(1, false, "Room not found"));
+        when(bookingService.createBookings(httpRequest, bookingDTOs)).thenReturn(results);
+
+        ResponseEntity<?> response = bookingController.createBatch(httpRequest, bookingDTOs);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(response.getBody()).isEqualTo(results);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test booking series creation returns the ID of the series")
+    public void testCreateSeries() {
+        BookingSeriesDTO seriesDTO = new BookingSeriesDTO(null, null, "roomName", LocalDateTime.now(),
+                LocalDateTime.now().plusHours(1), RecurrenceFrequency.WEEKLY, 1, 10, null, null);
+        when(bookingService.createBookingSeries(httpRequest, seriesDTO)).thenReturn(7L);
+
+        ResponseEntity<?> response = bookingController.createSeries(httpRequest, seriesDTO);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(response.getBody()).isEqualTo("Booking series 7 created");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test free room search returns the ranked candidates")
+    public void testSearch() {
+        LocalDateTime start = LocalDate.now().atTime(14, 0);
+        SearchRoomsRequest request = new SearchRoomsRequest(start, start.plusHours(4), 60, RoomType.MEETING_ROOM, 5);
+        List<RoomCandidateDTO> candidates = List.of(
+                new RoomCandidateDTO("roomName", "MEETING_ROOM", start, start.plusHours(1), start.plusHours(4)));
+        when(bookingService.searchRooms(request)).thenReturn(candidates);
+
+        ResponseEntity<?> response = bookingController.search(request);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(response.getBody()).isEqualTo(candidates);
+        softly.assertAll();
+    }
+
     @Test
     @DisplayName("Test get available hours")
     public void testGetAvailableHours() {
-        GetAvailableHoursRequest request = new GetAvailableHoursRequest(LocalDate.now(), "roomName");
-        List<LocalTime> hours = Arrays.asList(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        GetAvailableHoursRequest request = new GetAvailableHoursRequest(LocalDate.now(), "roomName", 30);
+        AvailableHoursDTO hours = new AvailableHoursDTO(30,
+                Arrays.asList(LocalTime.of(9, 0), LocalTime.of(9, 30)),
+                List.of(new FreeIntervalDTO(LocalDate.now().atTime(9, 0), LocalDate.now().atTime(10, 0))));
         when(bookingService.getAvailableHours(request)).thenReturn(hours);
 
         ResponseEntity<?> response = bookingController.getAvailableHours(request);
@@ -106,6 +195,19 @@ public class BookingControllerTest {
         softly.assertAll();
     }
 
+    @Test
+    @DisplayName("Test get available hours with unsupported slot length")
+    public void testGetAvailableHoursInvalidSlot() {
+        GetAvailableHoursRequest request = new GetAvailableHoursRequest(LocalDate.now(), "roomName", 7);
+        doThrow(new IllegalArgumentException("Slot length must evenly divide a day")).when(bookingService).getAvailableHours(request);
+
+        ResponseEntity<?> response = bookingController.getAvailableHours(request);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(400);
+        softly.assertThat(response.getBody()).isEqualTo("Slot length must evenly divide a day");
+        softly.assertAll();
+    }
+
     @Test
     @DisplayName("Test successful booking update")
     public void testUpdateBookingSuccess() {
@@ -190,4 +292,56 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).filterBookings(request);
         softly.assertAll();
     }
+
+    @Test
+    @DisplayName("Test filter bookings page")
+    public void testFilterBookingsPage() {
+        FilterBookingsPageRequest request = new FilterBookingsPageRequest(null, "username", null, null, null, 1);
+        BookingDTO booking = new BookingDTO("username", "roomName", LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+        BookingPageDTO page = new BookingPageDTO(List.of(booking), booking.startTime(), 7L);
+        when(bookingService.filterBookingsPage(request)).thenReturn(page);
+
+        ResponseEntity<?> response = bookingController.filterPage(request);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(response.getBody()).isEqualTo(page);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test filter bookings page with invalid cursor")
+    public void testFilterBookingsPageException() {
+        FilterBookingsPageRequest request = new FilterBookingsPageRequest(null, null, null, LocalDateTime.now(), null, null);
+        when(bookingService.filterBookingsPage(request)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        ResponseEntity<?> response = bookingController.filterPage(request);
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(400);
+        softly.assertThat(response.getBody()).isEqualTo("Invalid cursor");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test stream filtered bookings as a JSON array")
+    @SuppressWarnings("unchecked")
+    public void testFilterBookingsStream() throws Exception {
+        FilterBookingsRequest request = new FilterBookingsRequest(null, null, "roomName");
+        BookingDTO booking1 = new BookingDTO("username1", "roomName", LocalDateTime.of(2024, 6, 20, 10, 0), LocalDateTime.of(2024, 6, 20, 11, 0));
+        BookingDTO booking2 = new BookingDTO("username2", "roomName", LocalDateTime.of(2024, 6, 20, 12, 0), LocalDateTime.of(2024, 6, 20, 13, 0));
+        doAnswer(invocation -> {
+            Consumer<BookingDTO> consumer = invocation.getArgument(1);
+            consumer.accept(booking1);
+            consumer.accept(booking2);
+            return null;
+        }).when(bookingService).streamBookings(eq(request), any());
+
+        ResponseEntity<StreamingResponseBody> response = bookingController.filterStream(request);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        BookingDTO[] written = objectMapper.readValue(outputStream.toString(StandardCharsets.UTF_8), BookingDTO[].class);
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        softly.assertThat(written).containsExactly(booking1, booking2);
+        softly.assertAll();
+    }
 }
\ No newline at end of file
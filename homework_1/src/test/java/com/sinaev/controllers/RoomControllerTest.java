@@ -1,6 +1,7 @@
 package com.sinaev.controllers;
 
 import com.sinaev.exceptions.ObjectAlreadyExistsException;
+import com.sinaev.models.dto.RoomCatalogDTO;
 import com.sinaev.models.dto.RoomDTO;
 import com.sinaev.models.requests.room.UpdateRoomRequest;
 import com.sinaev.services.RoomService;
@@ -73,13 +74,28 @@ public class RoomControllerTest {
         RoomDTO room1 = new RoomDTO("newRoom1", "WORKSPACE");
         RoomDTO room2 = new RoomDTO("newRoom2", "WORKSPACE");
         List<RoomDTO> rooms = Arrays.asList(room1, room2);
-        when(roomService.getRooms()).thenReturn(rooms);
+        when(roomService.getRoomCatalog()).thenReturn(new RoomCatalogDTO("\"abc\"", rooms));
 
-        ResponseEntity<List<RoomDTO>> response = roomController.getAll();
+        ResponseEntity<List<RoomDTO>> response = roomController.getAll(null);
 
         softly.assertThat(response.getStatusCodeValue()).isEqualTo(200);
         softly.assertThat(response.getBody()).isEqualTo(rooms);
-        verify(roomService, times(1)).getRooms();
+        softly.assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+        verify(roomService, times(1)).getRoomCatalog();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test unchanged room list is answered with 304")
+    public void testGetAllRoomsNotModified() {
+        List<RoomDTO> rooms = List.of(new RoomDTO("newRoom1", "WORKSPACE"));
+        when(roomService.getRoomCatalog()).thenReturn(new RoomCatalogDTO("\"abc\"", rooms));
+
+        ResponseEntity<List<RoomDTO>> response = roomController.getAll("\"abc\"");
+
+        softly.assertThat(response.getStatusCodeValue()).isEqualTo(304);
+        softly.assertThat(response.getBody()).isNull();
+        softly.assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
         softly.assertAll();
     }
 
@@ -35,7 +35,7 @@ public class UserControllerTest {
     @DisplayName("Test successful login")
     public void testLoginSuccess() {
         UserDTO userDTO = new UserDTO("username", "password", false);
-        doNothing().when(userService).login(httpRequest, userDTO);
+        when(userService.login(httpRequest, userDTO)).thenReturn(null);
 
         ResponseEntity<?> response = userController.login(httpRequest, userDTO);
 
@@ -0,0 +1,225 @@
+package com.sinaev.handlers;
+
+import com.sinaev.configs.properties.AuditProperties;
+import com.sinaev.models.entities.AuditLog;
+import com.sinaev.models.enums.AuditOverflowPolicy;
+import com.sinaev.repositories.AuditLogRepository;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AuditLogWriterTest {
+
+    private RecordingAuditLogRepository auditLogRepository;
+    private AuditProperties auditProperties;
+    private SoftAssertions softly;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() {
+        auditLogRepository = new RecordingAuditLogRepository();
+        auditProperties = new AuditProperties();
+        auditProperties.setQueueCapacity(100);
+        auditProperties.setBatchSize(10);
+        auditProperties.setFlushIntervalMs(50);
+        auditProperties.setShutdownTimeoutMs(1000);
+        auditProperties.setOverflowPolicy(AuditOverflowPolicy.BLOCK);
+        auditProperties.setSpillFile(tempDir.resolve("audit-spill.log").toString());
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test entries are written in batches no larger than the batch size")
+    public void testWritesInBatches() throws InterruptedException {
+        AuditLogWriter writer = new AuditLogWriter(auditLogRepository, auditProperties);
+        writer.start();
+
+        for (int i = 0; i < 25; i++) {
+            writer.submit(auditLog(i));
+        }
+        writer.stop();
+
+        softly.assertThat(auditLogRepository.saved()).hasSize(25);
+        softly.assertThat(auditLogRepository.batchSizes()).allMatch(size -> size <= 10);
+        softly.assertThat(writer.getQueued()).isEqualTo(25);
+        softly.assertThat(writer.getWritten()).isEqualTo(25);
+        softly.assertThat(writer.getDropped()).isZero();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test a partial batch is flushed after the flush interval")
+    public void testFlushesByTime() throws InterruptedException {
+        AuditLogWriter writer = new AuditLogWriter(auditLogRepository, auditProperties);
+        writer.start();
+
+        writer.submit(auditLog(1));
+
+        softly.assertThat(auditLogRepository.awaitSaved(1, 2, TimeUnit.SECONDS)).isTrue();
+        softly.assertThat(awaitWritten(writer, 1, 2, TimeUnit.SECONDS)).isTrue();
+        softly.assertThat(writer.getWritten()).isEqualTo(1);
+        writer.stop();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test the oldest entries are dropped when the queue is full")
+    public void testDropOldest() throws InterruptedException {
+        auditProperties.setQueueCapacity(3);
+        auditProperties.setOverflowPolicy(AuditOverflowPolicy.DROP_OLDEST);
+        auditLogRepository.block();
+        AuditLogWriter writer = new AuditLogWriter(auditLogRepository, auditProperties);
+        writer.start();
+
+        writer.submit(auditLog(0));
+        auditLogRepository.awaitWriting();
+        for (int i = 1; i <= 5; i++) {
+            writer.submit(auditLog(i));
+        }
+        auditLogRepository.release();
+        writer.stop();
+
+        softly.assertThat(writer.getDropped()).isEqualTo(2);
+        softly.assertThat(auditLogRepository.saved()).extracting(AuditLog::getAction)
+                .containsExactly("action0", "action3", "action4", "action5");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test entries that do not fit into the queue are spilled to a file")
+    public void testSpill() throws InterruptedException, IOException {
+        auditProperties.setQueueCapacity(1);
+        auditProperties.setOverflowPolicy(AuditOverflowPolicy.SPILL);
+        auditLogRepository.block();
+        AuditLogWriter writer = new AuditLogWriter(auditLogRepository, auditProperties);
+        writer.start();
+
+        writer.submit(auditLog(0));
+        auditLogRepository.awaitWriting();
+        writer.submit(auditLog(1));
+        writer.submit(auditLog(2));
+        writer.submit(auditLog(3));
+        auditLogRepository.release();
+        writer.stop();
+
+        List<String> spilled = Files.readAllLines(Path.of(auditProperties.getSpillFile()));
+        softly.assertThat(writer.getSpilled()).isEqualTo(2);
+        softly.assertThat(spilled).hasSize(2);
+        softly.assertThat(spilled.get(0)).endsWith("\tuser\taction2");
+        softly.assertThat(auditLogRepository.saved()).extracting(AuditLog::getAction)
+                .containsExactly("action0", "action1");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test entries of a failed batch are counted as dropped")
+    public void testFailedBatchIsDropped() throws InterruptedException {
+        auditLogRepository.fail();
+        AuditLogWriter writer = new AuditLogWriter(auditLogRepository, auditProperties);
+        writer.start();
+
+        writer.submit(auditLog(1));
+        writer.submit(auditLog(2));
+        writer.stop();
+
+        softly.assertThat(writer.getWritten()).isZero();
+        softly.assertThat(writer.getDropped()).isEqualTo(2);
+        softly.assertAll();
+    }
+
+    private static boolean awaitWritten(AuditLogWriter writer, long count, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (writer.getWritten() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return writer.getWritten() >= count;
+    }
+
+    private AuditLog auditLog(int i) {
+        return new AuditLog("user", "action" + i, LocalDateTime.of(2024, 6, 20, 10, 0).plusSeconds(i));
+    }
+
+    /**
+     * Audit log repository that records saved batches and can hold or fail writes.
+     */
+    private static class RecordingAuditLogRepository extends AuditLogRepository {
+        private final List<AuditLog> saved = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private volatile CountDownLatch released = new CountDownLatch(0);
+        private volatile boolean failing;
+
+        RecordingAuditLogRepository() {
+            super(null);
+        }
+
+        @Override
+        public int saveAll(List<AuditLog> auditLogs) {
+            writing.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                return 0;
+            }
+            batchSizes.add(auditLogs.size());
+            saved.addAll(auditLogs);
+            synchronized (this) {
+                notifyAll();
+            }
+            return auditLogs.size();
+        }
+
+        void block() {
+            released = new CountDownLatch(1);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        void fail() {
+            failing = true;
+        }
+
+        void awaitWriting() throws InterruptedException {
+            writing.await(2, TimeUnit.SECONDS);
+        }
+
+        synchronized boolean awaitSaved(int count, long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (saved.size() < count) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return true;
+        }
+
+        List<AuditLog> saved() {
+            return new ArrayList<>(saved);
+        }
+
+        List<Integer> batchSizes() {
+            return new ArrayList<>(batchSizes);
+        }
+    }
+}
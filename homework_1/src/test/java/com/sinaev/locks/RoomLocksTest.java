@@ -0,0 +1,138 @@
+package com.sinaev.locks;
+
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.configs.properties.BookingProperties;
+import com.sinaev.models.enums.RoomLockMode;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RoomLocksTest {
+    private static final int ROOMS = 20;
+    private static final int ATTEMPTS_PER_THREAD = 2_000;
+
+    private RoomLocks roomLocks;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() {
+        BookingProperties bookingProperties = new BookingProperties();
+        bookingProperties.setLockMode(RoomLockMode.LOCAL);
+        bookingProperties.setLockStripes(16);
+        roomLocks = new RoomLocks(bookingProperties, null);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test a room on another stripe is not blocked by a held room lock")
+    public void testOtherRoomsProceed() throws InterruptedException {
+        String roomA = "Room0";
+        String roomB = roomOnOtherStripe(roomA);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> roomLocks.withRooms(List.of(roomA), () -> {
+            held.countDown();
+            await(release);
+        }));
+        holder.start();
+        held.await();
+
+        CountDownLatch otherRoomDone = new CountDownLatch(1);
+        Thread other = new Thread(() -> roomLocks.withRooms(List.of(roomB), otherRoomDone::countDown));
+        other.start();
+        softly.assertThat(otherRoomDone.await(2, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch sameRoomDone = new CountDownLatch(1);
+        Thread same = new Thread(() -> roomLocks.withRooms(List.of(roomB, roomA), sameRoomDone::countDown));
+        same.start();
+        softly.assertThat(sameRoomDone.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        softly.assertThat(sameRoomDone.await(2, TimeUnit.SECONDS)).isTrue();
+        holder.join();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Stress: concurrent check-then-write never double books a room")
+    public void testNoDoubleBookingsUnderContention() throws InterruptedException {
+        LocalDateTime day = LocalDateTime.of(2024, 6, 20, 0, 0);
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            BookingIntervalIndex index = new BookingIntervalIndex();
+            Map<String, List<LocalDateTime[]>> written = new ConcurrentHashMap<>();
+            AtomicLong booked = new AtomicLong();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    await(start);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        String room = "Room" + random.nextInt(ROOMS);
+                        LocalDateTime from = day.plusMinutes(15L * random.nextInt(96));
+                        LocalDateTime to = from.plusMinutes(15L * (1 + random.nextInt(8)));
+                        roomLocks.withRooms(List.of(room), () -> {
+                            if (index.isFree(room, from, to)) {
+                                Thread.yield();
+                                written.computeIfAbsent(room, name -> new CopyOnWriteArrayList<>()).add(new LocalDateTime[]{from, to});
+                                index.add(room, from, to);
+                                booked.incrementAndGet();
+                            }
+                        });
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            softly.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+            softly.assertThat(booked.get()).as("bookings with %d threads", threads).isPositive();
+            softly.assertThat(doubleBookings(written)).as("double bookings with %d threads", threads).isZero();
+        }
+        softly.assertAll();
+    }
+
+    private String roomOnOtherStripe(String room) {
+        for (int i = 1; ; i++) {
+            if (roomLocks.stripeOf("Room" + i) != roomLocks.stripeOf(room)) {
+                return "Room" + i;
+            }
+        }
+    }
+
+    private long doubleBookings(Map<String, List<LocalDateTime[]>> written) {
+        long overlaps = 0;
+        for (List<LocalDateTime[]> bookings : written.values()) {
+            List<LocalDateTime[]> sorted = new ArrayList<>(bookings);
+            sorted.sort(Comparator.comparing(booking -> booking[0]));
+            for (int i = 1; i < sorted.size(); i++) {
+                if (sorted.get(i)[0].isBefore(sorted.get(i - 1)[1])) {
+                    overlaps++;
+                }
+            }
+        }
+        return overlaps;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sinaev.metrics;
+
+import com.sinaev.configs.properties.JdbcProperties;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class InstrumentedDataSourceTest {
+
+    private static final String SQL = "SELECT * FROM rooms WHERE room_name = ?";
+
+    private Connection connection;
+    private JdbcMetrics jdbcMetrics;
+    private InstrumentedDataSource dataSource;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        jdbcMetrics = new JdbcMetrics();
+        JdbcProperties jdbcProperties = new JdbcProperties();
+        jdbcProperties.setSlowQueryThresholdMs(0);
+        dataSource = new InstrumentedDataSource(target, jdbcMetrics, jdbcProperties);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test prepared statements are timed under their SQL and failures are counted")
+    public void testTimesPreparedStatements() throws SQLException {
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(SQL)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1).thenThrow(new SQLException("boom"));
+
+        try (Connection wrapped = dataSource.getConnection();
+             PreparedStatement statement = wrapped.prepareStatement(SQL)) {
+            statement.setString(1, "Room1");
+            softly.assertThat(statement.executeUpdate()).isEqualTo(1);
+            assertThatThrownBy(statement::executeUpdate).isInstanceOf(SQLException.class).hasMessage("boom");
+        }
+
+        LatencyHistogram histogram = jdbcMetrics.getHistograms().get(SQL);
+        softly.assertThat(LatencyHistogram.count(histogram.snapshot())).isEqualTo(2);
+        softly.assertThat(histogram.getErrors()).isEqualTo(1);
+        verify(preparedStatement).setString(1, "Room1");
+        verify(preparedStatement).close();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test plain statements are timed under the executed SQL")
+    public void testTimesPlainStatements() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+
+        try (Connection wrapped = dataSource.getConnection()) {
+            wrapped.createStatement().execute("ANALYZE");
+        }
+
+        softly.assertThat(jdbcMetrics.getHistograms()).containsOnlyKeys("ANALYZE");
+        verify(connection).close();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test statements and connection borrows are counted per thread")
+    public void testCountsStatementsAndConnections() throws SQLException {
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(SQL)).thenReturn(preparedStatement);
+        QueryCounter.reset();
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection wrapped = dataSource.getConnection();
+                 PreparedStatement statement = wrapped.prepareStatement(SQL)) {
+                statement.setString(1, "Room" + i);
+                statement.setFetchSize(10);
+                statement.executeQuery();
+                statement.executeQuery();
+            }
+        }
+
+        softly.assertThat(QueryCounter.statements()).isEqualTo(6);
+        softly.assertThat(QueryCounter.connections()).isEqualTo(3);
+        QueryCounter.reset();
+        softly.assertThat(QueryCounter.statements()).isZero();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test statements beyond the bound share the overflow histogram")
+    public void testBoundsStatements() {
+        for (int i = 0; i < JdbcMetrics.MAX_STATEMENTS + 10; i++) {
+            jdbcMetrics.histogram("SELECT " + i).record(1, false);
+        }
+
+        softly.assertThat(jdbcMetrics.getHistograms()).hasSize(JdbcMetrics.MAX_STATEMENTS + 1);
+        softly.assertThat(LatencyHistogram.count(jdbcMetrics.getHistograms().get(JdbcMetrics.OTHER).snapshot())).isEqualTo(10);
+        softly.assertAll();
+    }
+}
@@ -0,0 +1,79 @@
+package com.sinaev.metrics;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() {
+        histogram = new LatencyHistogram();
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test every value falls into a bucket whose upper bound is within the relative error")
+    public void testBucketBounds() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456, 10_000_000, 987_654_321_000L, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upperBound = LatencyHistogram.upperBoundOf(bucket);
+            softly.assertThat(bucket).as("bucket of %d", value).isBetween(0, LatencyHistogram.BUCKET_COUNT - 1);
+            softly.assertThat(upperBound).as("upper bound of %d", value).isGreaterThanOrEqualTo(value);
+            softly.assertThat((double) (upperBound - value)).as("error of %d", value)
+                    .isLessThanOrEqualTo((double) value / LatencyHistogram.SUB_BUCKETS);
+        }
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test percentiles, max, count and errors of recorded calls")
+    public void testPercentiles() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L, i % 100 == 0);
+        }
+
+        long[] counts = histogram.snapshot();
+
+        softly.assertThat(LatencyHistogram.count(counts)).isEqualTo(1000);
+        softly.assertThat(histogram.getErrors()).isEqualTo(10);
+        softly.assertThat(histogram.getMaxNanos()).isEqualTo(1_000_000);
+        softly.assertThat((double) LatencyHistogram.valueAtQuantile(counts, 0.5)).isCloseTo(500_000, within(500_000 / 16.0));
+        softly.assertThat((double) LatencyHistogram.valueAtQuantile(counts, 0.9)).isCloseTo(900_000, within(900_000 / 16.0));
+        softly.assertThat((double) LatencyHistogram.valueAtQuantile(counts, 0.99)).isCloseTo(990_000, within(990_000 / 16.0));
+        softly.assertThat(LatencyHistogram.valueAtQuantile(new long[LatencyHistogram.BUCKET_COUNT], 0.5)).isZero();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test concurrent recording loses no calls")
+    public void testConcurrentRecording() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long base = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(base * 1_000 + i, false);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        softly.assertThat(LatencyHistogram.count(histogram.snapshot())).isEqualTo(80_000);
+        softly.assertThat(histogram.getMaxNanos()).isEqualTo(7 * 1_000 + 9_999);
+        softly.assertAll();
+    }
+}
@@ -0,0 +1,90 @@
+package com.sinaev.metrics;
+
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.UserCache;
+import com.sinaev.configs.properties.TokenProperties;
+import com.sinaev.configs.properties.UserProperties;
+import com.sinaev.handlers.AuditLogWriter;
+import com.sinaev.security.SessionTokens;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.*;
+
+public class PrometheusExporterTest {
+
+    private JdbcMetrics jdbcMetrics;
+    private MethodMetrics methodMetrics;
+    private AuditLogWriter auditLogWriter;
+    private PrometheusExporter exporter;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        jdbcMetrics = new JdbcMetrics();
+        methodMetrics = new MethodMetrics();
+        auditLogWriter = mock(AuditLogWriter.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.isWrapperFor(any())).thenReturn(false);
+        exporter = new PrometheusExporter(new RequestMetrics(), methodMetrics, jdbcMetrics, dataSource, auditLogWriter,
+                new NameIdCache(), new UserCache(new UserProperties()), new SessionTokens(new TokenProperties()));
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test histograms are written with cumulative buckets, sum, count and errors")
+    public void testWritesHistograms() throws IOException {
+        LatencyHistogram histogram = jdbcMetrics.histogram("SELECT *\n  FROM rooms WHERE room_name = ?");
+        histogram.record(200_000, false);
+        histogram.record(3_000_000, false);
+        histogram.record(20_000_000_000L, true);
+
+        String text = scrape();
+
+        String label = "sql=\"SELECT * FROM rooms WHERE room_name = ?\"";
+        softly.assertThat(text).contains("# TYPE jdbc_statement_seconds histogram\n");
+        softly.assertThat(text).contains("jdbc_statement_seconds_bucket{" + label + ",le=\"0.0005\"} 1\n");
+        softly.assertThat(text).contains("jdbc_statement_seconds_bucket{" + label + ",le=\"0.005\"} 2\n");
+        softly.assertThat(text).contains("jdbc_statement_seconds_bucket{" + label + ",le=\"10\"} 2\n");
+        softly.assertThat(text).contains("jdbc_statement_seconds_bucket{" + label + ",le=\"+Inf\"} 3\n");
+        softly.assertThat(text).contains("jdbc_statement_seconds_count{" + label + "} 3\n");
+        softly.assertThat(text).contains("jdbc_statement_seconds_sum{" + label + "} 20.0032\n");
+        softly.assertThat(text).contains("jdbc_statement_errors_total{" + label + "} 1\n");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test audit writer gauges and counters are written")
+    public void testWritesAuditMetrics() throws IOException {
+        when(auditLogWriter.getPending()).thenReturn(7);
+        when(auditLogWriter.getDropped()).thenReturn(2L);
+
+        String text = scrape();
+
+        softly.assertThat(text).contains("# TYPE audit_queue_depth gauge\naudit_queue_depth 7\n");
+        softly.assertThat(text).contains("# TYPE audit_entries_dropped_total counter\naudit_entries_dropped_total 2\n");
+        softly.assertThat(text).doesNotContain("db_pool_");
+        softly.assertThat(text).contains("cache_misses_total{cache=\"rooms\"} 0\n");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test label values are escaped")
+    public void testEscapesLabels() {
+        softly.assertThat(PrometheusExporter.escape("a \"b\"\\c\nd")).isEqualTo("a \\\"b\\\"\\\\c\\nd");
+        softly.assertAll();
+    }
+
+    private String scrape() throws IOException {
+        StringWriter writer = new StringWriter();
+        exporter.write(writer);
+        return writer.toString();
+    }
+}
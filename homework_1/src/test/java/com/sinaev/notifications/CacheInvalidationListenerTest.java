@@ -0,0 +1,126 @@
+package com.sinaev.notifications;
+
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.UserCache;
+import com.sinaev.configs.properties.DatasourceProperties;
+import com.sinaev.configs.properties.InvalidationProperties;
+import com.sinaev.configs.properties.UserProperties;
+import com.sinaev.models.entities.Booking;
+import com.sinaev.models.entities.BookingSeries;
+import com.sinaev.models.entities.Room;
+import com.sinaev.models.entities.User;
+import com.sinaev.models.enums.RecurrenceFrequency;
+import com.sinaev.models.enums.RoomType;
+import com.sinaev.repositories.BookingRepository;
+import com.sinaev.repositories.BookingSeriesRepository;
+import com.sinaev.services.RoomService;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationListenerTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingSeriesRepository bookingSeriesRepository;
+
+    @Mock
+    private RoomService roomService;
+
+    private NameIdCache nameIdCache;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private CacheInvalidationListener listener;
+    private SoftAssertions softly;
+
+    private final LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        InvalidationProperties invalidationProperties = new InvalidationProperties();
+        invalidationProperties.setNodeId("node-a");
+        nameIdCache = new NameIdCache();
+        bookingIntervalIndex = new BookingIntervalIndex();
+        listener = new CacheInvalidationListener(invalidationProperties, new DatasourceProperties(),
+                new CacheInvalidationPublisher(invalidationProperties), nameIdCache, new UserCache(new UserProperties()), bookingIntervalIndex,
+                bookingRepository, bookingSeriesRepository, roomService);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test a booking notification reloads the intervals and series of the room")
+    public void testBookingNotification() {
+        BookingSeries series = new BookingSeries(new User("user1", "password", false), new Room("Room1", RoomType.WORKSPACE),
+                startTime.plusDays(1), startTime.plusDays(1).plusHours(1), RecurrenceFrequency.WEEKLY, 1, 4, null);
+        when(bookingRepository.findByRoomName("Room1")).thenReturn(List.of(booking("Room1")));
+        when(bookingSeriesRepository.findByRoomName("Room1")).thenReturn(List.of(series));
+
+        listener.handle("node-b:BOOKING:Room1");
+
+        softly.assertThat(bookingIntervalIndex.isFree("Room1", startTime, startTime.plusHours(1))).isFalse();
+        softly.assertThat(bookingIntervalIndex.isFree("Room1", startTime.plusDays(8), startTime.plusDays(8).plusHours(1))).isFalse();
+        softly.assertThat(listener.getReceived()).isEqualTo(1);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test a room notification evicts the room and refreshes the catalog")
+    public void testRoomNotification() {
+        nameIdCache.room("Room:1", name -> new Room(name, RoomType.WORKSPACE));
+        bookingIntervalIndex.add("Room:1", startTime, startTime.plusHours(1));
+        when(bookingRepository.findByRoomName("Room:1")).thenReturn(List.of());
+
+        listener.handle("node-b:ROOM:Room:1");
+
+        softly.assertThat(nameIdCache.getRooms().size()).isZero();
+        softly.assertThat(bookingIntervalIndex.size()).isZero();
+        verify(roomService).refreshRoomCatalog();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test own, malformed and unknown notifications are ignored")
+    public void testIgnoredNotifications() {
+        nameIdCache.userId("user1", name -> 1L);
+
+        listener.handle("node-a:USER:user1");
+        listener.handle("garbage");
+        listener.handle("node-b:UNKNOWN:user1");
+
+        softly.assertThat(nameIdCache.getUserIds().size()).isEqualTo(1);
+        softly.assertThat(listener.getReceived()).isZero();
+        verifyNoInteractions(bookingRepository, bookingSeriesRepository, roomService);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test a resync reloads every local cache")
+    public void testResync() {
+        nameIdCache.userId("user1", name -> 1L);
+        when(bookingRepository.findAll()).thenReturn(List.of(booking("Room1"), booking("Room2")));
+
+        listener.resync();
+
+        softly.assertThat(nameIdCache.getUserIds().size()).isZero();
+        softly.assertThat(bookingIntervalIndex.size()).isEqualTo(2);
+        softly.assertThat(listener.getResyncs()).isEqualTo(1);
+        verify(roomService).refreshRoomCatalog();
+        softly.assertAll();
+    }
+
+    private Booking booking(String roomName) {
+        return new Booking(new User("user1", "password", false), new Room(roomName, RoomType.WORKSPACE),
+                startTime, startTime.plusHours(1));
+    }
+}
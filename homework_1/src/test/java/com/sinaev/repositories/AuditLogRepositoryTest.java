@@ -38,6 +38,7 @@ class AuditLogRepositoryTest {
         ds.setUrl(postgreSQLContainer.getJdbcUrl());
         ds.setUser(postgreSQLContainer.getUsername());
         ds.setPassword(postgreSQLContainer.getPassword());
+        ds.setCurrentSchema("entity_schema");
         dataSource = ds;
     }
 
@@ -69,6 +70,24 @@ class AuditLogRepositoryTest {
         softly.assertAll();
     }
 
+    @Test
+    @DisplayName("Test save audit logs as one batch")
+    void testSaveAllAuditLogs() throws SQLException {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 6, 20, 10, 0);
+        List<AuditLog> batch = List.of(
+                new AuditLog("testUser", "firstAction", timestamp),
+                new AuditLog("otherUser", "secondAction", timestamp.plusSeconds(1)));
+
+        int saved = auditLogRepository.saveAll(batch);
+        List<AuditLog> auditLogs = fetchAllAuditLogs();
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(saved).isEqualTo(2);
+        softly.assertThat(auditLogs).extracting(AuditLog::getAction)
+                .containsExactlyInAnyOrder("firstAction", "secondAction");
+        softly.assertAll();
+    }
+
     private List<AuditLog> fetchAllAuditLogs() throws SQLException {
         List<AuditLog> auditLogs = new ArrayList<>();
         String fetchSQL = "SELECT username, action, timestamp FROM entity_schema.audit_log";
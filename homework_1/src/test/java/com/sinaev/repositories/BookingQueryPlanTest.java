@@ -0,0 +1,119 @@
+package com.sinaev.repositories;
+
+import com.sinaev.MyLiquibaseRunner;
+import com.sinaev.builders.SQLQueryBuilder;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checks that the booking finders are served by indexes once the real migrations have run.
+ */
+@Testcontainers
+class BookingQueryPlanTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("testdb")
+            .withUsername("postgres")
+            .withPassword("password");
+
+    private static DataSource dataSource;
+    private static final LocalDate DATE = LocalDate.of(2024, 2, 15);
+
+    @BeforeAll
+    static void setUpDatabase() throws SQLException {
+        MyLiquibaseRunner.builder()
+                .changelogFile("db/changelog/changelog.xml")
+                .urlDb(postgreSQLContainer.getJdbcUrl())
+                .usernameDb(postgreSQLContainer.getUsername())
+                .passwordDb(postgreSQLContainer.getPassword())
+                .defaultSchemaName("service_schema")
+                .entitySchemaName("entity_schema")
+                .build()
+                .runLiquibase();
+
+        PGSimpleDataSource ds = new PGSimpleDataSource();
+        ds.setUrl(postgreSQLContainer.getJdbcUrl());
+        ds.setUser(postgreSQLContainer.getUsername());
+        ds.setPassword(postgreSQLContainer.getPassword());
+        ds.setCurrentSchema("entity_schema");
+        dataSource = ds;
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (username, password, is_admin) SELECT 'user' || g, 'password', false FROM generate_series(1, 500) g");
+            statement.execute("INSERT INTO rooms (room_name, room_type) SELECT 'room' || g, 'WORKSPACE'::roomtype FROM generate_series(1, 200) g");
+            statement.execute("""
+                    INSERT INTO bookings (user_id, room_id, start_time, end_time)
+                    SELECT (SELECT min(id) FROM users) + (r.id * 100 + g) % 500, r.id,
+                           TIMESTAMP '2024-01-01 08:00' + g * INTERVAL '1 day',
+                           TIMESTAMP '2024-01-01 09:00' + g * INTERVAL '1 day'
+                    FROM rooms r CROSS JOIN generate_series(0, 99) g
+                    """);
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    @DisplayName("Test filtered booking finders do not scan the whole bookings table")
+    void testFindersUseIndexes() throws SQLException {
+        LocalDateTime startTime = DATE.atTime(8, 0);
+        BookingRepository bookingRepository = new BookingRepository(dataSource, null, null, null);
+
+        SoftAssertions softly = new SoftAssertions();
+        assertNoSeqScan(softly, "findByRoomAndTime", BookingRepository.FIND_BY_ROOM_AND_TIME_SQL, "room42", Timestamp.valueOf(startTime));
+        assertNoSeqScan(softly, "findByRoomName", BookingRepository.FIND_BY_ROOM_SQL, "room42");
+        assertNoSeqScan(softly, "findByUserName", BookingRepository.FIND_BY_USER_SQL, "user42");
+        assertNoSeqScan(softly, "findByDate", BookingRepository.FIND_BY_DATE_SQL,
+                Timestamp.valueOf(DATE.atStartOfDay()), Timestamp.valueOf(DATE.plusDays(1).atStartOfDay()));
+        assertNoSeqScan(softly, "findByRoomAndRange",
+                bookingRepository.rangeQuery("room42", DATE.atStartOfDay(), DATE.plusDays(1).atStartOfDay()));
+        assertNoSeqScan(softly, "findByFilter",
+                bookingRepository.filterQuery("user42", "room42", DATE));
+        softly.assertAll();
+    }
+
+    private void assertNoSeqScan(SoftAssertions softly, String finder, String sql, Object... parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                preparedStatement.setObject(i + 1, parameters[i]);
+            }
+            softly.assertThat(plan(preparedStatement)).as(finder).doesNotContain("Seq Scan on bookings");
+        }
+    }
+
+    private void assertNoSeqScan(SoftAssertions softly, String finder, SQLQueryBuilder query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + query.toSql())) {
+            query.bind(preparedStatement);
+            softly.assertThat(plan(preparedStatement)).as(finder).doesNotContain("Seq Scan on bookings");
+        }
+    }
+
+    private String plan(PreparedStatement preparedStatement) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
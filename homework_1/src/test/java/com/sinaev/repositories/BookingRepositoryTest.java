@@ -1,9 +1,26 @@
 package com.sinaev.repositories;
 
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.UserCache;
+import com.sinaev.configs.properties.BookingProperties;
+import com.sinaev.configs.properties.DatasourceProperties;
+import com.sinaev.configs.properties.InvalidationProperties;
+import com.sinaev.configs.properties.UserProperties;
+import com.sinaev.exceptions.BookingIsNotAvailableException;
+import com.sinaev.locks.RoomLocks;
+import com.sinaev.models.dto.BookingImportReportDTO;
 import com.sinaev.models.entities.Booking;
+import com.sinaev.models.entities.BookingSeries;
 import com.sinaev.models.entities.Room;
 import com.sinaev.models.entities.User;
+import com.sinaev.models.enums.RecurrenceFrequency;
+import com.sinaev.models.enums.RoomLockMode;
 import com.sinaev.models.enums.RoomType;
+import com.sinaev.notifications.CacheInvalidationListener;
+import com.sinaev.notifications.CacheInvalidationPublisher;
+import com.sinaev.services.RoomService;
+import com.sinaev.transactions.UnitOfWork;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,17 +32,35 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 @Testcontainers
 class BookingRepositoryTest {
@@ -40,6 +75,9 @@ class BookingRepositoryTest {
     private BookingRepository bookingRepository;
     private RoomRepository roomRepository;
     private UserRepository userRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private NameIdCache nameIdCache;
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
 
     @BeforeAll
     static void setUpDataSource() {
@@ -47,14 +85,18 @@ class BookingRepositoryTest {
         ds.setUrl(postgreSQLContainer.getJdbcUrl());
         ds.setUser(postgreSQLContainer.getUsername());
         ds.setPassword(postgreSQLContainer.getPassword());
+        ds.setCurrentSchema("entity_schema");
         dataSource = ds;
     }
 
     @BeforeEach
     void setUp() throws SQLException {
-        bookingRepository = new BookingRepository(dataSource);
-        roomRepository = new RoomRepository(dataSource);
-        userRepository = new UserRepository(dataSource);
+        bookingIntervalIndex = new BookingIntervalIndex();
+        nameIdCache = new NameIdCache();
+        cacheInvalidationPublisher = new CacheInvalidationPublisher(invalidationProperties("node-a"));
+        bookingRepository = new BookingRepository(dataSource, bookingIntervalIndex, nameIdCache, cacheInvalidationPublisher);
+        roomRepository = new RoomRepository(dataSource, bookingIntervalIndex, nameIdCache, cacheInvalidationPublisher);
+        userRepository = new UserRepository(dataSource, nameIdCache, new UserCache(new UserProperties()), cacheInvalidationPublisher);
         try (Connection connection = dataSource.getConnection()) {
             Statement statement = connection.createStatement();
             statement.execute("CREATE SCHEMA IF NOT EXISTS entity_schema");
@@ -69,8 +111,18 @@ class BookingRepositoryTest {
                     """);
             statement.execute("CREATE TABLE IF NOT EXISTS users (id SERIAL PRIMARY KEY, username VARCHAR(255), password VARCHAR(255), is_admin BOOLEAN)");
             statement.execute("CREATE TABLE IF NOT EXISTS rooms (id SERIAL PRIMARY KEY, room_name VARCHAR(255), room_type VARCHAR(50))");
-            statement.execute("CREATE TABLE IF NOT EXISTS bookings (user_id BIGINT, room_id BIGINT, start_time TIMESTAMP, end_time TIMESTAMP, PRIMARY KEY (user_id, room_id, start_time))");
-            statement.execute("TRUNCATE TABLE bookings, users, rooms");
+            statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS bookings (id BIGSERIAL PRIMARY KEY, user_id BIGINT, room_id BIGINT, start_time TIMESTAMP, end_time TIMESTAMP,
+                        CONSTRAINT bookings_room_no_overlap EXCLUDE USING gist (room_id WITH =, tsrange(start_time, end_time) WITH &&))
+                    """);
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS booking_series (id BIGSERIAL PRIMARY KEY, user_id BIGINT, room_id BIGINT,
+                        start_time TIMESTAMP, end_time TIMESTAMP, frequency VARCHAR(10), recurrence_interval INT,
+                        occurrence_count INT, until_date DATE, exceptions TIMESTAMP[] NOT NULL DEFAULT '{}')
+                    """);
+            statement.execute(seriesOverlapTriggers());
+            statement.execute("TRUNCATE TABLE bookings, booking_series, users, rooms");
         }
     }
 
@@ -94,6 +146,108 @@ class BookingRepositoryTest {
         assertEquals("Meeting Room", foundBooking.get().getRoom().getName());
     }
 
+    @Test
+    @DisplayName("Test saveAll inserts a batch in one round trip and rolls it back as a whole on overlap")
+    void testSaveAll() {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+        userRepository.save(user);
+        roomRepository.save(room);
+        StatementCountingDataSource countingDataSource = new StatementCountingDataSource(dataSource);
+        BookingRepository countedRepository = new BookingRepository(countingDataSource.proxy(), bookingIntervalIndex, new NameIdCache(),
+                new CacheInvalidationPublisher(new InvalidationProperties()));
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bookings.add(new Booking(user, room, startTime.plusHours(i), startTime.plusHours(i + 1)));
+        }
+        bookings.add(new Booking(user, new Room("Missing", RoomType.WORKSPACE), startTime, startTime.plusHours(1)));
+
+        int[] inserted = countedRepository.saveAll(bookings);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(inserted).hasSize(51).startsWith(1, 1).endsWith(1, 0);
+        softly.assertThat(countingDataSource.connections.get()).isEqualTo(1);
+        softly.assertThat(countingDataSource.statements.get()).isEqualTo(1);
+        softly.assertThat(bookingRepository.findAll()).hasSize(50);
+        softly.assertThat(bookingIntervalIndex.size()).isEqualTo(50);
+
+        List<Booking> overlapping = List.of(
+                new Booking(user, room, startTime.minusHours(2), startTime.minusHours(1)),
+                new Booking(user, room, startTime.plusMinutes(30), startTime.plusMinutes(90)));
+        softly.assertThatThrownBy(() -> countedRepository.saveAll(overlapping))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        softly.assertThat(bookingRepository.findAll()).as("bookings after a failed batch").hasSize(50);
+        softly.assertThat(bookingIntervalIndex.diff(bookingRepository.findAll())).isEmpty();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test CSV import and export through COPY, skipping unknown names and rejecting overlaps")
+    void testImportAndExportCsv() {
+        userRepository.save(new User("testUser", "testPassword", false));
+        roomRepository.save(new Room("Meeting Room", RoomType.MEETING_ROOM));
+        roomRepository.save(new Room("Workspace", RoomType.WORKSPACE));
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+        int rows = 20_000;
+        StringBuilder csv = new StringBuilder("username,room_name,start_time,end_time\n");
+        for (int i = 0; i < rows; i++) {
+            String room = i % 2 == 0 ? "Meeting Room" : "Workspace";
+            LocalDateTime start = startTime.plusHours(i / 2);
+            csv.append("testUser,").append(room).append(',').append(start).append(',').append(start.plusHours(1)).append('\n');
+        }
+        csv.append("unknownUser,Meeting Room,2030-01-01T10:00,2030-01-01T11:00\n");
+        csv.append("testUser,Unknown Room,2030-01-01T10:00,2030-01-01T11:00\n");
+
+        BookingImportReportDTO report = bookingRepository.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        long exportedRows = bookingRepository.exportCsv(exported);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(report).isEqualTo(new BookingImportReportDTO(rows + 2, rows, 2));
+        softly.assertThat(bookingIntervalIndex.size()).isEqualTo(rows);
+        softly.assertThat(exportedRows).isEqualTo(rows);
+        softly.assertThat(exported.toString(StandardCharsets.UTF_8))
+                .startsWith("username,room_name,start_time,end_time\ntestUser,Meeting Room,2024-01-01 00:00:00,2024-01-01 01:00:00\n");
+
+        String overlapping = "username,room_name,start_time,end_time\n"
+                + "testUser,Meeting Room,2030-01-01T10:00,2030-01-01T11:00\n"
+                + "testUser,Meeting Room,2024-01-01T00:30,2024-01-01T01:30\n";
+        softly.assertThatThrownBy(() -> bookingRepository.importCsv(new ByteArrayInputStream(overlapping.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        softly.assertThat(bookingRepository.findAll()).as("bookings after a failed import").hasSize(rows);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test overlapping bookings are rejected by the exclusion constraint")
+    void testSaveAndUpdateRejectOverlap() {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+
+        userRepository.save(user);
+        roomRepository.save(room);
+        Booking booking = new Booking(user, room, startTime, startTime.plusHours(1));
+        Booking adjacent = new Booking(user, room, startTime.plusHours(1), startTime.plusHours(2));
+        bookingRepository.save(booking);
+        bookingRepository.save(adjacent);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThatThrownBy(() -> bookingRepository.save(new Booking(user, room, startTime.plusMinutes(30), startTime.plusMinutes(90))))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        softly.assertThatThrownBy(() -> bookingRepository.update(adjacent, new Booking(user, room, startTime.plusMinutes(30), startTime.plusHours(2))))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        softly.assertThatThrownBy(() -> bookingRepository.save(new Booking(user, new Room("Missing", RoomType.WORKSPACE), startTime, startTime.plusHours(1))))
+                .isInstanceOf(NoSuchElementException.class);
+        softly.assertThatThrownBy(() -> bookingRepository.update(new Booking(user, room, startTime.plusHours(5), startTime.plusHours(6)),
+                        new Booking(user, room, startTime.plusHours(7), startTime.plusHours(8))))
+                .isInstanceOf(NoSuchElementException.class);
+        softly.assertThat(bookingRepository.findAll()).hasSize(2);
+        softly.assertThat(bookingIntervalIndex.diff(bookingRepository.findAll())).isEmpty();
+        softly.assertAll();
+    }
+
     @Test
     @DisplayName("Test find all bookings")
     void testFindAllBookings() throws SQLException {
@@ -162,6 +316,228 @@ class BookingRepositoryTest {
         assertFalse(foundBooking.isPresent());
     }
 
+    @Test
+    @DisplayName("Test booking writes are mirrored into the interval index")
+    void testWritesUpdateIntervalIndex() {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        Room otherRoom = new Room("Other Room", RoomType.WORKSPACE);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+
+        userRepository.save(user);
+        roomRepository.save(room);
+        roomRepository.save(otherRoom);
+
+        Booking kept = new Booking(user, room, startTime, startTime.plusHours(1));
+        Booking moved = new Booking(user, room, startTime.plusHours(2), startTime.plusHours(3));
+        Booking deleted = new Booking(user, otherRoom, startTime, startTime.plusHours(1));
+        bookingRepository.save(kept);
+        bookingRepository.save(moved);
+        bookingRepository.save(deleted);
+        bookingRepository.update(moved, new Booking(user, otherRoom, startTime.plusHours(4), startTime.plusHours(5)));
+        bookingRepository.delete(deleted);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(bookingIntervalIndex.size()).isEqualTo(2);
+        softly.assertThat(bookingIntervalIndex.isFree("Meeting Room", startTime.plusHours(2), startTime.plusHours(3))).isTrue();
+        softly.assertThat(bookingIntervalIndex.isFree("Other Room", startTime, startTime.plusHours(1))).isTrue();
+        softly.assertThat(bookingIntervalIndex.isFree("Other Room", startTime.plusHours(4), startTime.plusHours(5))).isFalse();
+        softly.assertThat(bookingIntervalIndex.diff(bookingRepository.findAll())).isEmpty();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test booking series are stored as one rule and mirrored into the interval index")
+    void testBookingSeries() {
+        BookingSeriesRepository bookingSeriesRepository = new BookingSeriesRepository(dataSource, bookingIntervalIndex, cacheInvalidationPublisher);
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+        userRepository.save(user);
+        roomRepository.save(room);
+
+        BookingSeries bookingSeries = new BookingSeries(user, room, startTime, startTime.plusHours(1),
+                RecurrenceFrequency.WEEKLY, 1, 10, null);
+        bookingSeriesRepository.save(bookingSeries);
+        bookingSeriesRepository.addException(bookingSeries, startTime.plusWeeks(1));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(bookingSeries.getId()).isNotNull();
+        softly.assertThat(bookingSeriesRepository.findByRoomName("Meeting Room")).singleElement()
+                .satisfies(found -> {
+                    assertThat(found.getFrequency()).isEqualTo(RecurrenceFrequency.WEEKLY);
+                    assertThat(found.getCount()).isEqualTo(10);
+                    assertThat(found.getExceptions()).containsExactly(startTime.plusWeeks(1));
+                });
+        softly.assertThat(bookingIntervalIndex.isFree("Meeting Room", startTime.plusWeeks(2), startTime.plusWeeks(2).plusHours(1))).isFalse();
+        softly.assertThat(bookingIntervalIndex.isFree("Meeting Room", startTime.plusWeeks(1), startTime.plusWeeks(1).plusHours(1))).isTrue();
+
+        bookingSeriesRepository.delete(bookingSeries);
+        softly.assertThat(bookingSeriesRepository.findById(bookingSeries.getId())).isEmpty();
+        softly.assertThat(bookingIntervalIndex.seriesOf("Meeting Room")).isEmpty();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test the database rejects bookings, imports and series overlapping a series unknown to the index")
+    void testSeriesOverlapIsRejectedByDatabase() {
+        BookingSeriesRepository nodeASeriesRepository = new BookingSeriesRepository(dataSource, new BookingIntervalIndex(), cacheInvalidationPublisher);
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+        userRepository.save(user);
+        roomRepository.save(room);
+        BookingSeries weekly = new BookingSeries(user, room, startTime, startTime.plusHours(1), RecurrenceFrequency.WEEKLY, 1, 10, null);
+        weekly.getExceptions().add(startTime.plusWeeks(1));
+        nodeASeriesRepository.save(weekly);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(bookingIntervalIndex.seriesOf("Meeting Room")).isEmpty();
+        softly.assertThatThrownBy(() -> bookingRepository.save(new Booking(user, room, startTime.plusWeeks(2).plusMinutes(30), startTime.plusWeeks(2).plusHours(2))))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        bookingRepository.save(new Booking(user, room, startTime.plusWeeks(1), startTime.plusWeeks(1).plusHours(1)));
+        bookingRepository.save(new Booking(user, room, startTime.plusWeeks(10), startTime.plusWeeks(10).plusHours(1)));
+
+        String overlapping = "username,room_name,start_time,end_time\n"
+                + "testUser,Meeting Room,2024-06-21T10:00,2024-06-21T11:00\n"
+                + "testUser,Meeting Room,2024-08-22T10:45,2024-08-22T11:15\n";
+        softly.assertThatThrownBy(() -> bookingRepository.importCsv(new ByteArrayInputStream(overlapping.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        softly.assertThatThrownBy(() -> nodeASeriesRepository.save(new BookingSeries(user, room, startTime.minusDays(1).plusMinutes(30),
+                        startTime.minusDays(1).plusMinutes(90), RecurrenceFrequency.DAILY, 1, 10, null)))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        softly.assertThat(bookingRepository.findAll()).hasSize(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test room lookups are cached and evicted when the room is renamed")
+    void testRoomLookupsAreCached() {
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        roomRepository.save(room);
+
+        Room first = bookingRepository.findRoomByName("Meeting Room");
+        Room second = bookingRepository.findRoomByName("Meeting Room");
+        roomRepository.update(room, new Room("Renamed Room", RoomType.MEETING_ROOM));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(second.getId()).isEqualTo(first.getId());
+        softly.assertThat(nameIdCache.getRooms().getMisses()).isEqualTo(1);
+        softly.assertThat(nameIdCache.getRooms().getHits()).isEqualTo(1);
+        softly.assertThat(roomRepository.findByName("Meeting Room")).isEmpty();
+        softly.assertThat(roomRepository.findByName("Renamed Room")).map(Room::getId).contains(first.getId());
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test another node's caches follow writes through LISTEN/NOTIFY")
+    void testOtherNodeReceivesInvalidations() throws InterruptedException {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+        userRepository.save(user);
+        roomRepository.save(room);
+
+        DatasourceProperties datasourceProperties = new DatasourceProperties();
+        datasourceProperties.setUrl(postgreSQLContainer.getJdbcUrl());
+        datasourceProperties.setUsername(postgreSQLContainer.getUsername());
+        datasourceProperties.setPassword(postgreSQLContainer.getPassword());
+        InvalidationProperties nodeBProperties = invalidationProperties("node-b");
+        CacheInvalidationPublisher nodeBPublisher = new CacheInvalidationPublisher(nodeBProperties);
+        BookingIntervalIndex nodeBIndex = new BookingIntervalIndex();
+        NameIdCache nodeBCache = new NameIdCache();
+        BookingRepository nodeBRepository = new BookingRepository(dataSource, nodeBIndex, nodeBCache, nodeBPublisher);
+        CacheInvalidationListener listener = new CacheInvalidationListener(nodeBProperties, datasourceProperties,
+                nodeBPublisher, nodeBCache, new UserCache(new UserProperties()), nodeBIndex, nodeBRepository,
+                new BookingSeriesRepository(dataSource, nodeBIndex, nodeBPublisher), mock(RoomService.class));
+        listener.start();
+        try {
+            assertTrue(await(listener::isListening), "listener subscribed");
+            nodeBRepository.findRoomByName("Meeting Room");
+
+            bookingRepository.save(new Booking(user, room, startTime, startTime.plusHours(1)));
+            roomRepository.update(room, new Room("Renamed Room", RoomType.MEETING_ROOM));
+
+            assertTrue(await(() -> !nodeBIndex.isFree("Renamed Room", startTime, startTime.plusHours(1))), "booking replicated");
+            assertTrue(await(() -> nodeBCache.getRooms().size() == 0), "renamed room evicted");
+            assertEquals(1, listener.getResyncs());
+        } finally {
+            listener.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Test advisory room locks exclude each other across connections until the transaction ends")
+    void testAdvisoryRoomLocks() throws InterruptedException {
+        roomRepository.save(new Room("Meeting Room", RoomType.MEETING_ROOM));
+        roomRepository.save(new Room("Other Room", RoomType.WORKSPACE));
+        BookingProperties bookingProperties = new BookingProperties();
+        bookingProperties.setLockMode(RoomLockMode.ADVISORY);
+        RoomLocks nodeA = new RoomLocks(bookingProperties, new UnitOfWork(dataSource));
+        RoomLocks nodeB = new RoomLocks(bookingProperties, new UnitOfWork(dataSource));
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> nodeA.withRooms(List.of("Meeting Room"), () -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch sameRoomDone = new CountDownLatch(1);
+        new Thread(() -> nodeB.withRooms(List.of("Other Room", "Meeting Room"), sameRoomDone::countDown)).start();
+        int otherRoom = nodeB.withRooms(List.of("Other Room"), () -> 1);
+
+        assertEquals(1, otherRoom);
+        assertFalse(sameRoomDone.await(200, TimeUnit.MILLISECONDS), "same room waits for the holder");
+        release.countDown();
+        assertTrue(sameRoomDone.await(5, TimeUnit.SECONDS), "same room proceeds after the holder commits");
+        holder.join();
+    }
+
+    @Test
+    @DisplayName("Test a unit of work shares one connection and commits or rolls back as a whole")
+    void testUnitOfWork() {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+        userRepository.save(user);
+        roomRepository.save(room);
+        bookingRepository.save(new Booking(user, room, startTime, startTime.plusHours(1)));
+
+        StatementCountingDataSource countingDataSource = new StatementCountingDataSource(dataSource);
+        UnitOfWork unitOfWork = new UnitOfWork(countingDataSource.proxy());
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.add("Meeting Room", startTime, startTime.plusHours(1));
+        BookingRepository unitRepository = new BookingRepository(unitOfWork, index, new NameIdCache(),
+                new CacheInvalidationPublisher(new InvalidationProperties()));
+        LocalDateTime movedTime = startTime.plusHours(2);
+
+        unitOfWork.inTransaction(() -> {
+            Booking booking = unitRepository.findByRoomAndTime("Meeting Room", startTime).orElseThrow();
+            unitRepository.update(booking, new Booking(user, room, movedTime, movedTime.plusHours(1)));
+            unitRepository.delete(new Booking(user, room, movedTime, movedTime.plusHours(1)));
+        });
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(countingDataSource.connections.get()).as("connections per unit").isEqualTo(1);
+        softly.assertThat(bookingRepository.findAll()).isEmpty();
+        softly.assertThat(index.isFree("Meeting Room", startTime, movedTime.plusHours(1))).isTrue();
+
+        countingDataSource.reset();
+        softly.assertThatThrownBy(() -> unitOfWork.inTransaction(() -> {
+            unitRepository.save(new Booking(user, room, startTime, startTime.plusHours(1)));
+            throw new IllegalArgumentException("abort");
+        })).hasMessage("abort");
+        softly.assertThat(bookingRepository.findAll()).as("rolled back bookings").isEmpty();
+        softly.assertThat(index.isFree("Meeting Room", startTime, startTime.plusHours(1))).as("index after rollback").isTrue();
+        softly.assertAll();
+    }
+
     @Test
     @DisplayName("Test find bookings by date")
     void testFindBookingsByDate() throws SQLException {
@@ -179,4 +555,210 @@ class BookingRepositoryTest {
         List<Booking> bookings = bookingRepository.findByDate(LocalDate.now());
         assertEquals(1, bookings.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test find bookings of a room overlapping a range")
+    void testFindByRoomAndRange() {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        Room otherRoom = new Room("Other Room", RoomType.WORKSPACE);
+        LocalDateTime dayStart = LocalDateTime.of(2024, 6, 20, 0, 0);
+
+        userRepository.save(user);
+        roomRepository.save(room);
+        roomRepository.save(otherRoom);
+        bookingRepository.save(new Booking(user, room, dayStart.plusHours(12), dayStart.plusHours(13)));
+        bookingRepository.save(new Booking(user, room, dayStart.minusHours(1), dayStart.plusHours(1)));
+        bookingRepository.save(new Booking(user, room, dayStart.minusHours(3), dayStart.minusHours(1)));
+        bookingRepository.save(new Booking(user, room, dayStart.plusDays(1), dayStart.plusDays(1).plusHours(1)));
+        bookingRepository.save(new Booking(user, otherRoom, dayStart.plusHours(12), dayStart.plusHours(13)));
+
+        List<Booking> bookings = bookingRepository.findByRoomAndRange("Meeting Room", dayStart, dayStart.plusDays(1));
+
+        assertThat(bookings).extracting(Booking::getStartTime)
+                .containsExactly(dayStart.minusHours(1), dayStart.plusHours(12));
+    }
+
+    @Test
+    @DisplayName("Test find bookings by optional filter criteria")
+    void testFindByFilter() {
+        User user = new User("testUser", "testPassword", false);
+        User otherUser = new User("otherUser", "otherPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        Room otherRoom = new Room("Workspace", RoomType.WORKSPACE);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+
+        userRepository.save(user);
+        userRepository.save(otherUser);
+        roomRepository.save(room);
+        roomRepository.save(otherRoom);
+        bookingRepository.save(new Booking(user, room, startTime, startTime.plusHours(1)));
+        bookingRepository.save(new Booking(otherUser, room, startTime.plusHours(2), startTime.plusHours(3)));
+        bookingRepository.save(new Booking(user, otherRoom, startTime.plusDays(1), startTime.plusDays(1).plusHours(1)));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(bookingRepository.findByFilter(null, null, null)).hasSize(3);
+        softly.assertThat(bookingRepository.findByFilter("testUser", null, null)).hasSize(2);
+        softly.assertThat(bookingRepository.findByFilter(null, "Meeting Room", null)).hasSize(2);
+        softly.assertThat(bookingRepository.findByFilter(null, null, startTime.toLocalDate())).hasSize(2);
+        softly.assertThat(bookingRepository.findByFilter("testUser", "Meeting Room", startTime.toLocalDate()))
+                .singleElement()
+                .satisfies(booking -> softly.assertThat(booking.getStartTime()).isEqualTo(startTime));
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test keyset pagination and streaming return bookings in start time order")
+    void testFindPageAndStreamByFilter() {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 8, 0);
+
+        userRepository.save(user);
+        roomRepository.save(room);
+        for (int i = 4; i >= 0; i--) {
+            bookingRepository.save(new Booking(user, room, startTime.plusHours(2L * i), startTime.plusHours(2L * i + 1)));
+        }
+
+        List<Booking> firstPage = bookingRepository.findPageByFilter(null, "Meeting Room", null, null, null, 2);
+        Booking last = firstPage.get(firstPage.size() - 1);
+        List<Booking> secondPage = bookingRepository.findPageByFilter(null, "Meeting Room", null, last.getStartTime(), last.getId(), 2);
+        List<Booking> streamed = new ArrayList<>();
+        bookingRepository.streamByFilter(null, "Meeting Room", null, 2, streamed::add);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(firstPage).extracting(Booking::getStartTime)
+                .containsExactly(startTime, startTime.plusHours(2));
+        softly.assertThat(secondPage).extracting(Booking::getStartTime)
+                .containsExactly(startTime.plusHours(4), startTime.plusHours(6));
+        softly.assertThat(streamed).extracting(Booking::getStartTime)
+                .containsExactly(startTime, startTime.plusHours(2), startTime.plusHours(4), startTime.plusHours(6), startTime.plusHours(8));
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test finders fetch bookings with user and room in one statement")
+    void testFindersUseSingleStatement() {
+        User user = new User("testUser", "testPassword", false);
+        Room room = new Room("Meeting Room", RoomType.MEETING_ROOM);
+        Room otherRoom = new Room("Workspace", RoomType.WORKSPACE);
+        LocalDateTime startTime = LocalDateTime.of(2024, 6, 20, 10, 0);
+
+        userRepository.save(user);
+        roomRepository.save(room);
+        roomRepository.save(otherRoom);
+        bookingRepository.save(new Booking(user, room, startTime, startTime.plusHours(1)));
+        bookingRepository.save(new Booking(user, otherRoom, startTime, startTime.plusHours(1)));
+        bookingRepository.save(new Booking(user, room, startTime.plusHours(2), startTime.plusHours(3)));
+
+        StatementCountingDataSource countingDataSource = new StatementCountingDataSource(dataSource);
+        BookingRepository countedRepository = new BookingRepository(countingDataSource.proxy(), new BookingIntervalIndex(), new NameIdCache(),
+                cacheInvalidationPublisher);
+
+        SoftAssertions softly = new SoftAssertions();
+        assertSingleStatement(softly, countingDataSource, "findAll", countedRepository::findAll, 3);
+        assertSingleStatement(softly, countingDataSource, "findByRoomName", () -> countedRepository.findByRoomName("Meeting Room"), 2);
+        assertSingleStatement(softly, countingDataSource, "findByUserName", () -> countedRepository.findByUserName("testUser"), 3);
+        assertSingleStatement(softly, countingDataSource, "findByDate", () -> countedRepository.findByDate(startTime.toLocalDate()), 3);
+
+        countingDataSource.reset();
+        Optional<Booking> found = countedRepository.findByRoomAndTime("Meeting Room", startTime);
+        softly.assertThat(found).isPresent();
+        softly.assertThat(countingDataSource.statements.get()).as("findByRoomAndTime statements").isEqualTo(1);
+        softly.assertAll();
+    }
+
+    private void assertSingleStatement(SoftAssertions softly, StatementCountingDataSource countingDataSource,
+                                       String finder, Supplier<List<Booking>> call, int expectedSize) {
+        countingDataSource.reset();
+        List<Booking> bookings = call.get();
+
+        softly.assertThat(bookings).as(finder + " result").hasSize(expectedSize);
+        softly.assertThat(bookings).as(finder + " populated entities").allSatisfy(booking -> {
+            softly.assertThat(booking.getId()).isNotNull();
+            softly.assertThat(booking.getUser().getUsername()).isEqualTo("testUser");
+            softly.assertThat(booking.getRoom().getType()).isNotNull();
+        });
+        softly.assertThat(countingDataSource.connections.get()).as(finder + " connections").isEqualTo(1);
+        softly.assertThat(countingDataSource.statements.get()).as(finder + " statements").isEqualTo(1);
+    }
+
+    /**
+     * Wraps a data source and counts borrowed connections and prepared or plain statements created on them.
+     */
+    private static final class StatementCountingDataSource {
+        private final DataSource target;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger statements = new AtomicInteger();
+
+        private StatementCountingDataSource(DataSource target) {
+            this.target = target;
+        }
+
+        private void reset() {
+            connections.set(0);
+            statements.set(0);
+        }
+
+        private DataSource proxy() {
+            return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        if (method.getName().equals("getConnection")) {
+                            connections.incrementAndGet();
+                            return countStatements((Connection) result);
+                        }
+                        return result;
+                    });
+        }
+
+        private Connection countStatements(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("createStatement") || name.equals("prepareCall")) {
+                            statements.incrementAndGet();
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private static InvalidationProperties invalidationProperties(String nodeId) {
+        InvalidationProperties properties = new InvalidationProperties();
+        properties.setEnabled(true);
+        properties.setNodeId(nodeId);
+        properties.setChannel("cache_invalidation");
+        properties.setPollTimeoutMs(100);
+        properties.setReconnectMinDelayMs(100);
+        properties.setReconnectMaxDelayMs(1000);
+        return properties;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static String seriesOverlapTriggers() {
+        try (InputStream inputStream = BookingRepositoryTest.class.getResourceAsStream("/db/changelog/v5/v5-series-no-overlap.sql")) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).replace("${entitySchemaName}", "entity_schema");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
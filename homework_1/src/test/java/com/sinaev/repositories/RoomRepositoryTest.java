@@ -1,7 +1,11 @@
 package com.sinaev.repositories;
 
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.configs.properties.InvalidationProperties;
 import com.sinaev.models.entities.Room;
 import com.sinaev.models.enums.RoomType;
+import com.sinaev.notifications.CacheInvalidationPublisher;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +38,7 @@ class RoomRepositoryTest {
 
     private static DataSource dataSource;
     private RoomRepository roomRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
 
     @BeforeAll
     static void setUpDataSource() {
@@ -41,12 +46,15 @@ class RoomRepositoryTest {
         ds.setUrl(postgreSQLContainer.getJdbcUrl());
         ds.setUser(postgreSQLContainer.getUsername());
         ds.setPassword(postgreSQLContainer.getPassword());
+        ds.setCurrentSchema("entity_schema");
         dataSource = ds;
     }
 
     @BeforeEach
     void setUp() throws SQLException {
-        roomRepository = new RoomRepository(dataSource);
+        bookingIntervalIndex = new BookingIntervalIndex();
+        roomRepository = new RoomRepository(dataSource, bookingIntervalIndex, new NameIdCache(),
+                new CacheInvalidationPublisher(new InvalidationProperties()));
         try (Connection connection = dataSource.getConnection()) {
             Statement statement = connection.createStatement();
             statement.execute("CREATE SCHEMA IF NOT EXISTS entity_schema");
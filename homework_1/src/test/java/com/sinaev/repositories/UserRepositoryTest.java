@@ -1,16 +1,33 @@
 package com.sinaev.repositories;
 
+import com.sinaev.caches.NameIdCache;
+import com.sinaev.caches.UserCache;
+import com.sinaev.configs.properties.InvalidationProperties;
+import com.sinaev.configs.properties.JdbcProperties;
+import com.sinaev.configs.properties.TokenProperties;
+import com.sinaev.configs.properties.UserProperties;
+import com.sinaev.mappers.UserMapper;
+import com.sinaev.metrics.InstrumentedDataSource;
+import com.sinaev.metrics.JdbcMetrics;
+import com.sinaev.metrics.QueryCounter;
+import com.sinaev.models.dto.UserDTO;
 import com.sinaev.models.entities.User;
+import com.sinaev.notifications.CacheInvalidationPublisher;
+import com.sinaev.security.SessionTokens;
+import com.sinaev.services.impl.UserServiceImpl;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
 import org.postgresql.ds.PGSimpleDataSource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -18,6 +35,8 @@ import java.sql.Statement;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @Testcontainers
 class UserRepositoryTest {
@@ -37,17 +56,19 @@ class UserRepositoryTest {
         ds.setUrl(postgreSQLContainer.getJdbcUrl());
         ds.setUser(postgreSQLContainer.getUsername());
         ds.setPassword(postgreSQLContainer.getPassword());
+        ds.setCurrentSchema("entity_schema");
         dataSource = ds;
     }
 
     @BeforeEach
     void setUp() throws SQLException {
-        userRepository = new UserRepository(dataSource);
+        userRepository = new UserRepository(dataSource, new NameIdCache(), new UserCache(userProperties(30000)),
+                new CacheInvalidationPublisher(new InvalidationProperties()));
         try (Connection connection = dataSource.getConnection()) {
             Statement statement = connection.createStatement();
             statement.execute("CREATE SCHEMA IF NOT EXISTS entity_schema");
             statement.execute("SET search_path TO entity_schema");
-            statement.execute("CREATE TABLE IF NOT EXISTS users (username VARCHAR(255) PRIMARY KEY, password VARCHAR(255), is_admin BOOLEAN)");
+            statement.execute("CREATE TABLE IF NOT EXISTS users (id SERIAL PRIMARY KEY, username VARCHAR(255) UNIQUE, password VARCHAR(255), is_admin BOOLEAN)");
             statement.execute("TRUNCATE TABLE users");
         }
     }
@@ -88,4 +109,38 @@ class UserRepositoryTest {
         softly.assertThat(userRepository.existsByUsername("nonExistingUser")).isFalse();
         softly.assertAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test a login runs one query and a repeated login within the TTL runs none")
+    void testQueriesPerLogin() {
+        userRepository.save(new User("testUser", "testPassword", false));
+        SoftAssertions softly = new SoftAssertions();
+        for (long ttlMs : new long[]{0, 30000}) {
+            InstrumentedDataSource countingDataSource = new InstrumentedDataSource(dataSource, new JdbcMetrics(), new JdbcProperties());
+            UserRepository countingRepository = new UserRepository(countingDataSource, new NameIdCache(),
+                    new UserCache(userProperties(ttlMs)), new CacheInvalidationPublisher(new InvalidationProperties()));
+            UserServiceImpl userService = new UserServiceImpl(countingRepository, Mappers.getMapper(UserMapper.class),
+                    new SessionTokens(new TokenProperties()));
+            HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+            when(httpRequest.getSession()).thenReturn(mock(HttpSession.class));
+            UserDTO userDTO = new UserDTO("testUser", "testPassword", false);
+
+            QueryCounter.reset();
+            userService.login(httpRequest, userDTO);
+            long firstLogin = QueryCounter.statements();
+            QueryCounter.reset();
+            userService.login(httpRequest, userDTO);
+            long repeatedLogin = QueryCounter.statements();
+
+            softly.assertThat(firstLogin).as("first login, ttl %d", ttlMs).isEqualTo(1);
+            softly.assertThat(repeatedLogin).as("repeated login, ttl %d", ttlMs).isEqualTo(ttlMs > 0 ? 0 : 1);
+        }
+        softly.assertAll();
+    }
+
+    private static UserProperties userProperties(long cacheTtlMs) {
+        UserProperties userProperties = new UserProperties();
+        userProperties.setCacheTtlMs(cacheTtlMs);
+        return userProperties;
+    }
+}
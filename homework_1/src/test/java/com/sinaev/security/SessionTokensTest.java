@@ -0,0 +1,96 @@
+package com.sinaev.security;
+
+import com.sinaev.configs.properties.TokenProperties;
+import com.sinaev.models.dto.AuthTokenDTO;
+import com.sinaev.models.dto.UserDTO;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SessionTokensTest {
+
+    private TokenProperties tokenProperties;
+    private SessionTokens sessionTokens;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() {
+        tokenProperties = tokenProperties("secret", 60000);
+        sessionTokens = new SessionTokens(tokenProperties);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test an issued token is verified by another node with the same secret and cached")
+    public void testIssueAndVerify() {
+        AuthTokenDTO token = sessionTokens.issue(new UserDTO("user.name", "password", true));
+        SessionTokens otherNode = new SessionTokens(tokenProperties("secret", 60000));
+
+        UserDTO user = otherNode.verify(token.token());
+        otherNode.verify(token.token());
+
+        softly.assertThat(token.tokenType()).isEqualTo("Bearer");
+        softly.assertThat(token.expiresIn()).isEqualTo(60);
+        softly.assertThat(user).isEqualTo(new UserDTO("user.name", null, true));
+        softly.assertThat(otherNode.getVerified().getMisses()).isEqualTo(1);
+        softly.assertThat(otherNode.getVerified().getHits()).isEqualTo(1);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test forged, malformed and expired tokens are rejected and not cached")
+    public void testRejectsInvalidTokens() {
+        String token = sessionTokens.issue(new UserDTO("user1", "password", false)).token();
+        String forged = token.replace(".0.", ".1.");
+        String otherSecret = new SessionTokens(tokenProperties("other", 60000))
+                .issue(new UserDTO("user1", "password", false)).token();
+        String expired = new SessionTokens(tokenProperties("secret", -1000))
+                .issue(new UserDTO("user1", "password", false)).token();
+
+        softly.assertThat(sessionTokens.verify(forged)).isNull();
+        softly.assertThat(sessionTokens.verify(otherSecret)).isNull();
+        softly.assertThat(sessionTokens.verify(expired)).isNull();
+        softly.assertThat(sessionTokens.verify("not-a-token")).isNull();
+        softly.assertThat(sessionTokens.verify("a.b.c.%%%")).isNull();
+        softly.assertThat(sessionTokens.getVerified().size()).isZero();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Test the current user is read from the bearer token in token mode and from the session otherwise")
+    public void testCurrentUser() {
+        String token = sessionTokens.issue(new UserDTO("user1", "password", false)).token();
+        HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+        when(httpRequest.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
+
+        softly.assertThat(sessionTokens.currentUser(httpRequest)).isEqualTo(new UserDTO("user1", null, false));
+        verify(httpRequest, never()).getSession();
+
+        UserDTO sessionUser = new UserDTO("user2", "password", true);
+        HttpServletRequest sessionRequest = mock(HttpServletRequest.class);
+        HttpSession httpSession = mock(HttpSession.class);
+        when(sessionRequest.getSession()).thenReturn(httpSession);
+        when(httpSession.getAttribute("loggedIn")).thenReturn(sessionUser);
+
+        softly.assertThat(new SessionTokens(new TokenProperties()).currentUser(sessionRequest)).isSameAs(sessionUser);
+        softly.assertAll();
+    }
+
+    private TokenProperties tokenProperties(String secret, long ttlMs) {
+        TokenProperties properties = new TokenProperties();
+        properties.setEnabled(true);
+        properties.setSecret(secret);
+        properties.setTtlMs(ttlMs);
+        return properties;
+    }
+}
@@ -1,21 +1,43 @@
 package com.sinaev.services;
 
+import com.sinaev.caches.BookingIntervalIndex;
+import com.sinaev.caches.OccupancyCalendar;
+import com.sinaev.caches.RoomCatalog;
+import com.sinaev.configs.properties.BookingProperties;
+import com.sinaev.configs.properties.TokenProperties;
 import com.sinaev.exceptions.BookingIsNotAvailableException;
+import com.sinaev.locks.RoomLocks;
 import com.sinaev.mappers.BookingMapper;
 import com.sinaev.mappers.UserMapper;
+import com.sinaev.models.dto.AvailableHoursDTO;
+import com.sinaev.models.dto.BookingBatchItemDTO;
+import com.sinaev.models.dto.BookingConflictDTO;
 import com.sinaev.models.dto.BookingDTO;
+import com.sinaev.models.dto.BookingPageDTO;
+import com.sinaev.models.dto.BookingSeriesDTO;
+import com.sinaev.models.dto.FreeIntervalDTO;
+import com.sinaev.models.dto.RoomCandidateDTO;
+import com.sinaev.models.dto.RoomDTO;
 import com.sinaev.models.dto.UserDTO;
 import com.sinaev.models.entities.Booking;
+import com.sinaev.models.entities.BookingSeries;
 import com.sinaev.models.entities.Room;
 import com.sinaev.models.entities.User;
+import com.sinaev.models.enums.RecurrenceFrequency;
 import com.sinaev.models.enums.RoomType;
+import com.sinaev.models.requests.booking.FilterBookingsPageRequest;
 import com.sinaev.models.requests.booking.FilterBookingsRequest;
+import com.sinaev.models.requests.booking.GetAvailableHoursRequest;
 import com.sinaev.models.requests.booking.RemoveBookingRequest;
+import com.sinaev.models.requests.booking.SearchRoomsRequest;
 import com.sinaev.models.requests.booking.UpdateBookingRequest;
 import com.sinaev.repositories.BookingRepository;
+import com.sinaev.repositories.BookingSeriesRepository;
 import com.sinaev.repositories.RoomRepository;
 import com.sinaev.repositories.UserRepository;
+import com.sinaev.security.SessionTokens;
 import com.sinaev.services.impl.BookingServiceImpl;
+import com.sinaev.transactions.UnitOfWork;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,22 +45,34 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
+import javax.sql.DataSource;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,6 +89,9 @@ public class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingSeriesRepository bookingSeriesRepository;
+
     @Mock
     private RoomRepository roomRepository;
 
@@ -64,6 +101,27 @@ public class BookingServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Spy
+    private BookingProperties bookingProperties = new BookingProperties();
+
+    @Spy
+    private BookingIntervalIndex bookingIntervalIndex = spy(BookingIntervalIndex.class);
+
+    @Spy
+    private OccupancyCalendar occupancyCalendar = new OccupancyCalendar(bookingIntervalIndex);
+
+    @Spy
+    private SessionTokens sessionTokens = new SessionTokens(new TokenProperties());
+
+    @Spy
+    private RoomLocks roomLocks = new RoomLocks(new BookingProperties(), null);
+
+    @Spy
+    private RoomCatalog roomCatalog = new RoomCatalog();
+
+    @Spy
+    private UnitOfWork unitOfWork = new UnitOfWork(mock(DataSource.class, RETURNS_MOCKS));
+
     @Mock
     private HttpServletRequest httpRequest;
 
@@ -86,6 +144,16 @@ public class BookingServiceTest {
         normalUser = new User("user1", "password", false);
         room1 = new Room("Room1", RoomType.MEETING_ROOM);
         room2 = new Room("Room2", RoomType.MEETING_ROOM);
+        bookingProperties.setDefaultPageSize(2);
+        bookingProperties.setMaxPageSize(3);
+        bookingProperties.setStreamFetchSize(100);
+        bookingProperties.setDefaultSlotMinutes(60);
+        bookingProperties.setMaxBatchSize(10);
+        bookingProperties.setMaxSeriesOccurrences(52);
+        bookingProperties.setDefaultSearchLimit(10);
+        bookingProperties.setMaxSearchLimit(100);
+        bookingProperties.setConflictSuggestions(2);
+        bookingProperties.setConflictHorizonHours(8);
 
         lenient().when(httpRequest.getSession()).thenReturn(httpSession);
     }
@@ -96,8 +164,6 @@ public class BookingServiceTest {
         BookingDTO bookingDTO = new BookingDTO("user1", "Room1", LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
         Booking booking = new Booking(normalUser, room1, bookingDTO.startTime(), bookingDTO.endTime());
 
-
-        when(bookingRepository.findByRoomName("Room1")).thenReturn(Collections.emptyList());
         when(httpSession.getAttribute("loggedIn")).thenReturn(normalUserDTO);
         when(userMapper.toEntity(normalUserDTO)).thenReturn(normalUser);
         when(bookingMapper.toEntity(bookingDTO)).thenReturn(booking);
@@ -113,7 +179,7 @@ public class BookingServiceTest {
         BookingDTO bookingDTO = new BookingDTO("User", "Room1", LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
         Booking existingBooking = new Booking(normalUser, room1, bookingDTO.startTime(), bookingDTO.endTime());
 
-        when(bookingRepository.findByRoomName("Room1")).thenReturn(List.of(existingBooking));
+        bookingIntervalIndex.add("Room1", existingBooking.getStartTime(), existingBooking.getEndTime());
 
         softly.assertThatThrownBy(() -> bookingService.createBooking(httpRequest, bookingDTO))
                 .isInstanceOf(BookingIsNotAvailableException.class)
@@ -121,6 +187,306 @@ public class BookingServiceTest {
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    @DisplayName("Should propose the next free times in the room and free rooms of the same type on conflict")
+    public void testCreateBookingConflictSuggestions(SoftAssertions softly) {
+        LocalDateTime ten = LocalDateTime.parse("2024-06-20T10", dateFormatter);
+        BookingDTO bookingDTO = new BookingDTO("user1", "Room1", ten, ten.plusHours(1));
+        roomCatalog.replace(List.of(new RoomDTO("Room1", "MEETING_ROOM"), new RoomDTO("Room2", "MEETING_ROOM"),
+                new RoomDTO("Room3", "MEETING_ROOM"), new RoomDTO("Desk1", "WORKSPACE")));
+        bookingIntervalIndex.add("Room1", ten, ten.plusHours(1));
+        bookingIntervalIndex.add("Room1", ten.plusMinutes(90), ten.plusHours(2));
+        bookingIntervalIndex.add("Room1", ten.plusHours(3), ten.plusHours(4));
+        bookingIntervalIndex.add("Room3", ten, ten.plusMinutes(30));
+
+        BookingIsNotAvailableException e = catchThrowableOfType(
+                () -> bookingService.createBooking(httpRequest, bookingDTO), BookingIsNotAvailableException.class);
+
+        softly.assertThat(e).hasMessage("Booking this room and time is not available");
+        softly.assertThat(e.getConflict()).isEqualTo(new BookingConflictDTO("Booking this room and time is not available",
+                List.of(new FreeIntervalDTO(ten.plusHours(2), ten.plusHours(3)),
+                        new FreeIntervalDTO(ten.plusHours(4), ten.plusHours(5))),
+                List.of(new RoomCandidateDTO("Room2", "MEETING_ROOM", ten, ten.plusHours(1), ten.plusHours(8)),
+                        new RoomCandidateDTO("Room3", "MEETING_ROOM", ten.plusMinutes(30), ten.plusMinutes(90), ten.plusHours(8)))));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).findByRoomAndRange(any(), any(), any());
+    }
+
+
+    @Test
+    @DisplayName("Should reject creating or moving a booking that does not end after it starts or has no room")
+    public void testInvalidBookingTimes(SoftAssertions softly) {
+        LocalDateTime ten = LocalDateTime.parse("2024-06-20T10", dateFormatter);
+
+        softly.assertThatThrownBy(() -> bookingService.createBooking(httpRequest, new BookingDTO("user1", "Room1", ten, ten)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("End time must be after start time");
+        softly.assertThatThrownBy(() -> bookingService.createBooking(httpRequest, new BookingDTO("user1", "Room1", ten, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        softly.assertThatThrownBy(() -> bookingService.updateBooking(httpRequest,
+                        new UpdateBookingRequest("Room1", ten, "Room2", ten.plusHours(2), ten.plusHours(1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("End time must be after start time");
+        softly.assertThatThrownBy(() -> bookingService.updateBooking(httpRequest,
+                        new UpdateBookingRequest("Room1", ten, null, ten.plusHours(1), ten.plusHours(2))))
+                .isInstanceOf(IllegalArgumentException.class);
+        softly.assertThatThrownBy(() -> bookingService.updateBooking(httpRequest,
+                        new UpdateBookingRequest(null, ten, "Room2", ten.plusHours(1), ten.plusHours(2))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(roomLocks, never()).withRooms(any(), any(Runnable.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).update(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject booking when the database reports an overlap missed by the index")
+    public void testCreateBookingRejectedByDatabase(SoftAssertions softly) {
+        BookingDTO bookingDTO = new BookingDTO("user1", "Room1", LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
+        Booking booking = new Booking(normalUser, room1, bookingDTO.startTime(), bookingDTO.endTime());
+
+        when(httpSession.getAttribute("loggedIn")).thenReturn(normalUserDTO);
+        when(userMapper.toEntity(normalUserDTO)).thenReturn(normalUser);
+        when(bookingMapper.toEntity(bookingDTO)).thenReturn(booking);
+        doThrow(new BookingIsNotAvailableException("Booking this room and time is not available"))
+                .when(bookingRepository).save(booking);
+
+        softly.assertThatThrownBy(() -> bookingService.createBooking(httpRequest, bookingDTO))
+                .isInstanceOf(BookingIsNotAvailableException.class);
+        verify(bookingRepository, never()).findRoomByName(any());
+    }
+
+    @Test
+    @DisplayName("Should create booking starting exactly when another booking ends")
+    public void testCreateBookingAdjacentToExistingBooking() {
+        BookingDTO bookingDTO = new BookingDTO("user1", "Room1", LocalDateTime.parse("2024-06-20T11", dateFormatter), LocalDateTime.parse("2024-06-20T12", dateFormatter));
+        Booking booking = new Booking(normalUser, room1, bookingDTO.startTime(), bookingDTO.endTime());
+        bookingIntervalIndex.add("Room1", LocalDateTime.parse("2024-06-20T10", dateFormatter), bookingDTO.startTime());
+
+        when(httpSession.getAttribute("loggedIn")).thenReturn(normalUserDTO);
+        when(userMapper.toEntity(normalUserDTO)).thenReturn(normalUser);
+        when(bookingMapper.toEntity(bookingDTO)).thenReturn(booking);
+
+        bookingService.createBooking(httpRequest, bookingDTO);
+
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, never()).findByRoomName(any());
+    }
+
+    @Test
+    @DisplayName("Should validate a batch in one pass and insert the accepted bookings with one saveAll")
+    public void testCreateBookings(SoftAssertions softly) {
+        LocalDateTime ten = LocalDateTime.parse("2024-06-20T10", dateFormatter);
+        BookingDTO accepted = new BookingDTO("user1", "Room1", ten, ten.plusHours(1));
+        BookingDTO overlapsBatch = new BookingDTO("user1", "Room1", ten.plusMinutes(30), ten.plusMinutes(90));
+        BookingDTO overlapsExisting = new BookingDTO("user1", "Room2", ten, ten.plusHours(1));
+        BookingDTO unknownRoom = new BookingDTO("user1", "Room3", ten, ten.plusHours(1));
+        BookingDTO reversed = new BookingDTO("user1", "Room1", ten.plusHours(2), ten.plusHours(1));
+        Booking booking = new Booking(normalUser, room1, accepted.startTime(), accepted.endTime());
+        bookingIntervalIndex.add("Room2", ten, ten.plusHours(1));
+
+        when(httpSession.getAttribute("loggedIn")).thenReturn(normalUserDTO);
+        when(userMapper.toEntity(normalUserDTO)).thenReturn(normalUser);
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+        when(roomRepository.findByName("Room2")).thenReturn(Optional.of(room2));
+        when(bookingMapper.toEntity(accepted)).thenReturn(booking);
+        when(bookingRepository.saveAll(List.of(booking))).thenReturn(new int[]{1});
+
+        List<BookingBatchItemDTO> results = bookingService.createBookings(httpRequest,
+                List.of(accepted, overlapsBatch, overlapsExisting, unknownRoom, reversed));
+
+        softly.assertThat(results).containsExactly(
+                new BookingBatchItemDTO(0, true, null),
+                new BookingBatchItemDTO(1, false, "Overlaps another booking of the batch"),
+                new BookingBatchItemDTO(2, false, "Booking this room and time is not available"),
+                new BookingBatchItemDTO(3, false, "Room not found"),
+                new BookingBatchItemDTO(4, false, "End time must be after start time"));
+        verify(bookingRepository, times(1)).saveAll(any());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a batch larger than the configured maximum")
+    public void testCreateBookingsTooLarge(SoftAssertions softly) {
+        BookingDTO bookingDTO = new BookingDTO("user1", "Room1", LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
+        bookingProperties.setMaxBatchSize(1);
+
+        softly.assertThatThrownBy(() -> bookingService.createBookings(httpRequest, List.of(bookingDTO, bookingDTO)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should create a series whose occurrences are all free")
+    public void testCreateBookingSeries(SoftAssertions softly) {
+        LocalDateTime ten = LocalDateTime.parse("2024-06-20T10", dateFormatter);
+        BookingSeriesDTO seriesDTO = new BookingSeriesDTO(null, null, "Room1", ten, ten.plusHours(1),
+                RecurrenceFrequency.WEEKLY, 1, 4, null, null);
+        bookingIntervalIndex.add("Room1", ten.plusDays(1), ten.plusDays(1).plusHours(1));
+
+        when(httpSession.getAttribute("loggedIn")).thenReturn(normalUserDTO);
+        when(userMapper.toEntity(normalUserDTO)).thenReturn(normalUser);
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+        doAnswer(invocation -> {
+            invocation.<BookingSeries>getArgument(0).setId(7L);
+            return null;
+        }).when(bookingSeriesRepository).save(any(BookingSeries.class));
+
+        softly.assertThat(bookingService.createBookingSeries(httpRequest, seriesDTO)).isEqualTo(7L);
+        verify(bookingSeriesRepository, times(1)).save(any(BookingSeries.class));
+    }
+
+    @Test
+    @DisplayName("Should not create a series when one occurrence is not available or the series is too long")
+    public void testCreateBookingSeriesNotAvailable(SoftAssertions softly) {
+        LocalDateTime ten = LocalDateTime.parse("2024-06-20T10", dateFormatter);
+        BookingSeriesDTO seriesDTO = new BookingSeriesDTO(null, null, "Room1", ten, ten.plusHours(1),
+                RecurrenceFrequency.WEEKLY, 1, 4, null, null);
+        BookingSeriesDTO endless = new BookingSeriesDTO(null, null, "Room1", ten, ten.plusHours(1),
+                RecurrenceFrequency.DAILY, 1, null, LocalDate.of(2030, 1, 1), null);
+        bookingIntervalIndex.add("Room1", ten.plusWeeks(2).plusMinutes(30), ten.plusWeeks(2).plusHours(2));
+
+        when(httpSession.getAttribute("loggedIn")).thenReturn(normalUserDTO);
+        when(userMapper.toEntity(normalUserDTO)).thenReturn(normalUser);
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+
+        softly.assertThatThrownBy(() -> bookingService.createBookingSeries(httpRequest, seriesDTO))
+                .isInstanceOf(BookingIsNotAvailableException.class)
+                .hasMessageContaining(ten.plusWeeks(2).toString());
+        softly.assertThatThrownBy(() -> bookingService.createBookingSeries(httpRequest, endless))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most 52 occurrences");
+        verify(bookingSeriesRepository, never()).save(any(BookingSeries.class));
+    }
+
+    @Test
+    @DisplayName("Should compute free slots and intervals from the occupancy bits when bookings are aligned")
+    public void testGetAvailableHours(SoftAssertions softly) {
+        LocalDate date = LocalDate.of(2024, 6, 20);
+        GetAvailableHoursRequest request = new GetAvailableHoursRequest(date, "Room1", 30);
+        bookingIntervalIndex.add("Room1", date.minusDays(1).atTime(23, 0), date.atTime(1, 15));
+        bookingIntervalIndex.add("Room1", date.atTime(9, 0), date.atTime(10, 0));
+        bookingIntervalIndex.add("Room1", date.atTime(9, 30), date.atTime(10, 30));
+        bookingIntervalIndex.add("Room1", date.atTime(22, 0), date.plusDays(1).atTime(2, 0));
+
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+
+        AvailableHoursDTO result = bookingService.getAvailableHours(request);
+
+        softly.assertThat(result.slotMinutes()).isEqualTo(30);
+        softly.assertThat(result.freeIntervals()).containsExactly(
+                new FreeIntervalDTO(date.atTime(1, 15), date.atTime(9, 0)),
+                new FreeIntervalDTO(date.atTime(10, 30), date.atTime(22, 0)));
+        softly.assertThat(result.slots()).startsWith(LocalTime.of(1, 30), LocalTime.of(2, 0))
+                .contains(LocalTime.of(8, 30), LocalTime.of(10, 30), LocalTime.of(21, 30))
+                .doesNotContain(LocalTime.of(1, 0), LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(22, 0))
+                .hasSize(15 + 23);
+        verify(bookingRepository, never()).findByRoomName(any());
+        verify(bookingRepository, never()).findByRoomAndRange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should compute free slots and intervals from one range query when a booking is not aligned")
+    public void testGetAvailableHoursUnaligned(SoftAssertions softly) {
+        LocalDate date = LocalDate.of(2024, 6, 20);
+        GetAvailableHoursRequest request = new GetAvailableHoursRequest(date, "Room1", 60);
+        Booking morning = new Booking(normalUser, room1, date.atTime(9, 10), date.atTime(10, 0));
+        bookingIntervalIndex.add("Room1", morning.getStartTime(), morning.getEndTime());
+
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+        when(bookingRepository.findByRoomAndRange("Room1", date.atStartOfDay(), date.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(morning));
+
+        AvailableHoursDTO result = bookingService.getAvailableHours(request);
+
+        softly.assertThat(result.freeIntervals()).containsExactly(
+                new FreeIntervalDTO(date.atStartOfDay(), date.atTime(9, 10)),
+                new FreeIntervalDTO(date.atTime(10, 0), date.plusDays(1).atStartOfDay()));
+        softly.assertThat(result.slots()).contains(LocalTime.of(8, 0), LocalTime.of(10, 0))
+                .doesNotContain(LocalTime.of(9, 0)).hasSize(23);
+    }
+
+    @Test
+    @DisplayName("Should treat occurrences of a series as bookings when computing free intervals")
+    public void testGetAvailableHoursWithSeries(SoftAssertions softly) {
+        LocalDate date = LocalDate.of(2024, 6, 20);
+        GetAvailableHoursRequest request = new GetAvailableHoursRequest(date, "Room1", 60);
+        bookingIntervalIndex.add("Room1", date.atTime(9, 0), date.atTime(10, 0));
+        bookingIntervalIndex.addSeries(new BookingSeries(normalUser, room1, date.minusDays(7).atTime(12, 0),
+                date.minusDays(7).atTime(13, 0), RecurrenceFrequency.WEEKLY, 1, 10, null));
+
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+
+        AvailableHoursDTO result = bookingService.getAvailableHours(request);
+
+        softly.assertThat(result.freeIntervals()).containsExactly(
+                new FreeIntervalDTO(date.atStartOfDay(), date.atTime(9, 0)),
+                new FreeIntervalDTO(date.atTime(10, 0), date.atTime(12, 0)),
+                new FreeIntervalDTO(date.atTime(13, 0), date.plusDays(1).atStartOfDay()));
+        softly.assertThat(result.slots()).doesNotContain(LocalTime.of(9, 0), LocalTime.of(12, 0)).hasSize(22);
+    }
+
+    @Test
+    @DisplayName("Should rank free rooms of the requested type by earliest start and tightest fit")
+    public void testSearchRooms(SoftAssertions softly) {
+        LocalDateTime two = LocalDateTime.parse("2024-06-20T14", dateFormatter);
+        roomCatalog.replace(List.of(new RoomDTO("Room1", "MEETING_ROOM"), new RoomDTO("Room2", "MEETING_ROOM"),
+                new RoomDTO("Room3", "MEETING_ROOM"), new RoomDTO("Room4", "MEETING_ROOM"), new RoomDTO("Desk1", "WORKSPACE")));
+        bookingIntervalIndex.add("Room1", two, two.plusMinutes(30));
+        bookingIntervalIndex.add("Room2", two.plusHours(1), two.plusHours(2));
+        bookingIntervalIndex.add("Room4", two.minusHours(1), two.plusHours(4));
+        SearchRoomsRequest request = new SearchRoomsRequest(two, two.plusHours(4), 60, RoomType.MEETING_ROOM, null);
+
+        List<RoomCandidateDTO> candidates = bookingService.searchRooms(request);
+
+        softly.assertThat(candidates).containsExactly(
+                new RoomCandidateDTO("Room2", "MEETING_ROOM", two, two.plusHours(1), two.plusHours(1)),
+                new RoomCandidateDTO("Room3", "MEETING_ROOM", two, two.plusHours(1), two.plusHours(4)),
+                new RoomCandidateDTO("Room1", "MEETING_ROOM", two.plusMinutes(30), two.plusMinutes(90), two.plusHours(4)));
+        softly.assertThat(bookingService.searchRooms(new SearchRoomsRequest(two, two.plusHours(4), 60, null, 2)))
+                .extracting(RoomCandidateDTO::roomName).containsExactly("Room2", "Desk1");
+        softly.assertThatThrownBy(() -> bookingService.searchRooms(new SearchRoomsRequest(two, two, 60, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(bookingRepository, never()).findByRoomAndRange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should search a thousand rooms without querying the database")
+    public void testSearchRoomsAcrossManyRooms(SoftAssertions softly) {
+        LocalDate date = LocalDate.of(2024, 6, 20);
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (int r = 0; r < 1_000; r++) {
+            String roomName = "Room" + r;
+            rooms.add(new RoomDTO(roomName, r % 2 == 0 ? "MEETING_ROOM" : "WORKSPACE"));
+            for (int d = -7; d <= 7; d++) {
+                for (int h = 8; h < 18; h += 2) {
+                    bookingIntervalIndex.add(roomName, date.plusDays(d).atTime(h, 0), date.plusDays(d).atTime(h + 1, r % 60));
+                }
+            }
+        }
+        roomCatalog.replace(rooms);
+        SearchRoomsRequest request = new SearchRoomsRequest(date.atTime(8, 0), date.atTime(18, 0), 45, RoomType.MEETING_ROOM, 5);
+
+        List<RoomCandidateDTO> candidates = bookingService.searchRooms(request);
+
+        softly.assertThat(candidates).hasSize(5).allSatisfy(candidate -> {
+            softly.assertThat(candidate.roomType()).isEqualTo("MEETING_ROOM");
+            softly.assertThat(candidate.start()).isEqualTo(date.atTime(9, 0));
+        });
+        softly.assertThat(candidates).extracting(RoomCandidateDTO::roomName)
+                .containsExactly("Room0", "Room120", "Room180", "Room240", "Room300");
+        verify(bookingRepository, never()).findByRoomAndRange(any(), any(), any());
+        verify(roomRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reject slot lengths that do not divide a day")
+    public void testGetAvailableHoursInvalidSlot(SoftAssertions softly) {
+        GetAvailableHoursRequest request = new GetAvailableHoursRequest(LocalDate.of(2024, 6, 20), "Room1", 7);
+
+        softly.assertThatThrownBy(() -> bookingService.getAvailableHours(request))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(bookingRepository, never()).findByRoomAndRange(any(), any(), any());
+    }
 
     @Test
     @DisplayName("Should update booking by creator")
@@ -138,6 +504,12 @@ public class BookingServiceTest {
 
         bookingService.updateBooking(httpRequest, request);
 
+        InOrder order = inOrder(roomLocks, unitOfWork, bookingRepository);
+        order.verify(roomLocks).withRooms(eq(List.of("Room1", "Room2")), any(Runnable.class));
+        order.verify(unitOfWork).inTransaction(any(Runnable.class));
+        order.verify(bookingRepository).findByRoomAndTime("Room1", originalStart);
+        order.verify(bookingRepository).update(any(Booking.class), any(Booking.class));
+
         ArgumentCaptor<Booking> oldBookingCaptor = ArgumentCaptor.forClass(Booking.class);
         ArgumentCaptor<Booking> newBookingCaptor = ArgumentCaptor.forClass(Booking.class);
 
@@ -244,13 +616,32 @@ public class BookingServiceTest {
         FilterBookingsRequest request = new FilterBookingsRequest(filterDate, null, null);
         Booking booking = new Booking(new User("user1", "password"), room1, LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
 
-        when(bookingRepository.findAll()).thenReturn(List.of(booking));
+        when(bookingRepository.findByFilter(null, null, filterDate)).thenReturn(List.of(booking));
 
         List<BookingDTO> filteredBookings = bookingService.filterBookings(request);
 
         softly.assertThat(filteredBookings).hasSize(1);
     }
 
+    @Test
+    @DisplayName("Should include the occurrences of series on the filtered date")
+    public void testFilterBookingsWithSeries(SoftAssertions softly) {
+        LocalDate filterDate = LocalDate.of(2024, 6, 20);
+        FilterBookingsRequest request = new FilterBookingsRequest(filterDate, null, "Room1");
+        bookingIntervalIndex.addSeries(new BookingSeries(normalUser, room1, filterDate.minusDays(2).atTime(12, 0),
+                filterDate.minusDays(2).atTime(13, 0), RecurrenceFrequency.DAILY, 2, 5, null));
+        bookingIntervalIndex.addSeries(new BookingSeries(normalUser, room2, filterDate.atTime(12, 0),
+                filterDate.atTime(13, 0), RecurrenceFrequency.DAILY, 1, 5, null));
+
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+        when(bookingRepository.findByFilter(null, "Room1", filterDate)).thenReturn(List.of());
+
+        List<BookingDTO> filteredBookings = bookingService.filterBookings(request);
+
+        softly.assertThat(filteredBookings).containsExactly(
+                new BookingDTO("user1", "Room1", filterDate.atTime(12, 0), filterDate.atTime(13, 0)));
+    }
+
     @Test
     @DisplayName("Should filter bookings by user")
     public void testFilterBookingsByUser(SoftAssertions softly) {
@@ -258,7 +649,7 @@ public class BookingServiceTest {
         Booking booking = new Booking(new User("user1", "password"), room1, LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
 
         when(userRepository.findByUsername("user1")).thenReturn(Optional.of(new User("user1", "password")));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking));
+        when(bookingRepository.findByFilter("user1", null, null)).thenReturn(List.of(booking));
 
         List<BookingDTO> filteredBookings = bookingService.filterBookings(request);
 
@@ -272,10 +663,70 @@ public class BookingServiceTest {
         Booking booking = new Booking(new User("user1", "password"), room1, LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
 
         when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking));
+        when(bookingRepository.findByFilter(null, "Room1", null)).thenReturn(List.of(booking));
 
         List<BookingDTO> filteredBookings = bookingService.filterBookings(request);
 
         softly.assertThat(filteredBookings).hasSize(1);
     }
+
+    @Test
+    @DisplayName("Should ignore filter by unknown user")
+    public void testFilterBookingsByUnknownUser(SoftAssertions softly) {
+        FilterBookingsRequest request = new FilterBookingsRequest(null, "ghost", "Room1");
+        Booking booking = new Booking(new User("user1", "password"), room1, LocalDateTime.parse("2024-06-20T10", dateFormatter), LocalDateTime.parse("2024-06-20T11", dateFormatter));
+
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+        when(roomRepository.findByName("Room1")).thenReturn(Optional.of(room1));
+        when(bookingRepository.findByFilter(null, "Room1", null)).thenReturn(List.of(booking));
+
+        List<BookingDTO> filteredBookings = bookingService.filterBookings(request);
+
+        softly.assertThat(filteredBookings).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should return a page with the cursor of the next page")
+    public void testFilterBookingsPage(SoftAssertions softly) {
+        FilterBookingsPageRequest request = new FilterBookingsPageRequest(null, null, null, null, null, null);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking(normalUser, room1, LocalDateTime.parse("2024-06-20T1" + i, dateFormatter), LocalDateTime.parse("2024-06-20T1" + (i + 1), dateFormatter));
+            booking.setId((long) i + 1);
+            bookings.add(booking);
+        }
+
+        when(bookingRepository.findPageByFilter(null, null, null, null, null, 3)).thenReturn(bookings);
+
+        BookingPageDTO page = bookingService.filterBookingsPage(request);
+
+        softly.assertThat(page.bookings()).hasSize(2);
+        softly.assertThat(page.nextStartTime()).isEqualTo(bookings.get(1).getStartTime());
+        softly.assertThat(page.nextId()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should cap page size and return no cursor on the last page")
+    public void testFilterBookingsLastPage(SoftAssertions softly) {
+        LocalDateTime after = LocalDateTime.parse("2024-06-20T10", dateFormatter);
+        FilterBookingsPageRequest request = new FilterBookingsPageRequest(null, null, null, after, 1L, 1000);
+        Booking booking = new Booking(normalUser, room1, LocalDateTime.parse("2024-06-20T12", dateFormatter), LocalDateTime.parse("2024-06-20T13", dateFormatter));
+
+        when(bookingRepository.findPageByFilter(null, null, null, after, 1L, 4)).thenReturn(List.of(booking));
+
+        BookingPageDTO page = bookingService.filterBookingsPage(request);
+
+        softly.assertThat(page.bookings()).hasSize(1);
+        softly.assertThat(page.nextStartTime()).isNull();
+        softly.assertThat(page.nextId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a page request with an incomplete cursor")
+    public void testFilterBookingsPageIncompleteCursor(SoftAssertions softly) {
+        FilterBookingsPageRequest request = new FilterBookingsPageRequest(null, null, null, LocalDateTime.now(), null, null);
+
+        softly.assertThatThrownBy(() -> bookingService.filterBookingsPage(request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
\ No newline at end of file
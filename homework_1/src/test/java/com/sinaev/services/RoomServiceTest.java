@@ -1,5 +1,7 @@
 package com.sinaev.services;
 
+import com.sinaev.caches.RoomCatalog;
+import com.sinaev.configs.properties.TokenProperties;
 import com.sinaev.exceptions.ObjectAlreadyExistsException;
 import com.sinaev.mappers.RoomMapper;
 import com.sinaev.models.dto.RoomDTO;
@@ -8,6 +10,7 @@ import com.sinaev.models.entities.Room;
 import com.sinaev.models.enums.RoomType;
 import com.sinaev.models.requests.room.UpdateRoomRequest;
 import com.sinaev.repositories.RoomRepository;
+import com.sinaev.security.SessionTokens;
 import com.sinaev.services.impl.RoomServiceImpl;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -17,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.servlet.http.HttpServletRequest;
@@ -47,6 +51,12 @@ public class RoomServiceTest {
     @Mock
     private RoomMapper roomMapper;
 
+    @Spy
+    private RoomCatalog roomCatalog;
+
+    @Spy
+    private SessionTokens sessionTokens = new SessionTokens(new TokenProperties());
+
     @InjectMocks
     private RoomServiceImpl roomService;
 
@@ -103,18 +113,33 @@ public class RoomServiceTest {
     }
 
     @Test
-    @DisplayName("Should retrieve all rooms")
+    @DisplayName("Should retrieve all rooms from the catalog without querying the database")
     void testGetRooms(SoftAssertions softly) {
-        Room room = new Room("Room1", RoomType.MEETING_ROOM);
-        RoomDTO roomDTO = new RoomDTO("Room1", RoomType.MEETING_ROOM.name());
-
-        when(roomRepository.findAll()).thenReturn(Collections.singletonList(room));
-        when(roomMapper.toDTO(room)).thenReturn(roomDTO);
+        roomCatalog.replace(List.of(new RoomDTO("Room1", RoomType.MEETING_ROOM.name())));
 
         List<RoomDTO> retrievedRooms = roomService.getRooms();
 
         softly.assertThat(retrievedRooms).hasSize(1);
         softly.assertThat(retrievedRooms.get(0).name()).isEqualTo("Room1");
+        verify(roomRepository, never()).findAll();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Should swap in a new catalog snapshot after a room is created")
+    void testCreateRoomRefreshesCatalog(SoftAssertions softly) {
+        when(httpSession.getAttribute("loggedIn")).thenReturn(adminUserDTO);
+        Room room = new Room("Room1", RoomType.MEETING_ROOM);
+        when(roomMapper.toEntity(roomDTO)).thenReturn(room);
+        when(roomRepository.findAll()).thenReturn(Collections.singletonList(room));
+        when(roomMapper.toDTO(room)).thenReturn(roomDTO);
+        String etagBefore = roomService.getRoomCatalog().etag();
+
+        roomService.createRoom(httpRequest, roomDTO);
+
+        softly.assertThat(roomService.getRoomCatalog().rooms()).containsExactly(roomDTO);
+        softly.assertThat(roomService.getRoomCatalog().etag()).isNotEqualTo(etagBefore);
+        softly.assertThat(roomService.refreshRoomCatalog()).isFalse();
         softly.assertAll();
     }
 
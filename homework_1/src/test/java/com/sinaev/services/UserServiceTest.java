@@ -1,10 +1,13 @@
 package com.sinaev.services;
 
+import com.sinaev.configs.properties.TokenProperties;
 import com.sinaev.exceptions.UsernameAlreadyTakenException;
 import com.sinaev.mappers.UserMapper;
+import com.sinaev.models.dto.AuthTokenDTO;
 import com.sinaev.models.dto.UserDTO;
 import com.sinaev.models.entities.User;
 import com.sinaev.repositories.UserRepository;
+import com.sinaev.security.SessionTokens;
 import com.sinaev.services.impl.UserServiceImpl;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -13,7 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.servlet.http.HttpServletRequest;
@@ -22,7 +25,7 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -44,6 +47,9 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Spy
+    private SessionTokens sessionTokens = new SessionTokens(new TokenProperties());
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -80,21 +86,35 @@ public class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Should login user successfully")
+    @DisplayName("Should login user successfully with a single lookup")
     public void testLoginUser() {
         User user = new User("user1", "password");
         UserDTO userDTO = new UserDTO("user1", "password", false);
 
         when(userRepository.findByUsername(userDTO.username())).thenReturn(Optional.of(user));
-        when(userMapper.toEntity(userDTO)).thenReturn(user);
+        when(userMapper.toDTO(user)).thenReturn(userDTO);
+        when(httpRequest.getSession()).thenReturn(httpSession);
 
-        UserServiceImpl spyUserService = Mockito.spy(userService);
-        doNothing().when(spyUserService).setUserDTOInSession(httpRequest, userDTO);
+        userService.login(httpRequest, userDTO);
 
-        spyUserService.login(httpRequest, userDTO);
+        verify(userRepository, times(1)).findByUsername("user1");
+        verify(httpSession, times(1)).setAttribute("loggedIn", userDTO);
+    }
 
-        verify(userRepository, times(2)).findByUsername("user1");
-        verify(spyUserService, times(1)).setUserDTOInSession(httpRequest, userDTO);
+    @Test
+    @DisplayName("Should return a session token instead of using the session in token mode")
+    public void testLoginUserInTokenMode(SoftAssertions softly) {
+        User user = new User("user1", "password");
+        UserDTO userDTO = new UserDTO("user1", "password", false);
+        AuthTokenDTO token = new AuthTokenDTO("token", "Bearer", 3600);
+
+        when(userRepository.findByUsername(userDTO.username())).thenReturn(Optional.of(user));
+        when(userMapper.toDTO(user)).thenReturn(userDTO);
+        doReturn(true).when(sessionTokens).isEnabled();
+        doReturn(token).when(sessionTokens).issue(userDTO);
+
+        softly.assertThat(userService.login(httpRequest, userDTO)).isEqualTo(token);
+        verify(httpRequest, never()).getSession();
     }
 
     @Test
@@ -110,22 +130,20 @@ public class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Should login admin user successfully")
+    @DisplayName("Should login admin user successfully with a single lookup")
     public void testLoginAdminUser() {
         User adminUser = new User("admin", "adminpass");
         adminUser.setAdmin(true);
         UserDTO adminUserDTO = new UserDTO("admin", "adminpass", true);
 
         when(userRepository.findByUsername(adminUserDTO.username())).thenReturn(Optional.of(adminUser));
-        when(userMapper.toEntity(adminUserDTO)).thenReturn(adminUser);
-
-        UserServiceImpl spyUserService = Mockito.spy(userService);
+        when(userMapper.toDTO(adminUser)).thenReturn(adminUserDTO);
+        when(httpRequest.getSession()).thenReturn(httpSession);
 
-        doNothing().when(spyUserService).setUserDTOInSession(httpRequest, adminUserDTO);
-        spyUserService.login(httpRequest, adminUserDTO);
+        userService.login(httpRequest, adminUserDTO);
 
-        verify(userRepository, times(2)).findByUsername("admin");
-        verify(spyUserService, times(1)).setUserDTOInSession(httpRequest, adminUserDTO);
+        verify(userRepository, times(1)).findByUsername("admin");
+        verify(httpSession, times(1)).setAttribute("loggedIn", adminUserDTO);
     }
 
     @Test
@@ -0,0 +1,124 @@
+package com.sinaev.transactions;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UnitOfWorkTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private UnitOfWork unitOfWork;
+    private SoftAssertions softly;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        unitOfWork = new UnitOfWork(dataSource);
+        softly = new SoftAssertions();
+    }
+
+    @Test
+    @DisplayName("Test nested work shares one connection and commits once after the outermost call")
+    public void testNestedWorkSharesConnection() throws SQLException {
+        List<String> events = new ArrayList<>();
+
+        unitOfWork.inTransaction(() -> {
+            try (Connection first = unitOfWork.getConnection()) {
+                first.prepareStatement("UPDATE bookings SET start_time = ?");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            UnitOfWork.afterCommit(() -> events.add("index updated"));
+            unitOfWork.inTransaction(() -> {
+                try (Connection second = unitOfWork.getConnection()) {
+                    second.prepareStatement("DELETE FROM bookings WHERE id = ?");
+                    second.commit();
+                    softly.assertThat(second.isClosed()).isFalse();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            events.add("work done");
+        });
+
+        softly.assertThat(events).containsExactly("work done", "index updated");
+        softly.assertThat(UnitOfWork.isActive()).isFalse();
+        softly.assertAll();
+        verify(dataSource, times(1)).getConnection();
+        InOrder order = inOrder(connection);
+        order.verify(connection).setAutoCommit(false);
+        order.verify(connection).prepareStatement("UPDATE bookings SET start_time = ?");
+        order.verify(connection).prepareStatement("DELETE FROM bookings WHERE id = ?");
+        order.verify(connection).commit();
+        order.verify(connection).setAutoCommit(true);
+        order.verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Test failing work is rolled back and its after-commit actions are dropped")
+    public void testRollbackOnFailure() throws SQLException {
+        List<String> events = new ArrayList<>();
+
+        softly.assertThatThrownBy(() -> unitOfWork.inTransaction(() -> {
+            UnitOfWork.afterCommit(() -> events.add("index updated"));
+            throw new IllegalArgumentException("overlap");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("overlap");
+
+        softly.assertThat(events).isEmpty();
+        softly.assertAll();
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Test a participant rollback marks the unit rollback-only")
+    public void testParticipantRollback() throws SQLException {
+        List<String> events = new ArrayList<>();
+
+        unitOfWork.inTransaction(() -> {
+            try {
+                unitOfWork.getConnection().rollback();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            UnitOfWork.afterCommit(() -> events.add("index updated"));
+        });
+
+        softly.assertThat(events).isEmpty();
+        softly.assertAll();
+        verify(connection, times(1)).rollback();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    @DisplayName("Test outside a unit every call borrows its own connection and after-commit actions run immediately")
+    public void testOutsideUnit() throws SQLException {
+        List<String> events = new ArrayList<>();
+
+        softly.assertThat(unitOfWork.getConnection()).isSameAs(connection);
+        UnitOfWork.afterCommit(() -> events.add("index updated"));
+
+        softly.assertThat(events).containsExactly("index updated");
+        softly.assertAll();
+        verify(connection, never()).setAutoCommit(false);
+    }
+}